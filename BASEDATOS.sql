@@ -1269,3 +1269,244 @@ NOTA: Los passwords están hasheados con BCrypt (factor de coste 10).
 -- FIN DE MODIFICACIONES BÁSICAS
 -- ============================================================================
 
+
+-- ============================================================================
+-- MODIFICACIÓN: CONTROL DE CONCURRENCIA OPTIMISTA EN NOTAS Y ASISTENCIA
+-- ============================================================================
+-- Propósito: Detectar ediciones concurrentes (profesor y coordinador) en lugar de
+--            que la última escritura sobrescriba en silencio
+-- La API expone la versión como ETag y acepta If-Match en PUT (409 si no coincide)
+-- ============================================================================
+
+ALTER TABLE `grades`
+ADD COLUMN `version` BIGINT NOT NULL DEFAULT 0 COMMENT 'Optimistic locking version' AFTER `assigned_by`;
+
+ALTER TABLE `attendance`
+ADD COLUMN `version` BIGINT NOT NULL DEFAULT 0 COMMENT 'Optimistic locking version' AFTER `recorded_by`;
+
+-- ============================================================================
+-- MODIFICACIÓN: CLAVES DE IDEMPOTENCIA (OPCIONAL, VARIOS NODOS)
+-- ============================================================================
+-- Propósito: Compartir entre nodos las respuestas de los POST con header Idempotency-Key
+-- Solo se usa con idempotency.db.enabled=true; con un solo nodo basta el caché en memoria
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS `idempotency_keys` (
+    `idempotency_key` CHAR(64) NOT NULL COMMENT 'SHA-256 of user, method, path and header value',
+    `request_fingerprint` CHAR(64) NOT NULL COMMENT 'SHA-256 of the request body',
+    `response_status` SMALLINT NULL COMMENT 'NULL while the first request is in progress',
+    `content_type` VARCHAR(100) NULL,
+    `response_body` MEDIUMBLOB NULL,
+    `created_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `expires_at` TIMESTAMP NOT NULL,
+    PRIMARY KEY (`idempotency_key`),
+    INDEX `idx_idempotency_expires` (`expires_at`)
+) ENGINE=InnoDB COMMENT='Stored responses for POST requests with Idempotency-Key';
+
+-- ============================================================================
+-- MODIFICACIÓN: OUTBOX TRANSACCIONAL DE EVENTOS DE CAMBIO
+-- ============================================================================
+-- Propósito: Publicar altas, cambios y bajas de notas, asistencias e inscripciones
+--            a sistemas externos sin que consulten los listados periódicamente
+-- Los eventos se escriben en la misma transacción que el cambio; el id es el offset
+-- que los consumidores usan para reanudar (GET /events/stream?since=)
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS `outbox_events` (
+    `id` BIGINT AUTO_INCREMENT,
+    `aggregate_type` VARCHAR(50) NOT NULL COMMENT 'Grade, Attendance, CourseEnrollment, LevelEnrollment',
+    `aggregate_id` BIGINT NOT NULL,
+    `event_type` VARCHAR(50) NOT NULL COMMENT 'e.g. GRADE_CREATED, ATTENDANCE_UPDATED',
+    `payload` TEXT NOT NULL COMMENT 'JSON payload',
+    `created_at` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (`id`),
+    INDEX `idx_outbox_created` (`created_at`)
+) ENGINE=InnoDB COMMENT='Transactional outbox of change events';
+
+-- ============================================================================
+-- MODIFICACIÓN: ARCHIVO DE PERÍODOS ACADÉMICOS CERRADOS
+-- ============================================================================
+-- Propósito: Mantener pequeñas las tablas calientes (grades, attendance, class_sessions)
+--            y sus índices moviendo a tablas de archivo las filas de los períodos cerrados
+-- Se usan tablas de archivo y no particiones: InnoDB no admite particiones en tablas
+-- con llaves foráneas. Las filas conservan su id; las tablas de archivo no tienen llaves
+-- foráneas para que el movimiento no bloquee ni dependa de las tablas calientes
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS `grades_archive` (
+    `id` BIGINT NOT NULL,
+    `academic_period_id` BIGINT NOT NULL,
+    `subject_enrollment_id` BIGINT NOT NULL,
+    `grade_period_id` BIGINT NOT NULL,
+    `grade_component_id` BIGINT NOT NULL,
+    `grade_value` DECIMAL(4,2) NOT NULL,
+    `assignment_date` DATE NOT NULL,
+    `update_date` TIMESTAMP NOT NULL,
+    `comments` TEXT NULL,
+    `assigned_by` BIGINT NULL,
+    `version` BIGINT NOT NULL DEFAULT 0,
+    `created_at` TIMESTAMP NOT NULL,
+    PRIMARY KEY (`id`),
+    INDEX `idx_grade_archive_period` (`academic_period_id`),
+    INDEX `idx_grade_archive_enrollment` (`subject_enrollment_id`)
+) ENGINE=InnoDB COMMENT='Grades of archived academic periods';
+
+CREATE TABLE IF NOT EXISTS `class_sessions_archive` (
+    `id` BIGINT NOT NULL,
+    `academic_period_id` BIGINT NOT NULL,
+    `subject_assignment_id` BIGINT NOT NULL,
+    `session_date` DATE NOT NULL,
+    `session_time` TIME NOT NULL,
+    `duration_minutes` SMALLINT NOT NULL,
+    `topic` VARCHAR(200) NULL,
+    `description` TEXT NULL,
+    `status` ENUM('PROGRAMADA', 'REALIZADA', 'CANCELADA', 'REPROGRAMADA') NOT NULL,
+    `created_at` TIMESTAMP NOT NULL,
+    `updated_at` TIMESTAMP NOT NULL,
+    PRIMARY KEY (`id`),
+    INDEX `idx_session_archive_period` (`academic_period_id`),
+    INDEX `idx_session_archive_assignment` (`subject_assignment_id`)
+) ENGINE=InnoDB COMMENT='Class sessions of archived academic periods';
+
+CREATE TABLE IF NOT EXISTS `attendance_archive` (
+    `id` BIGINT NOT NULL,
+    `academic_period_id` BIGINT NOT NULL,
+    `class_session_id` BIGINT NOT NULL,
+    `subject_enrollment_id` BIGINT NOT NULL,
+    `status` ENUM('PRESENTE', 'AUSENTE', 'TARDANZA', 'EXCUSADO') NOT NULL,
+    `assignment_date` DATE NOT NULL,
+    `update_date` TIMESTAMP NOT NULL,
+    `is_excused` BOOLEAN NOT NULL DEFAULT FALSE,
+    `excuse_reason` TEXT NULL,
+    `excuse_document` VARCHAR(200) NULL,
+    `notes` TEXT NULL,
+    `recorded_by` BIGINT NULL,
+    `version` BIGINT NOT NULL DEFAULT 0,
+    `created_at` TIMESTAMP NOT NULL,
+    PRIMARY KEY (`id`),
+    INDEX `idx_attendance_archive_period` (`academic_period_id`),
+    INDEX `idx_attendance_archive_enrollment` (`subject_enrollment_id`),
+    INDEX `idx_attendance_archive_session` (`class_session_id`)
+) ENGINE=InnoDB COMMENT='Attendance of archived academic periods';
+
+CREATE TABLE IF NOT EXISTS `period_archives` (
+    `academic_period_id` BIGINT NOT NULL,
+    `status` ENUM('RUNNING', 'COMPLETED', 'FAILED') NOT NULL,
+    `grades_moved` INT NOT NULL DEFAULT 0,
+    `attendance_moved` INT NOT NULL DEFAULT 0,
+    `sessions_moved` INT NOT NULL DEFAULT 0,
+    `started_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `finished_at` TIMESTAMP NULL,
+    `last_error` VARCHAR(500) NULL,
+    PRIMARY KEY (`academic_period_id`),
+    CONSTRAINT `fk_period_archive_period`
+        FOREIGN KEY (`academic_period_id`)
+        REFERENCES `academic_periods` (`id`)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE
+) ENGINE=InnoDB COMMENT='Archival runs per academic period';
+
+-- ============================================================================
+-- MODIFICACIÓN: CIERRE DE PERÍODO ACADÉMICO
+-- ============================================================================
+-- Propósito: Cerrar un semestre en un solo proceso (estados finales de materias,
+--            niveles y cursos, historial de egresados y desactivación del período)
+-- Una fila por período y curso: el proceso avanza por bloques de level_enrollments en
+-- orden de id y guarda aquí el último id procesado, en la misma transacción que el bloque,
+-- para retomar después de una caída sin repetir ni saltar inscripciones
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS `period_closeouts` (
+    `academic_period_id` BIGINT NOT NULL,
+    `course_id` BIGINT NOT NULL,
+    `status` ENUM('RUNNING', 'COMPLETED', 'FAILED') NOT NULL,
+    `last_level_enrollment_id` BIGINT NOT NULL DEFAULT 0 COMMENT 'Checkpoint',
+    `level_enrollments_closed` INT NOT NULL DEFAULT 0,
+    `subject_enrollments_closed` INT NOT NULL DEFAULT 0,
+    `graduated` INT NOT NULL DEFAULT 0,
+    `started_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `finished_at` TIMESTAMP NULL,
+    `last_error` VARCHAR(500) NULL,
+    PRIMARY KEY (`academic_period_id`, `course_id`),
+    CONSTRAINT `fk_closeout_period`
+        FOREIGN KEY (`academic_period_id`)
+        REFERENCES `academic_periods` (`id`)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE,
+    CONSTRAINT `fk_closeout_course`
+        FOREIGN KEY (`course_id`)
+        REFERENCES `courses` (`id`)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE
+) ENGINE=InnoDB COMMENT='Academic period close-out progress per course';
+
+-- ============================================================================
+-- MODIFICACIÓN: RESUMEN DIARIO DE ASISTENCIA
+-- ============================================================================
+-- Propósito: Servir tendencias de asistencia (GET /attendance/trends) sin leer las
+--            filas de attendance del rango
+-- Una fila por fecha de registro (assignment_date) y asignación de profesor con el conteo
+-- por estado. AttendanceService la mantiene en la misma transacción de cada escritura; un
+-- proceso la reconstruye desde attendance y attendance_archive por rangos de fechas.
+-- Sin FK a subject_assignments: el resumen se conserva aunque se archive o borre el detalle
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS `attendance_daily_rollup` (
+    `attendance_date` DATE NOT NULL,
+    `subject_assignment_id` BIGINT NOT NULL,
+    `present_count` INT NOT NULL DEFAULT 0,
+    `absent_count` INT NOT NULL DEFAULT 0,
+    `late_count` INT NOT NULL DEFAULT 0,
+    `excused_count` INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (`attendance_date`, `subject_assignment_id`),
+    INDEX `idx_rollup_assignment_date` (`subject_assignment_id`, `attendance_date`)
+) ENGINE=InnoDB COMMENT='Daily attendance counts per subject assignment and status';
+
+-- ============================================================================
+-- MODIFICACIÓN: BLOQUEO DE HORARIOS POR AULA
+-- ============================================================================
+-- Propósito: TimetableService bloquea (SELECT ... FOR UPDATE) las asignaciones del profesor
+--            y del aula antes de validar choques de horario; sin índice por aula el bloqueo
+--            recorrería toda la tabla subject_assignments
+-- ============================================================================
+
+ALTER TABLE `subject_assignments`
+ADD INDEX `idx_assignment_classroom` (`classroom`);
+
+-- ============================================================================
+-- MODIFICACIÓN: ÍNDICES DE CAMBIOS RECIENTES (ALERTAS TEMPRANAS)
+-- ============================================================================
+-- Propósito: El barrido incremental de AtRiskService busca asistencias y notas con
+--            update_date posterior a la marca de agua; sin índice cada pasada recorre
+--            las tablas completas
+-- ============================================================================
+
+ALTER TABLE `attendance`
+ADD INDEX `idx_attendance_update_date` (`update_date`);
+
+ALTER TABLE `grades`
+ADD INDEX `idx_grade_update_date` (`update_date`);
+
+-- ============================================================================
+-- MODIFICACIÓN: CIERRE DE PERÍODO - DESACTIVACIÓN PENDIENTE
+-- ============================================================================
+-- Propósito: Retomar tras una caída un cierre cuyas particiones terminaron pero que no
+--            alcanzó a desactivar el período, sin inferirlo de academic_periods.is_active
+--            (un período reactivado a propósito tras su cierre no debe cerrarse de nuevo)
+-- ============================================================================
+
+ALTER TABLE `period_closeouts`
+ADD COLUMN `deactivation_pending` BOOLEAN NOT NULL DEFAULT FALSE
+    COMMENT 'All partitions completed, period not yet deactivated' AFTER `status`;
+
+-- ============================================================================
+-- MODIFICACIÓN: BLOQUEO DE HORARIOS POR AULA NORMALIZADA
+-- ============================================================================
+-- Propósito: TimetableService compara las aulas normalizadas (UPPER(TRIM(classroom))) al
+--            bloquear y buscar choques; el índice funcional mantiene esas consultas sin
+--            recorrer toda la tabla (requiere MySQL 8.0.13+)
+-- ============================================================================
+
+ALTER TABLE `subject_assignments`
+DROP INDEX `idx_assignment_classroom`,
+ADD INDEX `idx_assignment_classroom_key` ((UPPER(TRIM(`classroom`))));
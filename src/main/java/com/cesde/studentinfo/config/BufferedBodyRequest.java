@@ -0,0 +1,89 @@
+package com.cesde.studentinfo.config;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request que lee por adelantado el inicio del cuerpo (hasta un máximo de bytes)
+ * y lo vuelve a entregar completo al resto de la cadena
+ */
+class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] prefix;
+    private final InputStream body;
+
+    BufferedBodyRequest(HttpServletRequest request, int maxPrefixBytes) throws IOException {
+        super(request);
+        InputStream original = request.getInputStream();
+        this.prefix = original.readNBytes(maxPrefixBytes);
+        this.body = new SequenceInputStream(new ByteArrayInputStream(prefix), original);
+    }
+
+    byte[] getPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new ServletInputStream() {
+            private boolean finished;
+
+            @Override
+            public int read() throws IOException {
+                int b = body.read();
+                finished = b == -1;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = body.read(b, off, len);
+                finished = n == -1;
+                return n;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return finished;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            /**
+             * La lectura es bloqueante (isReady siempre true): se avisa de inmediato que hay datos
+             * y, si el listener consumió todo el cuerpo, que terminó
+             */
+            @Override
+            public void setReadListener(ReadListener listener) {
+                try {
+                    listener.onDataAvailable();
+                    if (finished) {
+                        listener.onAllDataRead();
+                    }
+                } catch (IOException e) {
+                    listener.onError(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+        return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+    }
+}
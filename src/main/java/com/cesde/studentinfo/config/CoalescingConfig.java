@@ -0,0 +1,37 @@
+package com.cesde.studentinfo.config;
+
+import com.cesde.studentinfo.service.Coalesced;
+import com.cesde.studentinfo.service.RequestCoalescer;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * Registra el interceptor de {@link Coalesced}
+ *
+ * El advisor es de infraestructura para que lo aplique el mismo auto-proxy que @Transactional,
+ * y tiene mayor precedencia: agrupa las llamadas antes de abrir la transacción.
+ */
+@Configuration
+public class CoalescingConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static RequestCoalescer requestCoalescer() {
+        return new RequestCoalescer();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor coalescingAdvisor(RequestCoalescer requestCoalescer) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, Coalesced.class, true), requestCoalescer);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
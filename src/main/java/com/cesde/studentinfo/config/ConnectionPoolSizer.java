@@ -0,0 +1,55 @@
+package com.cesde.studentinfo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dimensiona el pool de Hikari antes de abrir la primera conexión
+ *
+ * Con db.pool.max-size=0 el tamaño se calcula como núcleos × 2 + 1 (la fórmula de HikariCP para
+ * un disco), sin bajar de las lecturas asíncronas concurrentes más db.pool.headroom conexiones
+ * para escrituras, jobs y SSE. Un valor explícito de spring.datasource.hikari.maximum-pool-size
+ * se respeta (Hikari lo deja en -1 hasta arrancar el pool si no se configura). Con db.pool.fixed=true
+ * minimum-idle se iguala al tamaño calculado y el pool queda fijo.
+ */
+@Component
+@Slf4j
+public class ConnectionPoolSizer implements BeanPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource dataSource)) {
+            return bean;
+        }
+        int configured = environment.getProperty("db.pool.max-size", Integer.class, 0);
+        int size = configured;
+        if (size <= 0 && dataSource.getMaximumPoolSize() > 0) {
+            size = dataSource.getMaximumPoolSize();
+        }
+        if (size <= 0) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            int asyncReads = environment.getProperty("read.async.pool-size", Integer.class, 8);
+            int headroom = environment.getProperty("db.pool.headroom", Integer.class, 4);
+            size = Math.max(cores * 2 + 1, asyncReads + headroom);
+        }
+        dataSource.setMaximumPoolSize(size);
+        boolean fixed = environment.getProperty("db.pool.fixed", Boolean.class, false);
+        if (fixed || dataSource.getMinimumIdle() > size) {
+            dataSource.setMinimumIdle(size);
+        }
+        log.info("Connection pool '{}' sized to {} connections (min idle {})",
+                dataSource.getPoolName(), size, dataSource.getMinimumIdle());
+        return bean;
+    }
+}
@@ -37,6 +37,9 @@ public class CorsConfig {
         // Headers permitidos
         config.setAllowedHeaders(List.of("*"));
 
+        // Headers legibles desde el navegador (concurrencia optimista, idempotencia y correlación)
+        config.setExposedHeaders(List.of("ETag", "Idempotent-Replayed", "Retry-After", "X-Request-ID"));
+
         // Tiempo de caché para preflight requests
         config.setMaxAge(3600L);
 
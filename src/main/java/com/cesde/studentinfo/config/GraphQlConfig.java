@@ -0,0 +1,53 @@
+package com.cesde.studentinfo.config;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLTypeUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collection;
+
+/**
+ * Límites de las consultas GraphQL para proteger la base de datos
+ *
+ * La profundidad máxima acota el número de niveles (y de consultas por lotes) de un request.
+ * La complejidad estima las filas que devolverá: cada campo suma 1 más lo de sus hijos, y un
+ * campo lista multiplica a sus hijos por graphql.complexity.list-factor (o por la cantidad de
+ * ids pedidos si recibe el argumento ids). Las consultas que superan el límite se rechazan
+ * antes de ejecutarse.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    @Value("${graphql.max-depth:10}")
+    private int maxDepth;
+
+    @Value("${graphql.max-complexity:20000}")
+    private int maxComplexity;
+
+    @Value("${graphql.complexity.list-factor:3}")
+    private int listFactor;
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation() {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation() {
+        FieldComplexityCalculator calculator = (environment, childComplexity) -> {
+            if (!(GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()) instanceof GraphQLList)) {
+                return 1 + childComplexity;
+            }
+            int factor = environment.getArguments().get("ids") instanceof Collection<?> ids
+                    ? Math.max(1, ids.size())
+                    : listFactor;
+            return 1 + factor * childComplexity;
+        };
+        return new MaxQueryComplexityInstrumentation(maxComplexity, calculator);
+    }
+}
@@ -0,0 +1,163 @@
+package com.cesde.studentinfo.config;
+
+import com.cesde.studentinfo.dto.ApiResponse;
+import com.cesde.studentinfo.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Filtro de idempotencia para los POST autenticados con header Idempotency-Key
+ *
+ * La clave se limita al usuario, la ruta y el método; el cuerpo se resume con SHA-256 para
+ * detectar una clave reutilizada con otro request (422). Una clave repetida devuelve la
+ * respuesta guardada con Idempotent-Replayed: true sin ejecutar el controller.
+ * Las respuestas 5xx y las transitorias (408, 409, 429) no se guardan.
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_STORED_RESPONSE_BYTES = 256 * 1024;
+    private static final Set<Integer> TRANSIENT_STATUSES = Set.of(408, 409, 429);
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+    private final int maxBodyBytes;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService, ObjectMapper objectMapper, int maxBodyBytes) {
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || request.getRequestURI().substring(request.getContextPath().length()).startsWith("/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            // Sin usuario no hay alcance para la clave; la autorización responderá 401
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        BufferedBodyRequest buffered = new BufferedBodyRequest(request, maxBodyBytes + 1);
+        if (buffered.getPrefix().length > maxBodyBytes) {
+            log.debug("Request body too large for idempotency on {}, executing without it", request.getRequestURI());
+            filterChain.doFilter(buffered, response);
+            return;
+        }
+
+        String target = request.getMethod() + " " + request.getRequestURI();
+        String key = sha256((authentication.getName() + "|" + target + "|" + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+        // La query string entra en la huella: la misma clave con otros parámetros es otro request (422)
+        String fingerprint = sha256(fingerprintBytes(request.getQueryString(), buffered.getPrefix()));
+
+        IdempotencyService.Reservation reservation = idempotencyService.reserve(key, fingerprint);
+        switch (reservation.outcome()) {
+            case REPLAY -> replay(response, reservation.response());
+            case MISMATCH -> writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request");
+            case IN_PROGRESS -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeError(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+            }
+            case EXECUTE -> execute(buffered, response, filterChain, key);
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain, String key) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            if (status < 500 && !TRANSIENT_STATUSES.contains(status)
+                    && wrapper.getContentSize() <= MAX_STORED_RESPONSE_BYTES) {
+                idempotencyService.complete(key, new IdempotencyService.StoredResponse(
+                        status, wrapper.getContentType(), wrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                idempotencyService.abandon(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyService.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+
+    private static byte[] fingerprintBytes(String queryString, byte[] body) {
+        if (queryString == null) {
+            return body;
+        }
+        byte[] query = (queryString + "\n").getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = Arrays.copyOf(query, query.length + body.length);
+        System.arraycopy(body, 0, bytes, query.length, body.length);
+        return bytes;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.cesde.studentinfo.config;
+
+import com.cesde.studentinfo.dto.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filtro de limitación de peticiones para los endpoints públicos de autenticación
+ *
+ * Cada límite es un token bucket implementado con GCRA: el estado del bucket es un único
+ * AtomicLong (instante teórico de llegada) que se actualiza con CAS, sin bloqueos.
+ * Los buckets se guardan en un mapa concurrente acotado; un bucket que ya se rellenó por
+ * completo equivale a uno nuevo, así que puede descartarse sin cambiar el comportamiento.
+ *
+ * Todos los límites de la ruta se comprueban antes de consumir un token, así una petición
+ * rechazada por uno no gasta el de los demás. Los límites por username se cuentan por
+ * (IP, username) y solo con los intentos fallidos (respuesta 401): un tercero no puede bloquear
+ * el login de otro usuario y los logins correctos no gastan cupo. La IP es getRemoteAddr(), que
+ * detrás del proxy ya es la del cliente (server.forward-headers-strategy con proxies de confianza).
+ *
+ * Las respuestas incluyen RateLimit-Limit, RateLimit-Remaining y RateLimit-Reset;
+ * las rechazadas devuelven 429 con Retry-After.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Clave por la que se cuenta un límite
+     */
+    public enum KeyType {
+        IP,
+        // (IP, username) del cuerpo; solo cuentan los intentos rechazados con 401
+        USERNAME
+    }
+
+    private static final int MAX_BODY_INSPECT_BYTES = 8 * 1024;
+    private static final String[] USERNAME_FIELDS = {"usernameOrEmail", "username"};
+
+    private final ObjectMapper objectMapper;
+    private final int maxTrackedKeys;
+    private final Map<String, List<Limit>> limitsByPath = new HashMap<>();
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public RateLimitFilter(ObjectMapper objectMapper, int maxTrackedKeys) {
+        this.objectMapper = objectMapper;
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+
+    /**
+     * Registra un límite para una ruta (relativa al context path)
+     *
+     * @param path     ruta exacta, p. ej. /auth/login
+     * @param keyType  clave del bucket (IP del cliente o IP + username del cuerpo)
+     * @param capacity peticiones permitidas por ventana (tamaño de ráfaga)
+     * @param period   ventana en la que se recuperan todos los tokens
+     */
+    public RateLimitFilter limit(String path, KeyType keyType, int capacity, Duration period) {
+        if (capacity <= 0) {
+            return this;
+        }
+        limitsByPath.computeIfAbsent(path, p -> new ArrayList<>())
+                .add(new Limit(path + "|" + keyType, keyType, capacity, period.toNanos() / capacity));
+        return this;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !limitsByPath.containsKey(pathWithinApplication(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        List<Limit> limits = limitsByPath.get(pathWithinApplication(request));
+
+        String username = null;
+        if (limits.stream().anyMatch(l -> l.keyType() == KeyType.USERNAME)) {
+            BufferedBodyRequest buffered = new BufferedBodyRequest(request, MAX_BODY_INSPECT_BYTES);
+            username = extractUsername(buffered.getPrefix());
+            request = buffered;
+        }
+
+        String ip = request.getRemoteAddr();
+        List<Limit> applied = new ArrayList<>(limits.size());
+        List<Bucket> appliedBuckets = new ArrayList<>(limits.size());
+        for (Limit limit : limits) {
+            if (limit.keyType() == KeyType.USERNAME && username == null) {
+                continue;
+            }
+            String key = limit.keyType() == KeyType.IP ? ip : ip + "|" + username;
+            applied.add(limit);
+            appliedBuckets.add(bucket(limit.id() + "|" + key));
+        }
+
+        // Primero se comprueban todos los límites sin consumir
+        long now = System.nanoTime();
+        Decision tightest = null;
+        for (int i = 0; i < applied.size(); i++) {
+            Decision decision = appliedBuckets.get(i).peek(applied.get(i), now);
+            if (tightest == null || !decision.allowed() || decision.remaining() < tightest.remaining()) {
+                tightest = decision;
+            }
+            if (!decision.allowed()) {
+                break;
+            }
+        }
+        if (tightest != null && tightest.allowed()) {
+            for (int i = 0; i < applied.size(); i++) {
+                if (applied.get(i).keyType() == KeyType.USERNAME) {
+                    continue;
+                }
+                Decision decision = appliedBuckets.get(i).tryAcquire(applied.get(i), now);
+                if (!decision.allowed() || decision.remaining() < tightest.remaining()) {
+                    // Otra petición concurrente se llevó el último token entre la comprobación y el consumo
+                    tightest = decision;
+                }
+                if (!decision.allowed()) {
+                    break;
+                }
+            }
+        }
+
+        if (tightest != null) {
+            response.setHeader("RateLimit-Limit", String.valueOf(tightest.limit()));
+            response.setHeader("RateLimit-Remaining", String.valueOf(tightest.remaining()));
+            response.setHeader("RateLimit-Reset", String.valueOf(toSeconds(tightest.resetNanos())));
+            if (!tightest.allowed()) {
+                reject(request, response, tightest);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+
+        if (response.getStatus() == HttpStatus.UNAUTHORIZED.value()) {
+            long finished = System.nanoTime();
+            for (int i = 0; i < applied.size(); i++) {
+                if (applied.get(i).keyType() == KeyType.USERNAME) {
+                    appliedBuckets.get(i).tryAcquire(applied.get(i), finished);
+                }
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, Decision decision) throws IOException {
+        log.warn("Rate limit exceeded for {} {} from {}", request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(toSeconds(decision.retryAfterNanos())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Demasiadas solicitudes, intente nuevamente más tarde"));
+    }
+
+    private Bucket bucket(String key) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxTrackedKeys) {
+            evict();
+        }
+        return buckets.computeIfAbsent(key, k -> new Bucket());
+    }
+
+    /**
+     * Elimina los buckets ya rellenados; si el mapa sigue lleno (rotación masiva de claves)
+     * descarta entradas arbitrarias hasta el 90% de la capacidad
+     */
+    private void evict() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            buckets.values().removeIf(b -> b.isFull(now));
+            int excess = buckets.size() - (maxTrackedKeys * 9 / 10);
+            if (excess > 0) {
+                log.warn("Rate limiter tracking {} keys, discarding {} active buckets", buckets.size(), excess);
+                Iterator<Bucket> it = buckets.values().iterator();
+                while (excess-- > 0 && it.hasNext()) {
+                    it.next();
+                    it.remove();
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private String extractUsername(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            for (String field : USERNAME_FIELDS) {
+                JsonNode value = json.get(field);
+                if (value != null && value.isTextual() && !value.asText().isBlank()) {
+                    return value.asText().trim().toLowerCase(Locale.ROOT);
+                }
+            }
+        } catch (IOException e) {
+            // Cuerpo inválido o truncado: se limita solo por IP y la validación responde 400
+        }
+        return null;
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private record Limit(String id, KeyType keyType, int capacity, long emissionIntervalNanos) {
+
+        long burstNanos() {
+            return emissionIntervalNanos * capacity;
+        }
+    }
+
+    private record Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+    }
+
+    /**
+     * Token bucket GCRA: theoreticalArrival avanza un intervalo por petición aceptada
+     */
+    private static final class Bucket {
+
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * Decisión que tomaría tryAcquire, sin consumir el token
+         */
+        Decision peek(Limit limit, long now) {
+            long tat = theoreticalArrival.get();
+            long base = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat;
+            long backlog = base + limit.emissionIntervalNanos() - now;
+            if (backlog > limit.burstNanos()) {
+                return new Decision(false, limit.capacity(), 0, base - now, backlog - limit.burstNanos());
+            }
+            int remaining = (int) ((limit.burstNanos() - backlog) / limit.emissionIntervalNanos());
+            return new Decision(true, limit.capacity(), remaining, backlog, 0);
+        }
+
+        Decision tryAcquire(Limit limit, long now) {
+            while (true) {
+                long tat = theoreticalArrival.get();
+                long base = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat;
+                long newTat = base + limit.emissionIntervalNanos();
+                long backlog = newTat - now;
+
+                if (backlog > limit.burstNanos()) {
+                    long retryAfter = backlog - limit.burstNanos();
+                    return new Decision(false, limit.capacity(), 0, base - now, retryAfter);
+                }
+                if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                    int remaining = (int) ((limit.burstNanos() - backlog) / limit.emissionIntervalNanos());
+                    return new Decision(true, limit.capacity(), remaining, backlog, 0);
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            long tat = theoreticalArrival.get();
+            return tat == Long.MIN_VALUE || tat - now <= 0;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.cesde.studentinfo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (@Scheduled) de los servicios
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
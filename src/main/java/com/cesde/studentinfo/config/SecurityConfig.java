@@ -1,6 +1,10 @@
 package com.cesde.studentinfo.config;
 
+import com.cesde.studentinfo.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -18,6 +22,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.time.Duration;
+
 /**
  * Configuración de Spring Security con JWT
  *
@@ -27,6 +33,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
  * - Endpoints públicos: /auth/** (login, register), /health
  * - Resto de endpoints protegidos requieren autenticación
  * - Stateless session management (sin sesiones en servidor)
+ * - Rate limiting por IP y username en los endpoints públicos de /auth
+ * - Idempotency-Key en los POST autenticados
  */
 @Configuration
 @EnableWebSecurity
@@ -37,13 +45,43 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final UserDetailsService userDetailsService;
     private final CorsConfigurationSource corsConfigurationSource;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyService idempotencyService;
+
+    @Value("${security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${security.rate-limit.max-tracked-keys:100000}")
+    private int rateLimitMaxTrackedKeys;
+
+    @Value("${security.rate-limit.login.per-ip:30}")
+    private int loginPerIp;
+
+    @Value("${security.rate-limit.login.per-username:5}")
+    private int loginPerUsername;
+
+    @Value("${security.rate-limit.register.per-ip:5}")
+    private int registerPerIp;
+
+    @Value("${security.rate-limit.refresh-token.per-ip:30}")
+    private int refreshTokenPerIp;
+
+    @Value("${idempotency.enabled:true}")
+    private boolean idempotencyEnabled;
+
+    @Value("${idempotency.max-body-bytes:65536}")
+    private int idempotencyMaxBodyBytes;
 
     /**
      * Bean para encriptación de passwords con BCrypt
+     * El costo es configurable; los hashes con otro costo se actualizan en el siguiente login
      */
     @Bean
     public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     /**
@@ -66,6 +104,19 @@ public class SecurityConfig {
     }
 
 
+    /**
+     * Límites por ruta (peticiones por minuto) de los endpoints públicos de autenticación
+     * Un valor 0 desactiva ese límite
+     */
+    private RateLimitFilter rateLimitFilter() {
+        Duration minute = Duration.ofMinutes(1);
+        return new RateLimitFilter(objectMapper, rateLimitMaxTrackedKeys)
+            .limit("/auth/login", RateLimitFilter.KeyType.IP, loginPerIp, minute)
+            .limit("/auth/login", RateLimitFilter.KeyType.USERNAME, loginPerUsername, minute)
+            .limit("/auth/register", RateLimitFilter.KeyType.IP, registerPerIp, minute)
+            .limit("/auth/refresh-token", RateLimitFilter.KeyType.IP, refreshTokenPerIp, minute);
+    }
+
     /**
      * Configuración de la cadena de filtros de seguridad
      *
@@ -86,12 +137,24 @@ public class SecurityConfig {
                 .requestMatchers("/auth/**", "/api/auth/**").permitAll()
                 .requestMatchers("/health", "/api/health").permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                // Los despachos ASYNC (CompletableFuture, SSE) ya se autorizaron en el request original
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 
                 // Todos los demás endpoints requieren autenticación
                 .anyRequest().authenticated()
             )
-            .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .authenticationProvider(authenticationProvider());
+
+        // El rate limiter va antes del filtro JWT para rechazar sin tocar BD ni BCrypt
+        if (rateLimitEnabled) {
+            http.addFilterBefore(rateLimitFilter(), UsernamePasswordAuthenticationFilter.class);
+        }
+        http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // La idempotencia va después del JWT: las claves se limitan al usuario autenticado
+        if (idempotencyEnabled) {
+            http.addFilterAfter(new IdempotencyFilter(idempotencyService, objectMapper, idempotencyMaxBodyBytes),
+                    JwtAuthenticationFilter.class);
+        }
 
         return http.build();
     }
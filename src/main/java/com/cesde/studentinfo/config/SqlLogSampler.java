@@ -0,0 +1,36 @@
+package com.cesde.studentinfo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turbo filter de logback que deja pasar 1 de cada N sentencias SQL de Hibernate
+ *
+ * Con org.hibernate.SQL en DEBUG cada consulta genera una línea de log; este filtro conserva
+ * una muestra representativa sin el costo de formatear y encolar todas. every=1 registra todas.
+ */
+public class SqlLogSampler extends TurboFilter {
+
+    private static final String SQL_LOGGER = "org.hibernate.SQL";
+
+    private final AtomicLong counter = new AtomicLong();
+    private int every = 100;
+
+    public void setEvery(int every) {
+        this.every = Math.max(1, every);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format == null es la consulta isDebugEnabled(): no cuenta como sentencia
+        if (format == null || every == 1 || !SQL_LOGGER.equals(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.incrementAndGet() % every == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
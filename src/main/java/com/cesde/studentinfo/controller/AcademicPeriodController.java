@@ -7,6 +7,8 @@ import com.cesde.studentinfo.dto.PagedResponse;
 import com.cesde.studentinfo.exception.ResourceNotFoundException;
 import com.cesde.studentinfo.model.AcademicPeriod;
 import com.cesde.studentinfo.service.AcademicPeriodService;
+import com.cesde.studentinfo.service.PeriodArchiveService;
+import com.cesde.studentinfo.service.PeriodCloseOutService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +21,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -31,6 +34,8 @@ import java.util.stream.Collectors;
 public class AcademicPeriodController {
 
     private final AcademicPeriodService academicPeriodService;
+    private final PeriodArchiveService periodArchiveService;
+    private final PeriodCloseOutService periodCloseOutService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<AcademicPeriodResponseDTO>>> getAllPeriods() {
@@ -121,6 +126,40 @@ public class AcademicPeriodController {
         return ResponseEntity.ok(ApiResponse.success("Academic period deleted successfully"));
     }
 
+    /**
+     * Cierra en segundo plano el período: estados finales de materias, niveles y cursos, y desactivación
+     */
+    @PostMapping("/{id}/close")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> closePeriod(@PathVariable Long id) {
+        log.info("POST /academic-periods/{}/close - Closing period", id);
+        Map<String, Object> progress = periodCloseOutService.requestCloseOut(id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(progress, "Academic period close-out started"));
+    }
+
+    @GetMapping("/{id}/close")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCloseOutProgress(@PathVariable Long id) {
+        log.info("GET /academic-periods/{}/close - Fetching close-out progress", id);
+        return ResponseEntity.ok(ApiResponse.success(periodCloseOutService.getProgress(id)));
+    }
+
+    /**
+     * Mueve en segundo plano las notas, asistencias y sesiones de un período inactivo a las tablas de archivo
+     */
+    @PostMapping("/{id}/archive")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> archivePeriod(@PathVariable Long id) {
+        log.info("POST /academic-periods/{}/archive - Archiving period", id);
+        Map<String, Object> status = periodArchiveService.requestArchive(id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(status, "Academic period archive started"));
+    }
+
+    @GetMapping("/{id}/archive")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getArchiveStatus(@PathVariable Long id) {
+        log.info("GET /academic-periods/{}/archive - Fetching archive status", id);
+        return ResponseEntity.ok(ApiResponse.success(periodArchiveService.getStatus(id)));
+    }
+
     @GetMapping("/count")
     public ResponseEntity<ApiResponse<Long>> countPeriods() {
         log.info("GET /academic-periods/count - Counting periods");
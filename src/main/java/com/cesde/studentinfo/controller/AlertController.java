@@ -0,0 +1,35 @@
+package com.cesde.studentinfo.controller;
+
+import com.cesde.studentinfo.dto.ApiResponse;
+import com.cesde.studentinfo.dto.AtRiskAlertDTO;
+import com.cesde.studentinfo.service.AtRiskService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller para alertas tempranas de estudiantes en riesgo
+ * Las alertas se calculan en segundo plano; este endpoint solo lee el estado en memoria
+ */
+@RestController
+@RequestMapping("/alerts")
+@RequiredArgsConstructor
+@Slf4j
+public class AlertController {
+
+    private final AtRiskService atRiskService;
+
+    @GetMapping("/at-risk")
+    public ResponseEntity<ApiResponse<List<AtRiskAlertDTO>>> getAtRisk(
+            @RequestParam(required = false) Long periodId) {
+        log.info("GET /alerts/at-risk - Fetching at-risk enrollments (period: {})", periodId);
+        List<AtRiskAlertDTO> alerts = atRiskService.getAlerts(periodId);
+        return ResponseEntity.ok(ApiResponse.success(alerts, "At-risk alerts retrieved successfully"));
+    }
+}
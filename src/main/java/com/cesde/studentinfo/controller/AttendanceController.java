@@ -3,23 +3,30 @@ package com.cesde.studentinfo.controller;
 import com.cesde.studentinfo.dto.ApiResponse;
 import com.cesde.studentinfo.dto.AttendanceDTO;
 import com.cesde.studentinfo.dto.AttendanceResponseDTO;
+import com.cesde.studentinfo.dto.AttendanceTrendDTO;
 import com.cesde.studentinfo.exception.ResourceNotFoundException;
 import com.cesde.studentinfo.model.Attendance;
 import com.cesde.studentinfo.model.ClassSession;
 import com.cesde.studentinfo.model.SubjectEnrollment;
 import com.cesde.studentinfo.repository.ClassSessionRepository;
 import com.cesde.studentinfo.repository.SubjectEnrollmentRepository;
+import com.cesde.studentinfo.service.AttendanceLiveService;
+import com.cesde.studentinfo.service.AttendanceRollupService;
 import com.cesde.studentinfo.service.AttendanceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -32,6 +39,8 @@ import java.util.stream.Collectors;
 public class AttendanceController {
 
     private final AttendanceService attendanceService;
+    private final AttendanceLiveService attendanceLiveService;
+    private final AttendanceRollupService attendanceRollupService;
     private final SubjectEnrollmentRepository subjectEnrollmentRepository;
     private final ClassSessionRepository classSessionRepository;
 
@@ -50,7 +59,9 @@ public class AttendanceController {
         log.info("GET /attendance/{} - Fetching attendance by ID", id);
         Attendance attendance = attendanceService.getAttendanceById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Attendance", id));
-        return ResponseEntity.ok(ApiResponse.success(AttendanceResponseDTO.fromEntity(attendance)));
+        return ResponseEntity.ok()
+                .eTag(ETags.of(attendance.getVersion()))
+                .body(ApiResponse.success(AttendanceResponseDTO.fromEntity(attendance)));
     }
 
     @GetMapping("/student/{studentId}")
@@ -73,6 +84,15 @@ public class AttendanceController {
         return ResponseEntity.ok(ApiResponse.success(response, "Session attendance retrieved successfully"));
     }
 
+    /**
+     * Tablero en vivo: snapshot al conectar y luego cada cambio confirmado de la sesión
+     */
+    @GetMapping(value = "/session/{sessionId}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getLiveAttendanceBySession(@PathVariable Long sessionId) {
+        log.info("GET /attendance/session/{}/live - Subscribing to live attendance", sessionId);
+        return attendanceLiveService.subscribe(sessionId);
+    }
+
     @GetMapping("/enrollment/{enrollmentId}")
     public ResponseEntity<ApiResponse<List<AttendanceResponseDTO>>> getAttendanceByEnrollment(@PathVariable Long enrollmentId) {
         log.info("GET /attendance/enrollment/{} - Fetching attendance by enrollment", enrollmentId);
@@ -95,6 +115,32 @@ public class AttendanceController {
         return ResponseEntity.ok(ApiResponse.success(response, "Attendance records retrieved successfully"));
     }
 
+    /**
+     * Tendencias de asistencia desde el resumen diario (groupBy: day, week, subject o professor)
+     */
+    @GetMapping("/trends")
+    public ResponseEntity<ApiResponse<List<AttendanceTrendDTO>>> getAttendanceTrends(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String groupBy) {
+        log.info("GET /attendance/trends?from={}&to={}&groupBy={} - Fetching attendance trends", from, to, groupBy);
+        List<AttendanceTrendDTO> trends = attendanceRollupService.getTrends(from, to, groupBy);
+        return ResponseEntity.ok(ApiResponse.success(trends, "Attendance trends retrieved successfully"));
+    }
+
+    /**
+     * Reconstruye en segundo plano el resumen diario del rango (sin fechas, todo el histórico)
+     */
+    @PostMapping("/trends/backfill")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> backfillAttendanceTrends(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("POST /attendance/trends/backfill?from={}&to={} - Rebuilding attendance rollup", from, to);
+        Map<String, Object> status = attendanceRollupService.requestBackfill(from, to);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(status, "Attendance rollup backfill started"));
+    }
+
     @PostMapping
     public ResponseEntity<ApiResponse<AttendanceResponseDTO>> createAttendance(@Valid @RequestBody AttendanceDTO dto) {
         log.info("POST /attendance - Creating new attendance record for subject enrollment: {}", dto.getSubjectEnrollmentId());
@@ -125,6 +171,7 @@ public class AttendanceController {
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<AttendanceResponseDTO>> updateAttendance(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody AttendanceDTO dto) {
         log.info("PUT /attendance/{} - Updating attendance", id);
 
@@ -135,9 +182,11 @@ public class AttendanceController {
                 .notes(dto.getNotes())
                 .build();
 
-        Attendance updated = attendanceService.updateAttendance(id, updates);
-        return ResponseEntity.ok(ApiResponse.success(AttendanceResponseDTO.fromEntity(updated),
-                "Attendance updated successfully"));
+        Attendance updated = attendanceService.updateAttendance(id, updates, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ETags.of(updated.getVersion()))
+                .body(ApiResponse.success(AttendanceResponseDTO.fromEntity(updated),
+                        "Attendance updated successfully"));
     }
 
     @DeleteMapping("/{id}")
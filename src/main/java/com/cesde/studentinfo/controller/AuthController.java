@@ -1,9 +1,11 @@
 package com.cesde.studentinfo.controller;
 import com.cesde.studentinfo.dto.*;
+import com.cesde.studentinfo.exception.ServiceUnavailableException;
 import com.cesde.studentinfo.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -33,6 +35,14 @@ public class AuthController {
                             .success(false)
                             .message(e.getMessage())
                             .build());
+        } catch (ServiceUnavailableException e) {
+            log.warn("Login rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(ApiResponse.<LoginResponseDTO>builder()
+                            .success(false)
+                            .message(e.getMessage())
+                            .build());
         } catch (Exception e) {
             log.error("Login error: ", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -60,6 +70,14 @@ public class AuthController {
                             .success(false)
                             .message(e.getMessage())
                             .build());
+        } catch (ServiceUnavailableException e) {
+            log.warn("Registration rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(ApiResponse.<LoginResponseDTO>builder()
+                            .success(false)
+                            .message(e.getMessage())
+                            .build());
         } catch (Exception e) {
             log.error("Registration error: ", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -7,6 +7,7 @@ import com.cesde.studentinfo.exception.ResourceNotFoundException;
 import com.cesde.studentinfo.model.ClassSession;
 import com.cesde.studentinfo.model.SubjectAssignment;
 import com.cesde.studentinfo.repository.SubjectAssignmentRepository;
+import com.cesde.studentinfo.service.AsyncReadService;
 import com.cesde.studentinfo.service.ClassSessionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -31,6 +33,7 @@ public class ClassSessionController {
 
     private final ClassSessionService classSessionService;
     private final SubjectAssignmentRepository subjectAssignmentRepository;
+    private final AsyncReadService asyncReadService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<ClassSessionResponseDTO>>> getAllSessions() {
@@ -50,6 +53,15 @@ public class ClassSessionController {
         return ResponseEntity.ok(ApiResponse.success(ClassSessionResponseDTO.fromEntity(session)));
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<List<ClassSessionResponseDTO>>> getSessionsByIds(@RequestParam List<Long> ids) {
+        log.info("GET /class-sessions?ids - Fetching {} sessions by ID", ids.size());
+        List<ClassSessionResponseDTO> response = classSessionService.getSessionsByIds(ids).stream()
+                .map(ClassSessionResponseDTO::fromEntity)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(response, "Sessions retrieved successfully"));
+    }
+
     @GetMapping("/by-assignment/{assignmentId}")
     public ResponseEntity<ApiResponse<List<ClassSessionResponseDTO>>> getSessionsByAssignment(
             @PathVariable Long assignmentId) {
@@ -62,14 +74,16 @@ public class ClassSessionController {
     }
 
     @GetMapping("/by-date")
-    public ResponseEntity<ApiResponse<List<ClassSessionResponseDTO>>> getSessionsByDate(
+    public CompletableFuture<ResponseEntity<ApiResponse<List<ClassSessionResponseDTO>>>> getSessionsByDate(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         log.info("GET /class-sessions/by-date?date={} - Fetching sessions by date", date);
-        List<ClassSession> sessions = classSessionService.getSessionsByDate(date);
-        List<ClassSessionResponseDTO> response = sessions.stream()
-                .map(ClassSessionResponseDTO::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success(response, "Sessions retrieved successfully"));
+        return asyncReadService.submit(() -> {
+            List<ClassSession> sessions = classSessionService.getSessionsByDate(date);
+            List<ClassSessionResponseDTO> response = sessions.stream()
+                    .map(ClassSessionResponseDTO::fromEntity)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(ApiResponse.success(response, "Sessions retrieved successfully"));
+        });
     }
 
     @GetMapping("/range")
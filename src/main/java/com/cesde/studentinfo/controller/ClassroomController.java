@@ -0,0 +1,36 @@
+package com.cesde.studentinfo.controller;
+
+import com.cesde.studentinfo.dto.ApiResponse;
+import com.cesde.studentinfo.dto.TimetableSlotDTO;
+import com.cesde.studentinfo.service.TimetableService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controller para consulta de horarios por aula
+ * Las aulas no son una entidad: se identifican por el campo classroom de las asignaciones
+ */
+@RestController
+@RequestMapping("/classrooms")
+@RequiredArgsConstructor
+@Slf4j
+public class ClassroomController {
+
+    private final TimetableService timetableService;
+
+    @GetMapping("/{room}/timetable")
+    public ResponseEntity<ApiResponse<List<TimetableSlotDTO>>> getClassroomTimetable(
+            @PathVariable String room,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET /classrooms/{}/timetable - Fetching timetable (from: {}, to: {})", room, from, to);
+        List<TimetableSlotDTO> timetable = timetableService.getClassroomTimetable(room, from, to);
+        return ResponseEntity.ok(ApiResponse.success(timetable, "Classroom timetable retrieved successfully"));
+    }
+}
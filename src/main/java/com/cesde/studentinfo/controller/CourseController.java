@@ -61,6 +61,15 @@ public class CourseController {
         return ResponseEntity.ok(ApiResponse.success(CourseResponseDTO.fromEntity(course)));
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<List<CourseResponseDTO>>> getCoursesByIds(@RequestParam List<Long> ids) {
+        log.info("GET /courses?ids - Fetching {} courses by ID", ids.size());
+        List<CourseResponseDTO> response = courseService.getCoursesByIds(ids).stream()
+                .map(CourseResponseDTO::fromEntity)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(response, "Courses retrieved successfully"));
+    }
+
     @GetMapping("/code/{code}")
     public ResponseEntity<ApiResponse<CourseResponseDTO>> getCourseByCode(@PathVariable String code) {
         log.info("GET /courses/code/{} - Fetching course by code", code);
@@ -3,6 +3,7 @@ package com.cesde.studentinfo.controller;
 import com.cesde.studentinfo.dto.ApiResponse;
 import com.cesde.studentinfo.dto.CourseEnrollmentDTO;
 import com.cesde.studentinfo.dto.CourseEnrollmentResponseDTO;
+import com.cesde.studentinfo.dto.ImportReportDTO;
 import com.cesde.studentinfo.exception.ResourceNotFoundException;
 import com.cesde.studentinfo.model.AcademicPeriod;
 import com.cesde.studentinfo.model.Course;
@@ -11,14 +12,17 @@ import com.cesde.studentinfo.model.Student;
 import com.cesde.studentinfo.repository.AcademicPeriodRepository;
 import com.cesde.studentinfo.repository.CourseRepository;
 import com.cesde.studentinfo.repository.StudentRepository;
+import com.cesde.studentinfo.service.CourseEnrollmentImportService;
 import com.cesde.studentinfo.service.CourseEnrollmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +36,7 @@ import java.util.stream.Collectors;
 public class CourseEnrollmentController {
 
     private final CourseEnrollmentService enrollmentService;
+    private final CourseEnrollmentImportService enrollmentImportService;
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
     private final AcademicPeriodRepository academicPeriodRepository;
@@ -116,6 +121,19 @@ public class CourseEnrollmentController {
                         "Enrollment created successfully"));
     }
 
+    /**
+     * POST /api/course-enrollments/import?academicPeriodId= - Importación masiva desde CSV
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<ImportReportDTO>> importEnrollments(
+            @RequestParam Long academicPeriodId,
+            InputStream csv) {
+        log.info("POST /course-enrollments/import - Importing enrollments for period: {}", academicPeriodId);
+        ImportReportDTO report = enrollmentImportService.importEnrollments(academicPeriodId, csv);
+        return ResponseEntity.ok(ApiResponse.success(report, String.format(
+                "Import completed: %d imported, %d failed", report.getImported(), report.getFailed())));
+    }
+
     @PatchMapping("/{id}/status")
     public ResponseEntity<ApiResponse<CourseEnrollmentResponseDTO>> updateEnrollmentStatus(
             @PathVariable Long id,
@@ -3,10 +3,12 @@ package com.cesde.studentinfo.controller;
 import com.cesde.studentinfo.dto.ApiResponse;
 import com.cesde.studentinfo.dto.CourseGroupDTO;
 import com.cesde.studentinfo.dto.CourseGroupResponseDTO;
+import com.cesde.studentinfo.dto.GradebookDTO;
 import com.cesde.studentinfo.exception.ResourceNotFoundException;
 import com.cesde.studentinfo.model.*;
 import com.cesde.studentinfo.repository.*;
 import com.cesde.studentinfo.service.CourseGroupService;
+import com.cesde.studentinfo.service.GradeService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +29,7 @@ import java.util.stream.Collectors;
 public class CourseGroupController {
 
     private final CourseGroupService courseGroupService;
+    private final GradeService gradeService;
     private final CourseRepository courseRepository;
     private final LevelRepository levelRepository;
     private final AcademicPeriodRepository academicPeriodRepository;
@@ -49,6 +52,13 @@ public class CourseGroupController {
         return ResponseEntity.ok(ApiResponse.success(CourseGroupResponseDTO.fromEntity(group)));
     }
 
+    @GetMapping("/{id}/gradebook")
+    public ResponseEntity<ApiResponse<GradebookDTO>> getGradebook(@PathVariable Long id) {
+        log.info("GET /course-groups/{}/gradebook - Fetching group gradebook", id);
+        GradebookDTO gradebook = gradeService.getGradebook(id);
+        return ResponseEntity.ok(ApiResponse.success(gradebook, "Gradebook retrieved successfully"));
+    }
+
     @GetMapping("/course/{courseId}")
     public ResponseEntity<ApiResponse<List<CourseGroupResponseDTO>>> getCourseGroupsByCourse(
             @PathVariable Long courseId) {
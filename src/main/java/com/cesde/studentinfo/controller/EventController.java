@@ -0,0 +1,36 @@
+package com.cesde.studentinfo.controller;
+
+import com.cesde.studentinfo.service.OutboxRelayService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controller del stream de eventos de cambio (outbox)
+ * Cada mensaje SSE trae un lote de eventos; su id es el último offset del lote
+ */
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+@Slf4j
+public class EventController {
+
+    private final OutboxRelayService outboxRelayService;
+
+    /**
+     * Sin since el stream empieza en vivo; al reconectar el navegador envía Last-Event-ID
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) Long since,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        Long offset = since != null ? since : lastEventId;
+        log.info("GET /events/stream - Subscribing from offset {}", offset);
+        return outboxRelayService.subscribe(offset);
+    }
+}
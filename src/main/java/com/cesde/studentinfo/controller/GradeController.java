@@ -1,6 +1,8 @@
 package com.cesde.studentinfo.controller;
 
 import com.cesde.studentinfo.dto.ApiResponse;
+import com.cesde.studentinfo.dto.BulkGradeRequestDTO;
+import com.cesde.studentinfo.dto.BulkGradeResultDTO;
 import com.cesde.studentinfo.dto.GradeDTO;
 import com.cesde.studentinfo.dto.GradeResponseDTO;
 import com.cesde.studentinfo.exception.ResourceNotFoundException;
@@ -15,6 +17,7 @@ import com.cesde.studentinfo.service.GradeService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -51,7 +54,9 @@ public class GradeController {
         log.info("GET /grades/{} - Fetching grade by ID", id);
         Grade grade = gradeService.getGradeById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Grade", id));
-        return ResponseEntity.ok(ApiResponse.success(GradeResponseDTO.fromEntity(grade)));
+        return ResponseEntity.ok()
+                .eTag(ETags.of(grade.getVersion()))
+                .body(ApiResponse.success(GradeResponseDTO.fromEntity(grade)));
     }
 
     @GetMapping("/student/{studentId}")
@@ -123,9 +128,17 @@ public class GradeController {
                 .body(ApiResponse.success(GradeResponseDTO.fromEntity(saved), "Grade created successfully"));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkGradeResultDTO>> bulkUpsertGrades(@Valid @RequestBody BulkGradeRequestDTO dto) {
+        log.info("POST /grades/bulk - Bulk grade entry for subject assignment: {}", dto.getSubjectAssignmentId());
+        BulkGradeResultDTO result = gradeService.bulkUpsertGrades(dto);
+        return ResponseEntity.ok(ApiResponse.success(result, "Bulk grade entry processed"));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<GradeResponseDTO>> updateGrade(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody GradeDTO dto) {
         log.info("PUT /grades/{} - Updating grade", id);
 
@@ -134,9 +147,11 @@ public class GradeController {
                 .comments(dto.getComments())
                 .build();
 
-        Grade updated = gradeService.updateGrade(id, updates);
-        return ResponseEntity.ok(ApiResponse.success(GradeResponseDTO.fromEntity(updated),
-                "Grade updated successfully"));
+        Grade updated = gradeService.updateGrade(id, updates, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ETags.of(updated.getVersion()))
+                .body(ApiResponse.success(GradeResponseDTO.fromEntity(updated),
+                        "Grade updated successfully"));
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,197 @@
+package com.cesde.studentinfo.controller;
+
+import com.cesde.studentinfo.model.*;
+import com.cesde.studentinfo.repository.*;
+import com.cesde.studentinfo.service.MultiGetService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * API de lectura GraphQL (POST /graphql) sobre la jerarquía de inscripciones
+ *
+ * Cada relación es un @BatchMapping: Spring for GraphQL la registra como DataLoader y la llama
+ * una vez por nivel con todos los padres pendientes, así que una consulta ejecuta una sentencia
+ * IN por relación pedida (por bloque de read.multi-get.chunk-size) sin importar cuántas filas
+ * traiga el nivel anterior. Las referencias a muchos-a-uno pasan por el mapa de identidad del
+ * request. Los límites de profundidad y complejidad están en GraphQlConfig.
+ */
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class GraphQlController {
+
+    private final StudentRepository studentRepository;
+    private final ProfessorRepository professorRepository;
+    private final CourseRepository courseRepository;
+    private final LevelRepository levelRepository;
+    private final SubjectRepository subjectRepository;
+    private final SubjectAssignmentRepository subjectAssignmentRepository;
+    private final CourseEnrollmentRepository courseEnrollmentRepository;
+    private final LevelEnrollmentRepository levelEnrollmentRepository;
+    private final SubjectEnrollmentRepository subjectEnrollmentRepository;
+    private final GradeRepository gradeRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final MultiGetService multiGetService;
+
+    // ==================== QUERIES ====================
+
+    @QueryMapping
+    public Student student(@Argument Long id) {
+        return first(students(List.of(id)));
+    }
+
+    @QueryMapping
+    public List<Student> students(@Argument List<Long> ids) {
+        log.info("GraphQL students - Fetching {} students", ids.size());
+        return multiGetService.load(Student.class, ids, Student::getId, studentRepository::findAllById);
+    }
+
+    @QueryMapping
+    public Professor professor(@Argument Long id) {
+        return first(professors(List.of(id)));
+    }
+
+    @QueryMapping
+    public List<Professor> professors(@Argument List<Long> ids) {
+        log.info("GraphQL professors - Fetching {} professors", ids.size());
+        return multiGetService.load(Professor.class, ids, Professor::getId, professorRepository::findAllById);
+    }
+
+    @QueryMapping
+    public SubjectAssignment subjectAssignment(@Argument Long id) {
+        return first(subjectAssignments(List.of(id)));
+    }
+
+    @QueryMapping
+    public List<SubjectAssignment> subjectAssignments(@Argument List<Long> ids) {
+        log.info("GraphQL subjectAssignments - Fetching {} assignments", ids.size());
+        return multiGetService.load(SubjectAssignment.class, ids, SubjectAssignment::getId,
+                subjectAssignmentRepository::findAllByIdIn);
+    }
+
+    // ==================== ONE-TO-MANY ====================
+
+    @BatchMapping(typeName = "Student")
+    public List<List<CourseEnrollment>> courseEnrollments(List<Student> students) {
+        return children(students, Student::getId, courseEnrollmentRepository::findByStudentIdIn,
+                enrollment -> enrollment.getStudent().getId());
+    }
+
+    @BatchMapping(typeName = "CourseEnrollment")
+    public List<List<LevelEnrollment>> levelEnrollments(List<CourseEnrollment> enrollments) {
+        return children(enrollments, CourseEnrollment::getId, levelEnrollmentRepository::findByCourseEnrollmentIdIn,
+                level -> level.getCourseEnrollment().getId());
+    }
+
+    @BatchMapping(typeName = "LevelEnrollment")
+    public List<List<SubjectEnrollment>> subjectEnrollments(List<LevelEnrollment> enrollments) {
+        return children(enrollments, LevelEnrollment::getId, subjectEnrollmentRepository::findByLevelEnrollmentIdIn,
+                subject -> subject.getLevelEnrollment().getId());
+    }
+
+    @BatchMapping(typeName = "SubjectEnrollment")
+    public List<List<Grade>> grades(List<SubjectEnrollment> enrollments) {
+        return children(enrollments, SubjectEnrollment::getId, gradeRepository::findBySubjectEnrollmentIdIn,
+                grade -> grade.getSubjectEnrollment().getId());
+    }
+
+    @BatchMapping(typeName = "SubjectEnrollment")
+    public List<List<Attendance>> attendance(List<SubjectEnrollment> enrollments) {
+        return children(enrollments, SubjectEnrollment::getId, attendanceRepository::findBySubjectEnrollmentIdIn,
+                attendance -> attendance.getSubjectEnrollment().getId());
+    }
+
+    @BatchMapping(typeName = "Professor")
+    public List<List<SubjectAssignment>> assignments(List<Professor> professors) {
+        return children(professors, Professor::getId, subjectAssignmentRepository::findByProfessorIdIn,
+                assignment -> assignment.getProfessor().getId());
+    }
+
+    // ==================== MANY-TO-ONE ====================
+
+    @BatchMapping(typeName = "CourseEnrollment")
+    public List<Course> course(List<CourseEnrollment> enrollments) {
+        return references(enrollments, enrollment -> enrollment.getCourse().getId(),
+                Course.class, Course::getId, courseRepository::findAllById);
+    }
+
+    @BatchMapping(typeName = "LevelEnrollment")
+    public List<Level> level(List<LevelEnrollment> enrollments) {
+        return references(enrollments, enrollment -> enrollment.getLevel().getId(),
+                Level.class, Level::getId, levelRepository::findAllById);
+    }
+
+    @BatchMapping(typeName = "SubjectEnrollment")
+    public List<Subject> subject(List<SubjectEnrollment> enrollments) {
+        return references(enrollments, enrollment -> enrollment.getSubject().getId(),
+                Subject.class, Subject::getId, subjectRepository::findAllByIdIn);
+    }
+
+    @BatchMapping(typeName = "SubjectEnrollment", field = "subjectAssignment")
+    public List<SubjectAssignment> enrollmentAssignment(List<SubjectEnrollment> enrollments) {
+        return references(enrollments,
+                enrollment -> enrollment.getSubjectAssignment() != null ? enrollment.getSubjectAssignment().getId() : null,
+                SubjectAssignment.class, SubjectAssignment::getId, subjectAssignmentRepository::findAllByIdIn);
+    }
+
+    @BatchMapping(typeName = "Subject", field = "level")
+    public List<Level> subjectLevel(List<Subject> subjects) {
+        return references(subjects, subject -> subject.getLevel().getId(),
+                Level.class, Level::getId, levelRepository::findAllById);
+    }
+
+    @BatchMapping(typeName = "SubjectAssignment", field = "subject")
+    public List<Subject> assignmentSubject(List<SubjectAssignment> assignments) {
+        return references(assignments, assignment -> assignment.getSubject().getId(),
+                Subject.class, Subject::getId, subjectRepository::findAllByIdIn);
+    }
+
+    @BatchMapping(typeName = "SubjectAssignment", field = "professor")
+    public List<Professor> assignmentProfessor(List<SubjectAssignment> assignments) {
+        return references(assignments, assignment -> assignment.getProfessor().getId(),
+                Professor.class, Professor::getId, professorRepository::findAllById);
+    }
+
+    /**
+     * Hijos de cada padre, en el mismo orden que los padres; el id del padre se lee del proxy sin inicializarlo
+     */
+    private <P, C> List<List<C>> children(List<P> parents, Function<P, Long> parentId,
+                                          Function<Collection<Long>, List<C>> finder, Function<C, Long> parentOf) {
+        Map<Long, List<C>> byParent = multiGetService.findInChunks(parents.stream().map(parentId).toList(), finder)
+                .stream()
+                .collect(Collectors.groupingBy(parentOf));
+        return parents.stream()
+                .map(parent -> byParent.getOrDefault(parentId.apply(parent), List.of()))
+                .toList();
+    }
+
+    /**
+     * Entidad referenciada por cada fuente (null si no tiene), en el mismo orden que las fuentes
+     */
+    private <S, T> List<T> references(List<S> sources, Function<S, Long> referenceId,
+                                      Class<T> type, Function<T, Long> idOf,
+                                      Function<Collection<Long>, List<T>> finder) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T entity : multiGetService.fetch(type, sources.stream().map(referenceId).toList(), idOf, finder)) {
+            byId.put(idOf.apply(entity), entity);
+        }
+        return sources.stream()
+                .map(source -> byId.get(referenceId.apply(source)))
+                .toList();
+    }
+
+    private static <T> T first(List<T> result) {
+        return result.isEmpty() ? null : result.get(0);
+    }
+}
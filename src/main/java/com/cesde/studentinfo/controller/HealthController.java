@@ -1,6 +1,19 @@
 package com.cesde.studentinfo.controller;
 
 import com.cesde.studentinfo.dto.ApiResponse;
+import com.cesde.studentinfo.service.AsyncReadService;
+import com.cesde.studentinfo.service.AtRiskService;
+import com.cesde.studentinfo.service.AttendanceLiveService;
+import com.cesde.studentinfo.service.AttendanceRollupService;
+import com.cesde.studentinfo.service.ConnectionPoolService;
+import com.cesde.studentinfo.service.IdempotencyService;
+import com.cesde.studentinfo.service.MultiGetService;
+import com.cesde.studentinfo.service.OutboxRelayService;
+import com.cesde.studentinfo.service.PasswordHashingService;
+import com.cesde.studentinfo.service.PeriodArchiveService;
+import com.cesde.studentinfo.service.RequestCoalescer;
+import com.cesde.studentinfo.service.RoleRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,9 +30,23 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/health")
+@RequiredArgsConstructor
 @Slf4j
 public class HealthController {
 
+    private final PasswordHashingService passwordHashingService;
+    private final AtRiskService atRiskService;
+    private final IdempotencyService idempotencyService;
+    private final OutboxRelayService outboxRelayService;
+    private final AttendanceLiveService attendanceLiveService;
+    private final AsyncReadService asyncReadService;
+    private final ConnectionPoolService connectionPoolService;
+    private final RequestCoalescer requestCoalescer;
+    private final MultiGetService multiGetService;
+    private final PeriodArchiveService periodArchiveService;
+    private final RoleRegistry roleRegistry;
+    private final AttendanceRollupService attendanceRollupService;
+
     @GetMapping
     public ResponseEntity<ApiResponse<Map<String, Object>>> healthCheck() {
         log.info("Health check requested");
@@ -29,6 +56,18 @@ public class HealthController {
         health.put("service", "Student Information System API");
         health.put("version", "1.0.0");
         health.put("timestamp", LocalDateTime.now());
+        health.put("passwordHashing", passwordHashingService.getStats());
+        health.put("atRiskAlerts", atRiskService.getStats());
+        health.put("idempotency", idempotencyService.getStats());
+        health.put("events", outboxRelayService.getStats());
+        health.put("liveAttendance", attendanceLiveService.getStats());
+        health.put("asyncReads", asyncReadService.getStats());
+        health.put("connectionPool", connectionPoolService.getStats());
+        health.put("coalescedReads", requestCoalescer.getStats());
+        health.put("multiGet", multiGetService.getStats());
+        health.put("periodArchive", periodArchiveService.getStats());
+        health.put("roleRegistry", roleRegistry.getStats());
+        health.put("attendanceRollup", attendanceRollupService.getStats());
 
         return ResponseEntity.ok(ApiResponse.success(health, "Service is running"));
     }
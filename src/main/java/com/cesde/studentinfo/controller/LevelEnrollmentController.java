@@ -4,10 +4,13 @@ import com.cesde.studentinfo.dto.ApiResponse;
 import com.cesde.studentinfo.dto.LevelEnrollmentDTO;
 import com.cesde.studentinfo.dto.LevelEnrollmentResponseDTO;
 import com.cesde.studentinfo.dto.PagedResponse;
+import com.cesde.studentinfo.dto.PromotionRequestDTO;
+import com.cesde.studentinfo.dto.PromotionResultDTO;
 import com.cesde.studentinfo.exception.ResourceNotFoundException;
 import com.cesde.studentinfo.model.*;
 import com.cesde.studentinfo.repository.*;
 import com.cesde.studentinfo.service.LevelEnrollmentService;
+import com.cesde.studentinfo.service.PromotionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +39,7 @@ public class LevelEnrollmentController {
     private final LevelRepository levelRepository;
     private final AcademicPeriodRepository academicPeriodRepository;
     private final CourseGroupRepository courseGroupRepository;
+    private final PromotionService promotionService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<LevelEnrollmentResponseDTO>>> getAllLevelEnrollments() {
@@ -182,6 +186,13 @@ public class LevelEnrollmentController {
                         "Level enrollment created successfully"));
     }
 
+    @PostMapping("/promote")
+    public ResponseEntity<ApiResponse<PromotionResultDTO>> promote(@Valid @RequestBody PromotionRequestDTO dto) {
+        log.info("POST /level-enrollments/promote - Promoting to period {}", dto.getTargetPeriodId());
+        PromotionResultDTO result = promotionService.promote(dto);
+        return ResponseEntity.ok(ApiResponse.success(result, "Promotion processed successfully"));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<LevelEnrollmentResponseDTO>> updateLevelEnrollment(
             @PathVariable Long id,
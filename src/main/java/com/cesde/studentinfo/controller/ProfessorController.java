@@ -4,9 +4,11 @@ import com.cesde.studentinfo.dto.ApiResponse;
 import com.cesde.studentinfo.dto.PagedResponse;
 import com.cesde.studentinfo.dto.ProfessorDTO;
 import com.cesde.studentinfo.dto.ProfessorResponseDTO;
+import com.cesde.studentinfo.dto.TimetableSlotDTO;
 import com.cesde.studentinfo.exception.ResourceNotFoundException;
 import com.cesde.studentinfo.model.Professor;
 import com.cesde.studentinfo.service.ProfessorService;
+import com.cesde.studentinfo.service.TimetableService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +16,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -33,6 +36,7 @@ import java.util.stream.Collectors;
 public class ProfessorController {
 
     private final ProfessorService professorService;
+    private final TimetableService timetableService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<ProfessorResponseDTO>>> getAllProfessors() {
@@ -62,6 +66,25 @@ public class ProfessorController {
         return ResponseEntity.ok(ApiResponse.success(ProfessorResponseDTO.fromEntity(professor)));
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<List<ProfessorResponseDTO>>> getProfessorsByIds(@RequestParam List<Long> ids) {
+        log.info("GET /professors?ids - Fetching {} professors by ID", ids.size());
+        List<ProfessorResponseDTO> response = professorService.getProfessorsByIds(ids).stream()
+                .map(ProfessorResponseDTO::fromEntity)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(response, "Professors retrieved successfully"));
+    }
+
+    @GetMapping("/{id}/timetable")
+    public ResponseEntity<ApiResponse<List<TimetableSlotDTO>>> getProfessorTimetable(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET /professors/{}/timetable - Fetching timetable (from: {}, to: {})", id, from, to);
+        List<TimetableSlotDTO> timetable = timetableService.getProfessorTimetable(id, from, to);
+        return ResponseEntity.ok(ApiResponse.success(timetable, "Professor timetable retrieved successfully"));
+    }
+
     @GetMapping("/identification/{idNumber}")
     public ResponseEntity<ApiResponse<ProfessorResponseDTO>> getProfessorByIdentification(@PathVariable String idNumber) {
         log.info("GET /professors/identification/{} - Fetching professor by identification", idNumber);
@@ -0,0 +1,30 @@
+package com.cesde.studentinfo.controller;
+
+import com.cesde.studentinfo.dto.ApiResponse;
+import com.cesde.studentinfo.dto.StatsOverviewDTO;
+import com.cesde.studentinfo.service.StatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller para estadísticas del dashboard
+ * Reemplaza las llamadas separadas a los endpoints /count de cada recurso
+ */
+@RestController
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+@Slf4j
+public class StatsController {
+
+    private final StatsService statsService;
+
+    @GetMapping("/overview")
+    public ResponseEntity<ApiResponse<StatsOverviewDTO>> getOverview() {
+        log.info("GET /stats/overview - Fetching dashboard statistics");
+        return ResponseEntity.ok(ApiResponse.success(statsService.getOverview(), "Statistics retrieved successfully"));
+    }
+}
@@ -1,11 +1,14 @@
 package com.cesde.studentinfo.controller;
 
 import com.cesde.studentinfo.dto.ApiResponse;
+import com.cesde.studentinfo.dto.ImportReportDTO;
 import com.cesde.studentinfo.dto.PagedResponse;
 import com.cesde.studentinfo.dto.StudentDTO;
 import com.cesde.studentinfo.dto.StudentResponseDTO;
 import com.cesde.studentinfo.exception.ResourceNotFoundException;
 import com.cesde.studentinfo.model.Student;
+import com.cesde.studentinfo.service.AsyncReadService;
+import com.cesde.studentinfo.service.StudentImportService;
 import com.cesde.studentinfo.service.StudentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -15,11 +18,14 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -33,6 +39,8 @@ import java.util.stream.Collectors;
 public class StudentController {
 
     private final StudentService studentService;
+    private final StudentImportService studentImportService;
+    private final AsyncReadService asyncReadService;
 
     /**
      * GET /api/students - Obtiene todos los estudiantes
@@ -64,11 +72,25 @@ public class StudentController {
      * GET /api/students/{id} - Obtiene un estudiante por ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<StudentResponseDTO>> getStudentById(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<ApiResponse<StudentResponseDTO>>> getStudentById(@PathVariable Long id) {
         log.info("GET /students/{} - Fetching student by ID", id);
-        Student student = studentService.getStudentById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Student", id));
-        return ResponseEntity.ok(ApiResponse.success(StudentResponseDTO.fromEntity(student)));
+        return asyncReadService.submit(() -> {
+            Student student = studentService.getStudentById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student", id));
+            return ResponseEntity.ok(ApiResponse.success(StudentResponseDTO.fromEntity(student)));
+        });
+    }
+
+    /**
+     * GET /api/students?ids=1,2,3 - Obtiene varios estudiantes por ID en el orden pedido
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<List<StudentResponseDTO>>> getStudentsByIds(@RequestParam List<Long> ids) {
+        log.info("GET /students?ids - Fetching {} students by ID", ids.size());
+        List<StudentResponseDTO> response = studentService.getStudentsByIds(ids).stream()
+                .map(StudentResponseDTO::fromEntity)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(response, "Students retrieved successfully"));
     }
 
     /**
@@ -121,6 +143,18 @@ public class StudentController {
                 .body(ApiResponse.success(StudentResponseDTO.fromEntity(savedStudent), "Student created successfully"));
     }
 
+    /**
+     * POST /api/students/import - Importación masiva de estudiantes desde CSV
+     * El cuerpo es el archivo CSV (Content-Type: text/csv) con fila de cabecera
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<ImportReportDTO>> importStudents(InputStream csv) {
+        log.info("POST /students/import - Importing students from CSV");
+        ImportReportDTO report = studentImportService.importStudents(csv);
+        return ResponseEntity.ok(ApiResponse.success(report, String.format(
+                "Import completed: %d imported, %d failed", report.getImported(), report.getFailed())));
+    }
+
     /**
      * PUT /api/students/{id} - Actualiza un estudiante existente
      */
@@ -125,6 +125,18 @@ public class SubjectAssignmentController {
         return ResponseEntity.ok(ApiResponse.success(assignment, "Subject assignment retrieved successfully"));
     }
 
+    /**
+     * Get several subject assignments by ID, in request order
+     * GET /api/subject-assignments?ids=1,2,3
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<List<SubjectAssignmentResponseDTO>>> getAssignmentsByIds(
+            @RequestParam List<Long> ids) {
+        log.info("GET /subject-assignments?ids - Fetching {} assignments by ID", ids.size());
+        List<SubjectAssignmentResponseDTO> assignments = subjectAssignmentService.getAssignmentsByIds(ids);
+        return ResponseEntity.ok(ApiResponse.success(assignments, "Subject assignments retrieved successfully"));
+    }
+
     /**
      * Get assignments by subject ID
      * GET /api/subject-assignments/subject/{subjectId}
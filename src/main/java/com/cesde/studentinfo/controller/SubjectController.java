@@ -63,6 +63,15 @@ public class SubjectController {
         return ResponseEntity.ok(ApiResponse.success(SubjectResponseDTO.fromEntity(subject)));
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<List<SubjectResponseDTO>>> getSubjectsByIds(@RequestParam List<Long> ids) {
+        log.info("GET /subjects?ids - Fetching {} subjects by ID", ids.size());
+        List<SubjectResponseDTO> response = subjectService.getSubjectsByIds(ids).stream()
+                .map(SubjectResponseDTO::fromEntity)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(response, "Subjects retrieved successfully"));
+    }
+
     @GetMapping("/code/{code}")
     public ResponseEntity<ApiResponse<SubjectResponseDTO>> getSubjectByCode(@PathVariable String code) {
         log.info("GET /subjects/code/{} - Fetching subject by code", code);
@@ -0,0 +1,36 @@
+package com.cesde.studentinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO de alerta temprana para una inscripción a materia en riesgo
+ * (inasistencia injustificada alta o promedio ponderado por debajo de 3.0)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AtRiskAlertDTO {
+
+    private Long subjectEnrollmentId;
+    private Long studentId;
+    private String studentName;
+    private Long subjectId;
+    private String subjectName;
+    private Long courseGroupId;
+    private Long academicPeriodId;
+    private Long totalAttendance;
+    private Long unexcusedAbsences;
+    private Double absenceRate;
+    private Double weightedAverage;
+    private Double gradedWeightPercentage;
+    private Double riskScore;
+    private List<String> reasons;
+    private LocalDateTime evaluatedAt;
+}
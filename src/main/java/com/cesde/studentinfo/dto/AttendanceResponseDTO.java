@@ -32,6 +32,7 @@ public class AttendanceResponseDTO {
     private String recordedByName;
     private LocalDateTime createdAt;
     private LocalDateTime updateDate;
+    private Long version;
 
     public static AttendanceResponseDTO fromEntity(Attendance attendance) {
         return AttendanceResponseDTO.builder()
@@ -51,6 +52,7 @@ public class AttendanceResponseDTO {
                         attendance.getRecordedBy().getFirstName() + " " + attendance.getRecordedBy().getLastName() : null)
                 .createdAt(attendance.getCreatedAt())
                 .updateDate(attendance.getUpdateDate())
+                .version(attendance.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,31 @@
+package com.cesde.studentinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO de un punto de la tendencia de asistencia (un día, una semana, una materia o un profesor)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceTrendDTO {
+
+    // Día o lunes de la semana (groupBy=day|week)
+    private LocalDate date;
+    // Materia o profesor (groupBy=subject|professor)
+    private Long id;
+    private String name;
+    private Long present;
+    private Long absent;
+    private Long late;
+    private Long excused;
+    private Long total;
+    // Inasistencias sin excusa sobre el total
+    private Double absenceRate;
+}
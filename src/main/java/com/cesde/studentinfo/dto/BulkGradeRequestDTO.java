@@ -0,0 +1,57 @@
+package com.cesde.studentinfo.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO para registrar una columna completa de notas (Request)
+ * Un componente y un período para las inscripciones de una asignación de materia
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkGradeRequestDTO {
+
+    @NotNull(message = "Subject Assignment ID is required")
+    private Long subjectAssignmentId;
+
+    @NotNull(message = "Grade Period ID is required")
+    private Long gradePeriodId;
+
+    @NotNull(message = "Grade Component ID is required")
+    private Long gradeComponentId;
+
+    private LocalDate assignmentDate;
+
+    @NotEmpty(message = "Grades are required")
+    @Size(max = 1000, message = "At most 1000 grades per request")
+    @Valid
+    private List<Entry> grades;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+
+        @NotNull(message = "Subject Enrollment ID is required")
+        private Long subjectEnrollmentId;
+
+        // El rango se valida por fila para no rechazar la columna completa
+        @NotNull(message = "Grade value is required")
+        private BigDecimal gradeValue;
+
+        private String comments;
+    }
+}
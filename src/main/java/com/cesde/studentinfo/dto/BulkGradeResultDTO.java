@@ -0,0 +1,52 @@
+package com.cesde.studentinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el resultado por fila de un registro masivo de notas
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkGradeResultDTO {
+
+    public enum RowStatus {
+        CREATED,
+        UPDATED,
+        FAILED
+    }
+
+    private int total;
+    private int created;
+    private int updated;
+    private int failed;
+
+    @Builder.Default
+    private List<RowResult> results = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        private Long subjectEnrollmentId;
+        private RowStatus status;
+        private String message;
+    }
+
+    public void addResult(Long subjectEnrollmentId, RowStatus status, String message) {
+        results.add(new RowResult(subjectEnrollmentId, status, message));
+        switch (status) {
+            case CREATED -> created++;
+            case UPDATED -> updated++;
+            case FAILED -> failed++;
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class GradeResponseDTO {
     private Long assignedById;
     private String assignedByName;
     private LocalDateTime createdAt;
+    private Long version;
 
     public static GradeResponseDTO fromEntity(Grade grade) {
         return GradeResponseDTO.builder()
@@ -49,6 +50,7 @@ public class GradeResponseDTO {
                 .assignedByName(grade.getAssignedBy() != null ?
                         grade.getAssignedBy().getFirstName() + " " + grade.getAssignedBy().getLastName() : null)
                 .createdAt(grade.getCreatedAt())
+                .version(grade.getVersion())
                 .build();
     }
 }
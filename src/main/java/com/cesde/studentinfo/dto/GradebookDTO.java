@@ -0,0 +1,34 @@
+package com.cesde.studentinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO compacto del cuadro de notas de un grupo
+ *
+ * Las filas son inscripciones a materias (arreglos paralelos por fila) y las columnas son
+ * período × componente. values es la matriz densa por filas: la celda (fila r, período p,
+ * componente c) está en values[r * columns + p * components.length + c], en centésimas
+ * (3.45 -> 345); {@link #NO_GRADE} indica que no hay nota registrada.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradebookDTO {
+
+    public static final short NO_GRADE = -1;
+
+    private Long courseGroupId;
+    private int[] periods;
+    private String[] components;
+    private int columns;
+    private long[] enrollmentIds;
+    private long[] studentIds;
+    private String[] studentNames;
+    private String[] subjectCodes;
+    private String[] statuses;
+    private short[] values;
+}
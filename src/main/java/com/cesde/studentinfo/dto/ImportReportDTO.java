@@ -0,0 +1,42 @@
+package com.cesde.studentinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el resultado de una importación masiva CSV
+ * Incluye el reporte de errores por línea del archivo
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDTO {
+
+    private int totalRows;
+    private int imported;
+    private int failed;
+
+    @Builder.Default
+    private List<LineError> errors = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        private int line;
+        private String key;
+        private String message;
+    }
+
+    public void addError(int line, String key, String message) {
+        errors.add(new LineError(line, key, message));
+        failed++;
+    }
+}
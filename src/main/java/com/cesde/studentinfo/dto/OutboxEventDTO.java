@@ -0,0 +1,29 @@
+package com.cesde.studentinfo.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de un evento del outbox publicado por GET /events/stream
+ * offset es el id del evento; el consumidor lo envía en since para reanudar
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEventDTO {
+
+    private Long offset;
+    private String aggregateType;
+    private Long aggregateId;
+    private String eventType;
+    private LocalDateTime occurredAt;
+
+    @JsonRawValue
+    private String payload;
+}
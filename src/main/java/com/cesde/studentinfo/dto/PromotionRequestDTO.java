@@ -0,0 +1,34 @@
+package com.cesde.studentinfo.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO para promover al siguiente nivel a un grupo o a un curso completo (Request)
+ * Se indica sourceGroupId, o courseId con sourcePeriodId para todos los grupos del curso
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromotionRequestDTO {
+
+    private Long sourceGroupId;
+
+    private Long courseId;
+
+    private Long sourcePeriodId;
+
+    @NotNull(message = "Target period ID is required")
+    private Long targetPeriodId;
+
+    // Solo con sourceGroupId; si no se indica se usa el grupo del siguiente nivel con el mismo código
+    private Long targetGroupId;
+
+    private LocalDate enrollmentDate;
+}
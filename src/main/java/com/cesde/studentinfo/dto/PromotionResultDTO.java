@@ -0,0 +1,48 @@
+package com.cesde.studentinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el resultado de una promoción de nivel, con el detalle por grupo de origen
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromotionResultDTO {
+
+    private int promoted;
+    private int subjectEnrollmentsCreated;
+    private int notApproved;
+    private int lastLevel;
+    private int alreadyEnrolled;
+    private int inactiveCourseEnrollment;
+
+    @Builder.Default
+    private List<GroupResult> groups = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GroupResult {
+        // null para las inscripciones sin grupo
+        private Long sourceGroupId;
+        private Long targetGroupId;
+        private int promoted;
+        private int subjectEnrollmentsCreated;
+        private int skipped;
+    }
+
+    public void addGroup(GroupResult group) {
+        groups.add(group);
+        promoted += group.getPromoted();
+        subjectEnrollmentsCreated += group.getSubjectEnrollmentsCreated();
+    }
+}
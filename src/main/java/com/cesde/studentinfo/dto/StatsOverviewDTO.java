@@ -0,0 +1,75 @@
+package com.cesde.studentinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO con las estadísticas generales del dashboard
+ * Se sirve desde contadores en memoria; lastReconciledAt indica la última corrección contra la BD
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsOverviewDTO {
+
+    private long totalStudents;
+    private long activeStudents;
+
+    private long totalAttendance;
+    private Map<String, Long> attendanceByStatus;
+
+    private long totalGrades;
+
+    private long totalClassSessions;
+    private Map<String, Long> classSessionsByStatus;
+
+    private long totalCourseGroups;
+    private long activeCourseGroups;
+
+    private List<PeriodInfo> activePeriods;
+    private long activePeriodEnrollments;
+    private Map<String, Long> enrollmentsByStatus;
+    private List<CourseEnrollmentStats> enrollmentsByCourse;
+
+    private List<RoleUserCount> roles;
+
+    private LocalDateTime lastReconciledAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PeriodInfo {
+        private Long id;
+        private String name;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseEnrollmentStats {
+        private Long courseId;
+        private String courseCode;
+        private String courseName;
+        private long total;
+        private Map<String, Long> byStatus;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoleUserCount {
+        private Long roleId;
+        private String roleName;
+        private long userCount;
+    }
+}
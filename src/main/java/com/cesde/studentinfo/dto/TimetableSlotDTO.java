@@ -0,0 +1,33 @@
+package com.cesde.studentinfo.dto;
+
+import com.cesde.studentinfo.model.ClassSession;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO para una franja del horario de un profesor o un aula
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimetableSlotDTO {
+
+    private Long sessionId;
+    private Long subjectAssignmentId;
+    private String subjectCode;
+    private String subjectName;
+    private Long professorId;
+    private String professorName;
+    private String classroom;
+    private LocalDate sessionDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Integer durationMinutes;
+    private ClassSession.SessionStatus status;
+}
@@ -0,0 +1,16 @@
+package com.cesde.studentinfo.exception;
+
+/**
+ * Excepción para conflictos de concurrencia (HTTP 409)
+ * Se lanza cuando el recurso cambió desde la versión que el cliente leyó (If-Match)
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+    public ConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
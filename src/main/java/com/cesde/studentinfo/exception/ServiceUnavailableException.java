@@ -0,0 +1,24 @@
+package com.cesde.studentinfo.exception;
+
+/**
+ * Excepción para rechazo por sobrecarga (HTTP 503)
+ * Se lanza cuando un recurso acotado (pool, cola) está lleno y conviene reintentar más tarde
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,100 @@
+package com.cesde.studentinfo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.NotFound;
+import org.hibernate.annotations.NotFoundAction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Asistencia de un período académico archivado (tabla attendance_archive, solo lectura)
+ */
+@Entity
+@Immutable
+@Table(name = "attendance_archive")
+@Getter
+@NoArgsConstructor
+public class ArchivedAttendance {
+
+    @Id
+    private Long id;
+
+    @Column(name = "academic_period_id", nullable = false)
+    private Long academicPeriodId;
+
+    // Null si la sesión sigue en class_sessions (archivos hechos antes de mover sesión y asistencias juntas)
+    @ManyToOne(fetch = FetchType.EAGER)
+    @NotFound(action = NotFoundAction.IGNORE)
+    @JoinColumn(name = "class_session_id", nullable = false)
+    private ArchivedClassSession classSession;
+
+    @Column(name = "class_session_id", insertable = false, updatable = false)
+    private Long classSessionId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "subject_enrollment_id", nullable = false)
+    private SubjectEnrollment subjectEnrollment;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Attendance.AttendanceStatus status;
+
+    @Column(name = "assignment_date", nullable = false)
+    private LocalDate assignmentDate;
+
+    @Column(name = "update_date", nullable = false)
+    private LocalDateTime updateDate;
+
+    @Column(name = "is_excused", nullable = false)
+    private Boolean isExcused;
+
+    @Column(name = "excuse_reason", columnDefinition = "TEXT")
+    private String excuseReason;
+
+    @Column(name = "excuse_document", length = 200)
+    private String excuseDocument;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recorded_by")
+    private Professor recordedBy;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Copia desacoplada como Attendance, para responder igual que las asistencias vigentes
+     *
+     * @param hotSession sesión de la tabla caliente, usada solo si la sesión no está archivada
+     */
+    public Attendance toAttendance(ClassSession hotSession) {
+        return Attendance.builder()
+                .id(id)
+                .classSession(classSession != null ? classSession.toClassSession() : hotSession)
+                .subjectEnrollment(subjectEnrollment)
+                .status(status)
+                .assignmentDate(assignmentDate)
+                .updateDate(updateDate)
+                .isExcused(isExcused)
+                .excuseReason(excuseReason)
+                .excuseDocument(excuseDocument)
+                .notes(notes)
+                .recordedBy(recordedBy)
+                .version(version)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedAttendance{id=" + id + ", period=" + academicPeriodId + ", status=" + status + "}";
+    }
+}
@@ -0,0 +1,78 @@
+package com.cesde.studentinfo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Sesión de clase de un período académico archivado (tabla class_sessions_archive, solo lectura)
+ */
+@Entity
+@Immutable
+@Table(name = "class_sessions_archive")
+@Getter
+@NoArgsConstructor
+public class ArchivedClassSession {
+
+    @Id
+    private Long id;
+
+    @Column(name = "academic_period_id", nullable = false)
+    private Long academicPeriodId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "subject_assignment_id", nullable = false)
+    private SubjectAssignment subjectAssignment;
+
+    @Column(name = "session_date", nullable = false)
+    private LocalDate sessionDate;
+
+    @Column(name = "session_time", nullable = false)
+    private LocalTime sessionTime;
+
+    @Column(name = "duration_minutes", nullable = false)
+    private Integer durationMinutes;
+
+    @Column(length = 200)
+    private String topic;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ClassSession.SessionStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Copia desacoplada como ClassSession, para responder igual que las sesiones vigentes
+     */
+    public ClassSession toClassSession() {
+        return ClassSession.builder()
+                .id(id)
+                .subjectAssignment(subjectAssignment)
+                .sessionDate(sessionDate)
+                .sessionTime(sessionTime)
+                .durationMinutes(durationMinutes)
+                .topic(topic)
+                .description(description)
+                .status(status)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedClassSession{id=" + id + ", date=" + sessionDate + ", status=" + status + "}";
+    }
+}
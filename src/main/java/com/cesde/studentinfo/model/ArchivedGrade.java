@@ -0,0 +1,84 @@
+package com.cesde.studentinfo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Nota de un período académico archivado (tabla grades_archive, solo lectura)
+ */
+@Entity
+@Immutable
+@Table(name = "grades_archive")
+@Getter
+@NoArgsConstructor
+public class ArchivedGrade {
+
+    @Id
+    private Long id;
+
+    @Column(name = "academic_period_id", nullable = false)
+    private Long academicPeriodId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "subject_enrollment_id", nullable = false)
+    private SubjectEnrollment subjectEnrollment;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "grade_period_id", nullable = false)
+    private GradePeriod gradePeriod;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "grade_component_id", nullable = false)
+    private GradeComponent gradeComponent;
+
+    @Column(name = "grade_value", nullable = false, precision = 4, scale = 2)
+    private BigDecimal gradeValue;
+
+    @Column(name = "assignment_date", nullable = false)
+    private LocalDate assignmentDate;
+
+    @Column(name = "update_date", nullable = false)
+    private LocalDateTime updateDate;
+
+    @Column(columnDefinition = "TEXT")
+    private String comments;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "assigned_by")
+    private Professor assignedBy;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Copia desacoplada como Grade, para responder igual que las notas vigentes
+     */
+    public Grade toGrade() {
+        return Grade.builder()
+                .id(id)
+                .subjectEnrollment(subjectEnrollment)
+                .gradePeriod(gradePeriod)
+                .gradeComponent(gradeComponent)
+                .gradeValue(gradeValue)
+                .assignmentDate(assignmentDate)
+                .updateDate(updateDate)
+                .comments(comments)
+                .assignedBy(assignedBy)
+                .version(version)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedGrade{id=" + id + ", period=" + academicPeriodId + ", value=" + gradeValue + "}";
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
@@ -40,7 +41,8 @@ public class Attendance {
     @Column(name = "assignment_date", nullable = false)
     private LocalDate assignmentDate;
 
-    @UpdateTimestamp
+    // Reloj de la BD, el mismo de las escrituras JDBC y de la marca de agua de alertas tempranas
+    @UpdateTimestamp(source = SourceType.DB)
     @Column(name = "update_date", nullable = false)
     private LocalDateTime updateDate;
 
@@ -62,6 +64,10 @@ public class Attendance {
     @JoinColumn(name = "recorded_by")
     private Professor recordedBy;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,49 @@
+package com.cesde.studentinfo.repository;
+
+import com.cesde.studentinfo.model.ArchivedAttendance;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository de solo lectura para las asistencias de períodos archivados (attendance_archive)
+ * Las consultas traen lo mismo que sus equivalentes de AttendanceRepository
+ */
+@Repository
+public interface ArchivedAttendanceRepository extends JpaRepository<ArchivedAttendance, Long> {
+
+    @EntityGraph(attributePaths = {"subjectEnrollment", "classSession", "recordedBy"})
+    @Override
+    Optional<ArchivedAttendance> findById(Long id);
+
+    @Query("SELECT a FROM ArchivedAttendance a " +
+           "LEFT JOIN FETCH a.subjectEnrollment se " +
+           "LEFT JOIN FETCH a.classSession " +
+           "LEFT JOIN FETCH a.recordedBy " +
+           "LEFT JOIN FETCH se.levelEnrollment le " +
+           "LEFT JOIN FETCH le.courseEnrollment ce " +
+           "LEFT JOIN FETCH ce.student " +
+           "WHERE ce.student.id = :studentId " +
+           "ORDER BY a.assignmentDate DESC")
+    List<ArchivedAttendance> findByStudentId(@Param("studentId") Long studentId);
+
+    @Query("SELECT a FROM ArchivedAttendance a " +
+           "LEFT JOIN FETCH a.subjectEnrollment " +
+           "LEFT JOIN FETCH a.classSession " +
+           "LEFT JOIN FETCH a.recordedBy " +
+           "WHERE a.subjectEnrollment.id = :enrollmentId " +
+           "ORDER BY a.assignmentDate")
+    List<ArchivedAttendance> findByEnrollmentId(@Param("enrollmentId") Long enrollmentId);
+
+    @Query("SELECT a FROM ArchivedAttendance a " +
+           "LEFT JOIN FETCH a.subjectEnrollment " +
+           "LEFT JOIN FETCH a.classSession " +
+           "LEFT JOIN FETCH a.recordedBy " +
+           "WHERE a.classSessionId = :sessionId")
+    List<ArchivedAttendance> findByClassSessionId(@Param("sessionId") Long sessionId);
+}
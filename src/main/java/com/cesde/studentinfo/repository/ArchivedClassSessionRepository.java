@@ -0,0 +1,16 @@
+package com.cesde.studentinfo.repository;
+
+import com.cesde.studentinfo.model.ArchivedClassSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository de solo lectura para las sesiones de clase de períodos archivados (class_sessions_archive)
+ */
+@Repository
+public interface ArchivedClassSessionRepository extends JpaRepository<ArchivedClassSession, Long> {
+
+    List<ArchivedClassSession> findBySubjectAssignmentId(Long subjectAssignmentId);
+}
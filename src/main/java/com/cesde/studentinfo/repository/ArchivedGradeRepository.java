@@ -0,0 +1,44 @@
+package com.cesde.studentinfo.repository;
+
+import com.cesde.studentinfo.model.ArchivedGrade;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository de solo lectura para las notas de períodos archivados (grades_archive)
+ * Las consultas traen lo mismo que sus equivalentes de GradeRepository
+ */
+@Repository
+public interface ArchivedGradeRepository extends JpaRepository<ArchivedGrade, Long> {
+
+    @EntityGraph(attributePaths = {"subjectEnrollment", "gradePeriod", "gradeComponent", "assignedBy"})
+    @Override
+    Optional<ArchivedGrade> findById(Long id);
+
+    @Query("SELECT g FROM ArchivedGrade g " +
+           "LEFT JOIN FETCH g.subjectEnrollment se " +
+           "LEFT JOIN FETCH g.gradePeriod gp " +
+           "LEFT JOIN FETCH g.gradeComponent gc " +
+           "LEFT JOIN FETCH g.assignedBy ab " +
+           "LEFT JOIN FETCH se.levelEnrollment le " +
+           "LEFT JOIN FETCH le.courseEnrollment ce " +
+           "LEFT JOIN FETCH ce.student s " +
+           "WHERE s.id = :studentId " +
+           "ORDER BY g.assignmentDate DESC")
+    List<ArchivedGrade> findByStudentId(@Param("studentId") Long studentId);
+
+    @Query("SELECT g FROM ArchivedGrade g " +
+           "LEFT JOIN FETCH g.subjectEnrollment " +
+           "LEFT JOIN FETCH g.gradePeriod " +
+           "LEFT JOIN FETCH g.gradeComponent " +
+           "LEFT JOIN FETCH g.assignedBy " +
+           "WHERE g.subjectEnrollment.id = :enrollmentId " +
+           "ORDER BY g.gradePeriod.id")
+    List<ArchivedGrade> findByEnrollmentId(@Param("enrollmentId") Long enrollmentId);
+}
@@ -0,0 +1,127 @@
+package com.cesde.studentinfo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consultas del job de alertas tempranas (estudiantes en riesgo)
+ * Solo considera inscripciones a materias EN_CURSO de períodos académicos activos
+ */
+@Repository
+@RequiredArgsConstructor
+public class AtRiskRepository {
+
+    private static final String ENROLLMENT_COLUMNS =
+            "SELECT se.id, le.group_id, le.academic_period_id, s.id, " +
+            "CONCAT(s.first_name, ' ', s.last_name), sub.id, sub.name " +
+            "FROM subject_enrollments se " +
+            "JOIN level_enrollments le ON le.id = se.level_enrollment_id " +
+            "JOIN academic_periods ap ON ap.id = le.academic_period_id AND ap.is_active = TRUE " +
+            "JOIN course_enrollments ce ON ce.id = le.course_enrollment_id " +
+            "JOIN students s ON s.id = ce.student_id " +
+            "JOIN subjects sub ON sub.id = se.subject_id " +
+            "WHERE se.status = 'EN_CURSO' ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Instante actual de la BD, usado como marca de agua (evita desfases de reloj con la aplicación)
+     */
+    public LocalDateTime currentTimestamp() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class).toLocalDateTime();
+    }
+
+    /**
+     * @return ids de los grupos con inscripciones activas (null para las que no tienen grupo)
+     */
+    public List<Long> findActiveGroupIds() {
+        return jdbcTemplate.query(
+                "SELECT DISTINCT le.group_id FROM subject_enrollments se " +
+                "JOIN level_enrollments le ON le.id = se.level_enrollment_id " +
+                "JOIN academic_periods ap ON ap.id = le.academic_period_id AND ap.is_active = TRUE " +
+                "WHERE se.status = 'EN_CURSO'",
+                (rs, i) -> {
+                    long groupId = rs.getLong(1);
+                    return rs.wasNull() ? null : groupId;
+                });
+    }
+
+    /**
+     * @return [enrollmentId, groupId, academicPeriodId, studentId, studentName, subjectId, subjectName]
+     * de las inscripciones activas de un grupo (null = sin grupo)
+     */
+    public List<Object[]> findActiveEnrollmentsByGroup(Long groupId) {
+        if (groupId == null) {
+            return jdbcTemplate.query(ENROLLMENT_COLUMNS + "AND le.group_id IS NULL", (rs, i) -> enrollmentRow(rs));
+        }
+        return jdbcTemplate.query(ENROLLMENT_COLUMNS + "AND le.group_id = ?", (rs, i) -> enrollmentRow(rs), groupId);
+    }
+
+    /**
+     * Inscripciones activas con asistencias o notas modificadas desde la marca de agua
+     *
+     * @return mismas columnas que {@link #findActiveEnrollmentsByGroup(Long)}
+     */
+    public List<Object[]> findEnrollmentsChangedSince(LocalDateTime since) {
+        Timestamp ts = Timestamp.valueOf(since);
+        return jdbcTemplate.query(ENROLLMENT_COLUMNS +
+                "AND se.id IN (SELECT a.subject_enrollment_id FROM attendance a WHERE a.update_date >= ? " +
+                "UNION SELECT g.subject_enrollment_id FROM grades g WHERE g.update_date >= ?)",
+                (rs, i) -> enrollmentRow(rs), ts, ts);
+    }
+
+    /**
+     * @return mismas columnas que {@link #findActiveEnrollmentsByGroup(Long)}, para los ids indicados
+     */
+    public List<Object[]> findActiveEnrollmentsByIds(Collection<Long> enrollmentIds) {
+        return namedJdbcTemplate.query(ENROLLMENT_COLUMNS + "AND se.id IN (:ids)",
+                new MapSqlParameterSource("ids", enrollmentIds), (rs, i) -> enrollmentRow(rs));
+    }
+
+    /**
+     * @return [enrollmentId, total, ausenciasInjustificadas]
+     */
+    public List<long[]> countAttendanceByEnrollment(Collection<Long> enrollmentIds) {
+        return namedJdbcTemplate.query(
+                "SELECT subject_enrollment_id, COUNT(*), " +
+                "COALESCE(SUM(status = 'AUSENTE' AND is_excused = FALSE), 0) " +
+                "FROM attendance WHERE subject_enrollment_id IN (:ids) GROUP BY subject_enrollment_id",
+                new MapSqlParameterSource("ids", enrollmentIds),
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)});
+    }
+
+    /**
+     * Suma ponderada de las notas registradas (peso del período × peso del componente)
+     *
+     * @return [enrollmentId, sumaPonderada, sumaPesos]
+     */
+    public List<Object[]> sumWeightedGradesByEnrollment(Collection<Long> enrollmentIds) {
+        return namedJdbcTemplate.query(
+                "SELECT g.subject_enrollment_id, " +
+                "SUM(g.grade_value * gp.weight_percentage * gc.weight_percentage), " +
+                "SUM(gp.weight_percentage * gc.weight_percentage) " +
+                "FROM grades g " +
+                "JOIN grade_periods gp ON gp.id = g.grade_period_id " +
+                "JOIN grade_components gc ON gc.id = g.grade_component_id " +
+                "WHERE g.subject_enrollment_id IN (:ids) GROUP BY g.subject_enrollment_id",
+                new MapSqlParameterSource("ids", enrollmentIds),
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getDouble(2), rs.getDouble(3)});
+    }
+
+    private static Object[] enrollmentRow(ResultSet rs) throws SQLException {
+        long groupId = rs.getLong(2);
+        return new Object[]{rs.getLong(1), rs.wasNull() ? null : groupId, rs.getLong(3),
+                rs.getLong(4), rs.getString(5), rs.getLong(6), rs.getString(7)};
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -67,5 +68,10 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     List<Attendance> findByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     boolean existsBySubjectEnrollmentIdAndClassSessionId(Long subjectEnrollmentId, Long classSessionId);
-}
 
+    @Query("SELECT a FROM Attendance a " +
+           "LEFT JOIN FETCH a.classSession " +
+           "WHERE a.subjectEnrollment.id IN :enrollmentIds " +
+           "ORDER BY a.assignmentDate")
+    List<Attendance> findBySubjectEnrollmentIdIn(@Param("enrollmentIds") Collection<Long> enrollmentIds);
+}
@@ -0,0 +1,212 @@
+package com.cesde.studentinfo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lecturas y escrituras JDBC del resumen diario de asistencia (attendance_daily_rollup)
+ */
+@Repository
+@RequiredArgsConstructor
+public class AttendanceRollupRepository {
+
+    private static final String COUNTS =
+            "SUM(r.present_count), SUM(r.absent_count), SUM(r.late_count), SUM(r.excused_count) ";
+
+    // Asistencias de la tabla caliente y de archivo; la sesión puede estar ya archivada o no
+    private static final String SOURCE_ROWS =
+            "SELECT a.assignment_date AS d, cs.subject_assignment_id AS sa, a.status AS st " +
+            "FROM attendance a JOIN class_sessions cs ON cs.id = a.class_session_id " +
+            "WHERE a.assignment_date BETWEEN ? AND ? " +
+            "UNION ALL " +
+            "SELECT aa.assignment_date, COALESCE(cs.subject_assignment_id, csa.subject_assignment_id), aa.status " +
+            "FROM attendance_archive aa " +
+            "LEFT JOIN class_sessions cs ON cs.id = aa.class_session_id " +
+            "LEFT JOIN class_sessions_archive csa ON csa.id = aa.class_session_id " +
+            "WHERE aa.assignment_date BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Suma delta al conteo del estado; debe ir en la transacción de la escritura de asistencia
+     */
+    public void applyDelta(LocalDate date, Long subjectAssignmentId, String status, int delta) {
+        String column = column(status);
+        jdbcTemplate.update(
+                "INSERT INTO attendance_daily_rollup (attendance_date, subject_assignment_id, " + column + ") " +
+                "VALUES (?, ?, ?) AS d ON DUPLICATE KEY UPDATE " + column + " = attendance_daily_rollup." + column +
+                " + d." + column,
+                Date.valueOf(date), subjectAssignmentId, delta);
+    }
+
+    /**
+     * Descuenta las asistencias de una sesión antes de borrarla (el borrado de la sesión las borra en cascada)
+     */
+    public void subtractSession(Long classSessionId) {
+        subtract("a.class_session_id = ?", classSessionId);
+    }
+
+    /**
+     * Descuenta las asistencias de una inscripción a materia antes de borrarla (se borran en cascada)
+     */
+    public void subtractSubjectEnrollment(Long subjectEnrollmentId) {
+        subtract("a.subject_enrollment_id = ?", subjectEnrollmentId);
+    }
+
+    /**
+     * Descuenta las asistencias de las sesiones de una asignación antes de borrarla (se borran en cascada)
+     */
+    public void subtractAssignment(Long subjectAssignmentId) {
+        subtract("cs.subject_assignment_id = ?", subjectAssignmentId);
+    }
+
+    private void subtract(String filter, Long id) {
+        jdbcTemplate.update(
+                "UPDATE attendance_daily_rollup r JOIN (" +
+                "SELECT a.assignment_date AS d, cs.subject_assignment_id AS sa, " +
+                "SUM(a.status = 'PRESENTE') AS p, SUM(a.status = 'AUSENTE') AS ab, " +
+                "SUM(a.status = 'TARDANZA') AS l, SUM(a.status = 'EXCUSADO') AS e " +
+                "FROM attendance a JOIN class_sessions cs ON cs.id = a.class_session_id " +
+                "WHERE " + filter + " GROUP BY a.assignment_date, cs.subject_assignment_id) x " +
+                "ON r.attendance_date = x.d AND r.subject_assignment_id = x.sa " +
+                "SET r.present_count = r.present_count - x.p, r.absent_count = r.absent_count - x.ab, " +
+                "r.late_count = r.late_count - x.l, r.excused_count = r.excused_count - x.e",
+                id);
+    }
+
+    /**
+     * Reconstruye el resumen de un rango de fechas desde el detalle; debe correr en una transacción
+     *
+     * Primero bloquea las filas del resumen del rango (y sus huecos): una escritura de asistencia
+     * ya en curso termina antes de seguir y las nuevas esperan el commit para aplicar su delta sobre
+     * lo reconstruido. Después calcula los conteos con una lectura sin bloqueos del detalle, así
+     * la reconstrucción nunca espera locks de attendance mientras retiene los del resumen, y los
+     * escribe con upserts en orden de clave; las filas del rango sin detalle se borran.
+     *
+     * @return filas del resumen escritas
+     */
+    public int rebuildRange(LocalDate from, LocalDate to) {
+        Date start = Date.valueOf(from);
+        Date end = Date.valueOf(to);
+        List<Object[]> current = jdbcTemplate.query(
+                "SELECT attendance_date, subject_assignment_id FROM attendance_daily_rollup " +
+                "WHERE attendance_date BETWEEN ? AND ? ORDER BY attendance_date, subject_assignment_id FOR UPDATE",
+                (rs, i) -> new Object[]{rs.getDate(1), rs.getLong(2)}, start, end);
+
+        List<Object[]> counts = jdbcTemplate.query(
+                "SELECT src.d, src.sa, SUM(src.st = 'PRESENTE'), SUM(src.st = 'AUSENTE'), " +
+                "SUM(src.st = 'TARDANZA'), SUM(src.st = 'EXCUSADO') " +
+                "FROM (" + SOURCE_ROWS + ") src WHERE src.sa IS NOT NULL GROUP BY src.d, src.sa ORDER BY src.d, src.sa",
+                (rs, i) -> new Object[]{rs.getDate(1), rs.getLong(2), rs.getInt(3), rs.getInt(4), rs.getInt(5),
+                        rs.getInt(6)},
+                start, end, start, end);
+
+        Set<String> rebuilt = new HashSet<>();
+        counts.forEach(row -> rebuilt.add(row[0] + ":" + row[1]));
+        List<Object[]> stale = current.stream()
+                .filter(row -> !rebuilt.contains(row[0] + ":" + row[1]))
+                .toList();
+        if (!stale.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "DELETE FROM attendance_daily_rollup WHERE attendance_date = ? AND subject_assignment_id = ?",
+                    stale);
+        }
+        if (!counts.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO attendance_daily_rollup (attendance_date, subject_assignment_id, present_count, " +
+                    "absent_count, late_count, excused_count) VALUES (?, ?, ?, ?, ?, ?) AS n " +
+                    "ON DUPLICATE KEY UPDATE present_count = n.present_count, absent_count = n.absent_count, " +
+                    "late_count = n.late_count, excused_count = n.excused_count",
+                    counts);
+        }
+        return counts.size();
+    }
+
+    /**
+     * Primera y última fecha con asistencias (caliente y archivo), o null si no hay ninguna
+     */
+    public LocalDate[] findAttendanceDateRange() {
+        return jdbcTemplate.queryForObject(
+                "SELECT MIN(d), MAX(d) FROM (" +
+                "SELECT MIN(assignment_date) AS d FROM attendance UNION ALL " +
+                "SELECT MAX(assignment_date) FROM attendance UNION ALL " +
+                "SELECT MIN(assignment_date) FROM attendance_archive UNION ALL " +
+                "SELECT MAX(assignment_date) FROM attendance_archive) x",
+                (rs, i) -> rs.getDate(1) == null ? null
+                        : new LocalDate[]{rs.getDate(1).toLocalDate(), rs.getDate(2).toLocalDate()});
+    }
+
+    public boolean isEmpty() {
+        return jdbcTemplate.queryForList("SELECT 1 FROM attendance_daily_rollup LIMIT 1").isEmpty();
+    }
+
+    /**
+     * @return [date, present, absent, late, excused]
+     */
+    public List<Object[]> sumByDay(LocalDate from, LocalDate to) {
+        return query("SELECT r.attendance_date, " + COUNTS +
+                     "FROM attendance_daily_rollup r WHERE r.attendance_date BETWEEN ? AND ? " +
+                     "GROUP BY r.attendance_date ORDER BY r.attendance_date", from, to, false);
+    }
+
+    /**
+     * Semanas ISO identificadas por su lunes
+     *
+     * @return [weekStart, present, absent, late, excused]
+     */
+    public List<Object[]> sumByWeek(LocalDate from, LocalDate to) {
+        return query("SELECT DATE_SUB(r.attendance_date, INTERVAL WEEKDAY(r.attendance_date) DAY) AS w, " + COUNTS +
+                     "FROM attendance_daily_rollup r WHERE r.attendance_date BETWEEN ? AND ? " +
+                     "GROUP BY w ORDER BY w", from, to, false);
+    }
+
+    /**
+     * @return [subjectId, subjectName, present, absent, late, excused]
+     */
+    public List<Object[]> sumBySubject(LocalDate from, LocalDate to) {
+        return query("SELECT s.id, s.name, " + COUNTS +
+                     "FROM attendance_daily_rollup r " +
+                     "JOIN subject_assignments sa ON sa.id = r.subject_assignment_id " +
+                     "JOIN subjects s ON s.id = sa.subject_id " +
+                     "WHERE r.attendance_date BETWEEN ? AND ? " +
+                     "GROUP BY s.id, s.name ORDER BY s.name", from, to, true);
+    }
+
+    /**
+     * @return [professorId, professorName, present, absent, late, excused]
+     */
+    public List<Object[]> sumByProfessor(LocalDate from, LocalDate to) {
+        return query("SELECT p.id, CONCAT(p.first_name, ' ', p.last_name) AS name, " + COUNTS +
+                     "FROM attendance_daily_rollup r " +
+                     "JOIN subject_assignments sa ON sa.id = r.subject_assignment_id " +
+                     "JOIN professors p ON p.id = sa.professor_id " +
+                     "WHERE r.attendance_date BETWEEN ? AND ? " +
+                     "GROUP BY p.id, p.first_name, p.last_name ORDER BY name", from, to, true);
+    }
+
+    private List<Object[]> query(String sql, LocalDate from, LocalDate to, boolean labeled) {
+        return jdbcTemplate.query(sql, (rs, i) -> labeled
+                        ? new Object[]{rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getLong(4),
+                                rs.getLong(5), rs.getLong(6)}
+                        : new Object[]{rs.getDate(1).toLocalDate(), rs.getLong(2), rs.getLong(3),
+                                rs.getLong(4), rs.getLong(5)},
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    private static String column(String status) {
+        return switch (status) {
+            case "PRESENTE" -> "present_count";
+            case "AUSENTE" -> "absent_count";
+            case "TARDANZA" -> "late_count";
+            case "EXCUSADO" -> "excused_count";
+            default -> throw new IllegalArgumentException("Unknown attendance status: " + status);
+        };
+    }
+}
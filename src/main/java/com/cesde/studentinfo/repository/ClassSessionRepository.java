@@ -7,6 +7,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,4 +48,62 @@ public interface ClassSessionRepository extends JpaRepository<ClassSession, Long
      * @return Optional con la sesión si existe
      */
     Optional<ClassSession> findBySubjectAssignmentIdAndSessionDate(Long subjectAssignmentId, LocalDate sessionDate);
+
+    /**
+     * Busca sesiones por lote de ids (multi-get) con la asignación, materia, nivel y profesor
+     * @param ids IDs de las sesiones
+     * @return Sesiones encontradas, sin orden garantizado
+     */
+    @Query("SELECT cs FROM ClassSession cs " +
+           "LEFT JOIN FETCH cs.subjectAssignment sa " +
+           "LEFT JOIN FETCH sa.subject s " +
+           "LEFT JOIN FETCH s.level " +
+           "LEFT JOIN FETCH sa.professor " +
+           "WHERE cs.id IN :ids")
+    List<ClassSession> findAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Proyección de las sesiones no canceladas de los períodos dados para el índice de horarios
+     * @return [id, subjectAssignmentId, sessionDate, sessionTime, durationMinutes, status]
+     */
+    @Query("SELECT cs.id, cs.subjectAssignment.id, cs.sessionDate, cs.sessionTime, cs.durationMinutes, cs.status " +
+           "FROM ClassSession cs WHERE cs.subjectAssignment.academicPeriod.id IN :periodIds " +
+           "AND cs.status <> :excludedStatus")
+    List<Object[]> findTimetableRowsByPeriodIds(@Param("periodIds") Collection<Long> periodIds,
+                                                @Param("excludedStatus") ClassSession.SessionStatus excludedStatus);
+
+    /**
+     * Primera sesión no cancelada que se solapa, el mismo día, con otra del profesor o del aula dada
+     * Se usa con las asignaciones bloqueadas (SubjectAssignmentRepository.lockForScheduling); el aula
+     * se compara normalizada (sin espacios al borde y en mayúsculas), igual que en el índice en memoria
+     */
+    @Query(value = "SELECT cs.id FROM class_sessions cs " +
+                   "JOIN subject_assignments sa ON sa.id = cs.subject_assignment_id " +
+                   "WHERE cs.session_date = :date AND cs.status <> 'CANCELADA' AND sa.is_active = TRUE " +
+                   "AND (sa.professor_id = :professorId OR UPPER(TRIM(sa.classroom)) = :classroom) " +
+                   "AND (:excludedSessionId IS NULL OR cs.id <> :excludedSessionId) " +
+                   "AND cs.session_time < :endTime " +
+                   "AND ADDTIME(cs.session_time, SEC_TO_TIME(cs.duration_minutes * 60)) > :startTime " +
+                   "LIMIT 1", nativeQuery = true)
+    List<Long> findOverlappingSessionIds(@Param("date") LocalDate date,
+                                         @Param("startTime") LocalTime startTime,
+                                         @Param("endTime") LocalTime endTime,
+                                         @Param("professorId") Long professorId,
+                                         @Param("classroom") String classroom,
+                                         @Param("excludedSessionId") Long excludedSessionId);
+
+    /**
+     * Primera sesión de otra asignación del aula (normalizada) que se solapa con alguna sesión de la asignación dada
+     */
+    @Query(value = "SELECT o.id FROM class_sessions s " +
+                   "JOIN class_sessions o ON o.session_date = s.session_date AND o.id <> s.id " +
+                   "JOIN subject_assignments oa ON oa.id = o.subject_assignment_id " +
+                   "WHERE s.subject_assignment_id = :assignmentId AND s.status <> 'CANCELADA' " +
+                   "AND o.status <> 'CANCELADA' AND oa.is_active = TRUE AND oa.id <> :assignmentId " +
+                   "AND UPPER(TRIM(oa.classroom)) = :classroom " +
+                   "AND o.session_time < ADDTIME(s.session_time, SEC_TO_TIME(s.duration_minutes * 60)) " +
+                   "AND s.session_time < ADDTIME(o.session_time, SEC_TO_TIME(o.duration_minutes * 60)) " +
+                   "LIMIT 1", nativeQuery = true)
+    List<Long> findClassroomOverlapsForAssignment(@Param("assignmentId") Long assignmentId,
+                                                  @Param("classroom") String classroom);
 }
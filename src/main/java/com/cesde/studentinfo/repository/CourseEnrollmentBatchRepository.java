@@ -0,0 +1,41 @@
+package com.cesde.studentinfo.repository;
+
+import com.cesde.studentinfo.model.CourseEnrollment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.List;
+
+/**
+ * Inserciones masivas de inscripciones a curso vía JDBC batch
+ */
+@Repository
+@RequiredArgsConstructor
+public class CourseEnrollmentBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO course_enrollments (student_id, course_id, academic_period_id, " +
+            "enrollment_date, enrollment_status, notes) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta un bloque de inscripciones en una sola transacción.
+     * Las entidades solo necesitan tener el id de sus relaciones.
+     */
+    @Transactional
+    public int batchInsert(List<CourseEnrollment> enrollments) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, enrollments, enrollments.size(), (ps, e) -> {
+            ps.setLong(1, e.getStudent().getId());
+            ps.setLong(2, e.getCourse().getId());
+            ps.setLong(3, e.getAcademicPeriod().getId());
+            ps.setDate(4, Date.valueOf(e.getEnrollmentDate()));
+            ps.setString(5, e.getEnrollmentStatus().name());
+            ps.setString(6, e.getNotes());
+        });
+        return enrollments.size();
+    }
+}
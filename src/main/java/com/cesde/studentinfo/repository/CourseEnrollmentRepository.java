@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -62,4 +63,20 @@ public interface CourseEnrollmentRepository extends JpaRepository<CourseEnrollme
     List<CourseEnrollment> findByAcademicPeriodId(@Param("periodId") Long periodId);
 
     boolean existsByStudentIdAndCourseIdAndAcademicPeriodId(Long studentId, Long courseId, Long periodId);
+
+    /**
+     * Pares [studentId, courseId] ya inscritos en el período para los estudiantes dados
+     */
+    @Query("SELECT ce.student.id, ce.course.id FROM CourseEnrollment ce " +
+           "WHERE ce.academicPeriod.id = :periodId AND ce.student.id IN :studentIds")
+    List<Object[]> findStudentCoursePairs(@Param("periodId") Long periodId,
+                                          @Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * Inscripciones de un lote de estudiantes (carga por lotes de GraphQL)
+     */
+    @Query("SELECT ce FROM CourseEnrollment ce " +
+           "WHERE ce.student.id IN :studentIds " +
+           "ORDER BY ce.enrollmentDate DESC")
+    List<CourseEnrollment> findByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
 }
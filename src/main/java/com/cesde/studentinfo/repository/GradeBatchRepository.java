@@ -0,0 +1,96 @@
+package com.cesde.studentinfo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Escrituras masivas de notas vía JDBC batch
+ */
+@Repository
+@RequiredArgsConstructor
+public class GradeBatchRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO grades (subject_enrollment_id, grade_period_id, grade_component_id, grade_value, " +
+            "assignment_date, comments, assigned_by) VALUES (?, ?, ?, ?, ?, ?, ?) AS n " +
+            "ON DUPLICATE KEY UPDATE grade_value = n.grade_value, " +
+            "comments = COALESCE(n.comments, grades.comments), assigned_by = n.assigned_by, " +
+            "version = grades.version + 1";
+
+    // Promedio ponderado (peso del período × peso del componente) de las notas registradas
+    private static final String RECOMPUTE_FINAL_GRADE_SQL =
+            "UPDATE subject_enrollments se SET se.final_grade = (" +
+            "SELECT ROUND(SUM(g.grade_value * gp.weight_percentage * gc.weight_percentage) / " +
+            "NULLIF(SUM(gp.weight_percentage * gc.weight_percentage), 0), 2) " +
+            "FROM grades g " +
+            "JOIN grade_periods gp ON gp.id = g.grade_period_id " +
+            "JOIN grade_components gc ON gc.id = g.grade_component_id " +
+            "WHERE g.subject_enrollment_id = se.id) " +
+            "WHERE se.id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Estado de las inscripciones frente a la clave uk_enrollment_period_component
+     *
+     * @return [subjectEnrollmentId, subjectAssignmentId, status, existingGradeId]
+     */
+    public List<Object[]> findEnrollmentsForGradeColumn(Collection<Long> enrollmentIds, Long gradePeriodId,
+                                                        Long gradeComponentId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", enrollmentIds)
+                .addValue("periodId", gradePeriodId)
+                .addValue("componentId", gradeComponentId);
+        return namedJdbcTemplate.query(
+                "SELECT se.id, se.subject_assignment_id, se.status, g.id FROM subject_enrollments se " +
+                "LEFT JOIN grades g ON g.subject_enrollment_id = se.id " +
+                "AND g.grade_period_id = :periodId AND g.grade_component_id = :componentId " +
+                "WHERE se.id IN (:ids)",
+                params,
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getObject(2, Long.class), rs.getString(3),
+                        rs.getObject(4, Long.class)});
+    }
+
+    /**
+     * Inserta o actualiza una columna de notas (mismo período y componente) en una sola transacción
+     *
+     * @param rows [subjectEnrollmentId, gradeValue, comments]
+     */
+    public int batchUpsert(List<Object[]> rows, Long gradePeriodId, Long gradeComponentId,
+                           LocalDate assignmentDate, Long assignedBy) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, (Long) row[0]);
+            ps.setLong(2, gradePeriodId);
+            ps.setLong(3, gradeComponentId);
+            ps.setBigDecimal(4, (BigDecimal) row[1]);
+            ps.setDate(5, Date.valueOf(assignmentDate));
+            ps.setString(6, (String) row[2]);
+            if (assignedBy != null) {
+                ps.setLong(7, assignedBy);
+            } else {
+                ps.setNull(7, Types.BIGINT);
+            }
+        });
+        return rows.size();
+    }
+
+    /**
+     * Recalcula la nota definitiva de las inscripciones indicadas con una sola sentencia
+     */
+    public int recomputeFinalGrades(Collection<Long> enrollmentIds) {
+        if (enrollmentIds.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(RECOMPUTE_FINAL_GRADE_SQL, new MapSqlParameterSource("ids", enrollmentIds));
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -68,4 +69,21 @@ public interface GradeRepository extends JpaRepository<Grade, Long> {
            "LEFT JOIN FETCH g.assignedBy " +
            "WHERE g.gradePeriod.id = :periodId")
     List<Grade> findByGradePeriodId(@Param("periodId") Long periodId);
+
+    // Celdas del cuadro de notas de un grupo: [subjectEnrollmentId, periodNumber, componentCode, gradeValue]
+    @Query("SELECT se.id, gp.periodNumber, gc.code, g.gradeValue FROM Grade g " +
+           "JOIN g.subjectEnrollment se " +
+           "JOIN se.levelEnrollment le " +
+           "JOIN g.gradePeriod gp " +
+           "JOIN g.gradeComponent gc " +
+           "WHERE le.group.id = :groupId")
+    List<Object[]> findGradebookCellsByCourseGroupId(@Param("groupId") Long groupId);
+
+    // Por lote de inscripciones de materia (carga por lotes de GraphQL)
+    @Query("SELECT g FROM Grade g " +
+           "LEFT JOIN FETCH g.gradePeriod " +
+           "LEFT JOIN FETCH g.gradeComponent " +
+           "WHERE g.subjectEnrollment.id IN :enrollmentIds " +
+           "ORDER BY g.gradePeriod.id")
+    List<Grade> findBySubjectEnrollmentIdIn(@Param("enrollmentIds") Collection<Long> enrollmentIds);
 }
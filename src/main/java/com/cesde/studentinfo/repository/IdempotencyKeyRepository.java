@@ -0,0 +1,58 @@
+package com.cesde.studentinfo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persistencia opcional de claves de idempotencia (despliegues con varios nodos)
+ * Los vencimientos se calculan con el reloj de la BD
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserva la clave para este nodo; false si otro request ya la tiene (en curso o completada)
+     */
+    public boolean claim(String key, String fingerprint, long ttlSeconds) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at < NOW()", key);
+        return jdbcTemplate.update(
+                "INSERT IGNORE INTO idempotency_keys (idempotency_key, request_fingerprint, expires_at) " +
+                "VALUES (?, ?, NOW() + INTERVAL ? SECOND)",
+                key, fingerprint, ttlSeconds) == 1;
+    }
+
+    /**
+     * @return [fingerprint, responseStatus (null si está en curso), contentType, body]
+     */
+    public Optional<Object[]> find(String key) {
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT request_fingerprint, response_status, content_type, response_body " +
+                "FROM idempotency_keys WHERE idempotency_key = ? AND expires_at >= NOW()",
+                (rs, i) -> new Object[]{rs.getString(1), rs.getObject(2, Integer.class),
+                        rs.getString(3), rs.getBytes(4)},
+                key);
+        return rows.stream().findFirst();
+    }
+
+    public void complete(String key, int status, String contentType, byte[] body, long ttlSeconds) {
+        jdbcTemplate.update(
+                "UPDATE idempotency_keys SET response_status = ?, content_type = ?, response_body = ?, " +
+                "expires_at = NOW() + INTERVAL ? SECOND WHERE idempotency_key = ?",
+                status, contentType, body, ttlSeconds, key);
+    }
+
+    public void delete(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ?", key);
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < NOW()");
+    }
+}
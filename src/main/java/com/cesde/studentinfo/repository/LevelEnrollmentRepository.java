@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -78,4 +79,12 @@ public interface LevelEnrollmentRepository extends JpaRepository<LevelEnrollment
            "WHERE le.status = :status " +
            "ORDER BY le.enrollmentDate DESC")
     List<LevelEnrollment> findByStatus(@Param("status") LevelEnrollment.LevelStatus status);
+
+    /**
+     * Niveles de un lote de inscripciones a curso (carga por lotes de GraphQL)
+     */
+    @Query("SELECT le FROM LevelEnrollment le " +
+           "WHERE le.courseEnrollment.id IN :courseEnrollmentIds " +
+           "ORDER BY le.enrollmentDate DESC")
+    List<LevelEnrollment> findByCourseEnrollmentIdIn(@Param("courseEnrollmentIds") Collection<Long> courseEnrollmentIds);
 }
@@ -0,0 +1,62 @@
+package com.cesde.studentinfo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Acceso JDBC a la tabla outbox_events
+ * Las inserciones participan en la transacción JPA en curso
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void append(String aggregateType, Long aggregateId, String eventType, String payload) {
+        jdbcTemplate.update(
+                "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload) VALUES (?, ?, ?, ?)",
+                aggregateType, aggregateId, eventType, payload);
+    }
+
+    /**
+     * @return [id, aggregateType, aggregateId, eventType, payload, createdAt] ordenados por id
+     */
+    public List<Object[]> findAfter(long afterId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at " +
+                "FROM outbox_events WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getString(4),
+                        rs.getString(5), rs.getTimestamp(6).toLocalDateTime()},
+                afterId, limit);
+    }
+
+    /**
+     * Eventos de los ids dados que ya existen (confirmados después de que el relay los saltó)
+     *
+     * @return mismas columnas que {@link #findAfter(long, int)}
+     */
+    public List<Object[]> findByIds(Collection<Long> ids) {
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.query(
+                "SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at " +
+                "FROM outbox_events WHERE id IN (" + placeholders + ") ORDER BY id",
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getString(4),
+                        rs.getString(5), rs.getTimestamp(6).toLocalDateTime()},
+                ids.toArray());
+    }
+
+    public long findMaxId() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM outbox_events", Long.class);
+        return max != null ? max : 0;
+    }
+
+    public int deleteOlderThanDays(int days) {
+        return jdbcTemplate.update("DELETE FROM outbox_events WHERE created_at < NOW() - INTERVAL ? DAY", days);
+    }
+}
@@ -0,0 +1,153 @@
+package com.cesde.studentinfo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Movimiento por lotes de notas, asistencias y sesiones de un período a las tablas *_archive
+ *
+ * Cada lote selecciona con FOR UPDATE los ids siguientes de la tabla caliente, los copia al
+ * archivo con INSERT ... SELECT y los borra; debe correr dentro de una transacción para que
+ * copia y borrado sean atómicos. Las sesiones se mueven junto con sus asistencias en el mismo
+ * lote, así una asistencia archivada nunca apunta a una sesión que sigue en la tabla caliente.
+ * Como lo ya movido deja de aparecer en la tabla caliente, repetir un archivo interrumpido
+ * continúa donde quedó.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PeriodArchiveRepository {
+
+    // El período de una nota es el de su inscripción a nivel
+    private static final String NEXT_GRADE_IDS_SQL =
+            "SELECT g.id FROM grades g " +
+            "JOIN subject_enrollments se ON se.id = g.subject_enrollment_id " +
+            "JOIN level_enrollments le ON le.id = se.level_enrollment_id " +
+            "WHERE le.academic_period_id = ? ORDER BY g.id LIMIT ? FOR UPDATE";
+
+    private static final String ARCHIVE_GRADES_SQL =
+            "INSERT INTO grades_archive (id, academic_period_id, subject_enrollment_id, grade_period_id, " +
+            "grade_component_id, grade_value, assignment_date, update_date, comments, assigned_by, version, created_at) " +
+            "SELECT id, :periodId, subject_enrollment_id, grade_period_id, grade_component_id, grade_value, " +
+            "assignment_date, update_date, comments, assigned_by, version, created_at FROM grades WHERE id IN (:ids)";
+
+    // El período de una sesión (y de sus asistencias) es el de su asignación
+    private static final String NEXT_SESSION_IDS_SQL =
+            "SELECT cs.id FROM class_sessions cs " +
+            "JOIN subject_assignments sa ON sa.id = cs.subject_assignment_id " +
+            "WHERE sa.academic_period_id = ? ORDER BY cs.id LIMIT ? FOR UPDATE";
+
+    private static final String ARCHIVE_ATTENDANCE_SQL =
+            "INSERT INTO attendance_archive (id, academic_period_id, class_session_id, subject_enrollment_id, status, " +
+            "assignment_date, update_date, is_excused, excuse_reason, excuse_document, notes, recorded_by, version, " +
+            "created_at) " +
+            "SELECT id, :periodId, class_session_id, subject_enrollment_id, status, assignment_date, update_date, " +
+            "is_excused, excuse_reason, excuse_document, notes, recorded_by, version, created_at " +
+            "FROM attendance WHERE class_session_id IN (:ids)";
+
+    private static final String ARCHIVE_SESSIONS_SQL =
+            "INSERT INTO class_sessions_archive (id, academic_period_id, subject_assignment_id, session_date, " +
+            "session_time, duration_minutes, topic, description, status, created_at, updated_at) " +
+            "SELECT id, :periodId, subject_assignment_id, session_date, session_time, duration_minutes, topic, " +
+            "description, status, created_at, updated_at FROM class_sessions WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public int archiveGradeBatch(Long periodId, int batchSize) {
+        return moveBatch(NEXT_GRADE_IDS_SQL, ARCHIVE_GRADES_SQL, "DELETE FROM grades WHERE id IN (:ids)",
+                "grades_moved", periodId, batchSize);
+    }
+
+    /**
+     * Mueve un lote de sesiones con todas sus asistencias
+     *
+     * @return [sesiones movidas, asistencias movidas]
+     */
+    public int[] archiveSessionBatch(Long periodId, int batchSize) {
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_SESSION_IDS_SQL, Long.class, periodId, batchSize);
+        if (ids.isEmpty()) {
+            return new int[]{0, 0};
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids).addValue("periodId", periodId);
+        int attendance = namedJdbcTemplate.update(ARCHIVE_ATTENDANCE_SQL, params);
+        namedJdbcTemplate.update(ARCHIVE_SESSIONS_SQL, params);
+        namedJdbcTemplate.update("DELETE FROM attendance WHERE class_session_id IN (:ids)", params);
+        namedJdbcTemplate.update("DELETE FROM class_sessions WHERE id IN (:ids)", params);
+        jdbcTemplate.update("UPDATE period_archives SET sessions_moved = sessions_moved + ?, " +
+                "attendance_moved = attendance_moved + ? WHERE academic_period_id = ?", ids.size(), attendance, periodId);
+        return new int[]{ids.size(), attendance};
+    }
+
+    /**
+     * @param counterColumn contador de period_archives que se incrementa con las filas movidas
+     */
+    private int moveBatch(String nextIdsSql, String archiveSql, String deleteSql, String counterColumn,
+                          Long periodId, int batchSize) {
+        List<Long> ids = jdbcTemplate.queryForList(nextIdsSql, Long.class, periodId, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids).addValue("periodId", periodId);
+        namedJdbcTemplate.update(archiveSql, params);
+        namedJdbcTemplate.update(deleteSql, params);
+        jdbcTemplate.update("UPDATE period_archives SET " + counterColumn + " = " + counterColumn + " + ? " +
+                "WHERE academic_period_id = ?", ids.size(), periodId);
+        return ids.size();
+    }
+
+    // ==================== ESTADO DE LOS ARCHIVOS ====================
+
+    public void markRunning(Long periodId) {
+        jdbcTemplate.update(
+                "INSERT INTO period_archives (academic_period_id, status, started_at) VALUES (?, 'RUNNING', NOW()) " +
+                "ON DUPLICATE KEY UPDATE status = 'RUNNING', started_at = NOW(), finished_at = NULL, last_error = NULL",
+                periodId);
+    }
+
+    public void markFinished(Long periodId, String status, String error) {
+        jdbcTemplate.update(
+                "UPDATE period_archives SET status = ?, finished_at = NOW(), last_error = ? WHERE academic_period_id = ?",
+                status, error, periodId);
+    }
+
+    /**
+     * @return [periodId, status, gradesMoved, attendanceMoved, sessionsMoved, startedAt, finishedAt, lastError]
+     */
+    public List<Object[]> findByPeriodId(Long periodId) {
+        return jdbcTemplate.query(
+                "SELECT academic_period_id, status, grades_moved, attendance_moved, sessions_moved, started_at, " +
+                "finished_at, last_error FROM period_archives WHERE academic_period_id = ?",
+                (rs, i) -> {
+                    Timestamp finishedAt = rs.getTimestamp(7);
+                    return new Object[]{rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getInt(4), rs.getInt(5),
+                            rs.getTimestamp(6).toLocalDateTime(),
+                            finishedAt != null ? finishedAt.toLocalDateTime() : null, rs.getString(8)};
+                },
+                periodId);
+    }
+
+    public long countArchivedPeriods() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM period_archives", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Períodos inactivos terminados antes de la fecha dada que aún no terminaron de archivarse
+     */
+    public List<Long> findClosedPeriodsToArchive(LocalDate endedBefore) {
+        return jdbcTemplate.queryForList(
+                "SELECT p.id FROM academic_periods p " +
+                "LEFT JOIN period_archives pa ON pa.academic_period_id = p.id " +
+                "WHERE p.is_active = FALSE AND p.end_date < ? " +
+                "AND (pa.status IS NULL OR pa.status <> 'COMPLETED') ORDER BY p.end_date",
+                Long.class, Date.valueOf(endedBefore));
+    }
+}
@@ -0,0 +1,225 @@
+package com.cesde.studentinfo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lecturas y escrituras JDBC batch del cierre de período, por bloques de inscripciones a nivel
+ */
+@Repository
+@RequiredArgsConstructor
+public class PeriodCloseOutRepository {
+
+    // Misma fórmula que GradeBatchRepository: promedio ponderado (peso del período × peso del componente)
+    private static final String SUBJECT_ROWS_SQL =
+            "SELECT se.id, se.level_enrollment_id, se.status, se.final_grade, " +
+            "ROUND(SUM(g.grade_value * gp.weight_percentage * gc.weight_percentage) / " +
+            "NULLIF(SUM(gp.weight_percentage * gc.weight_percentage), 0), 2) " +
+            "FROM subject_enrollments se " +
+            "LEFT JOIN grades g ON g.subject_enrollment_id = se.id " +
+            "LEFT JOIN grade_periods gp ON gp.id = g.grade_period_id " +
+            "LEFT JOIN grade_components gc ON gc.id = g.grade_component_id " +
+            "WHERE se.level_enrollment_id IN (:ids) " +
+            "GROUP BY se.id, se.level_enrollment_id, se.status, se.final_grade";
+
+    private static final String LEVEL_ROWS_SQL =
+            "SELECT le.id, le.status, ce.id, ce.enrollment_status, l.level_number, c.total_levels " +
+            "FROM level_enrollments le " +
+            "JOIN levels l ON l.id = le.level_id " +
+            "JOIN course_enrollments ce ON ce.id = le.course_enrollment_id " +
+            "JOIN courses c ON c.id = ce.course_id " +
+            "WHERE le.id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Cursos con inscripciones a nivel en el período (una partición del cierre por curso)
+     */
+    public List<Long> findCourseIdsWithLevelEnrollments(Long periodId) {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT ce.course_id FROM level_enrollments le " +
+                "JOIN course_enrollments ce ON ce.id = le.course_enrollment_id " +
+                "WHERE le.academic_period_id = ? ORDER BY ce.course_id",
+                Long.class, periodId);
+    }
+
+    /**
+     * Siguiente bloque de inscripciones a nivel del período y curso después del checkpoint
+     */
+    public List<Long> findNextLevelEnrollmentIds(Long periodId, Long courseId, long afterId, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT le.id FROM level_enrollments le " +
+                "JOIN course_enrollments ce ON ce.id = le.course_enrollment_id " +
+                "WHERE le.academic_period_id = ? AND ce.course_id = ? AND le.id > ? " +
+                "ORDER BY le.id LIMIT ?",
+                Long.class, periodId, courseId, afterId, limit);
+    }
+
+    /**
+     * @return [subjectEnrollmentId, levelEnrollmentId, status, finalGrade, weightedAverage]
+     */
+    public List<Object[]> findSubjectRows(Collection<Long> levelEnrollmentIds) {
+        return namedJdbcTemplate.query(SUBJECT_ROWS_SQL, new MapSqlParameterSource("ids", levelEnrollmentIds),
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getBigDecimal(4),
+                        rs.getBigDecimal(5)});
+    }
+
+    /**
+     * @return [levelEnrollmentId, status, courseEnrollmentId, courseEnrollmentStatus, levelNumber, totalLevels]
+     */
+    public List<Object[]> findLevelRows(Collection<Long> levelEnrollmentIds) {
+        return namedJdbcTemplate.query(LEVEL_ROWS_SQL, new MapSqlParameterSource("ids", levelEnrollmentIds),
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getString(4),
+                        rs.getInt(5), rs.getInt(6)});
+    }
+
+    /**
+     * @param rows [subjectEnrollmentId, status, finalGrade]
+     */
+    public void batchUpdateSubjectEnrollments(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE subject_enrollments SET status = ?, final_grade = ? WHERE id = ? AND status = 'EN_CURSO'",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setString(1, (String) row[1]);
+                    setDecimal(ps, 2, (BigDecimal) row[2]);
+                    ps.setLong(3, (Long) row[0]);
+                });
+    }
+
+    /**
+     * @param rows [levelEnrollmentId, status, finalAverage]
+     */
+    public void batchUpdateLevelEnrollments(List<Object[]> rows, LocalDate completionDate) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE level_enrollments SET status = ?, final_average = ?, " +
+                "completion_date = COALESCE(completion_date, ?) WHERE id = ? AND status = 'EN_CURSO'",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setString(1, (String) row[1]);
+                    setDecimal(ps, 2, (BigDecimal) row[2]);
+                    ps.setDate(3, Date.valueOf(completionDate));
+                    ps.setLong(4, (Long) row[0]);
+                });
+    }
+
+    /**
+     * Marca como egresadas las inscripciones a curso e inserta su fila de historial
+     */
+    public void batchGraduate(List<Long> courseEnrollmentIds, LocalDate statusDate, String reason, String createdBy) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE course_enrollments SET enrollment_status = 'EGRESADO', " +
+                "completion_date = COALESCE(completion_date, ?) WHERE id = ? AND enrollment_status = 'ACTIVO'",
+                courseEnrollmentIds, courseEnrollmentIds.size(), (ps, id) -> {
+                    ps.setDate(1, Date.valueOf(statusDate));
+                    ps.setLong(2, id);
+                });
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO student_status_history (course_enrollment_id, status, status_date, reason, created_by) " +
+                "VALUES (?, 'EGRESADO', ?, ?, ?)",
+                courseEnrollmentIds, courseEnrollmentIds.size(), (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setDate(2, Date.valueOf(statusDate));
+                    ps.setString(3, reason);
+                    ps.setString(4, createdBy);
+                });
+    }
+
+    private static void setDecimal(PreparedStatement ps, int index, BigDecimal value) throws SQLException {
+        if (value != null) {
+            ps.setBigDecimal(index, value);
+        } else {
+            ps.setNull(index, Types.DECIMAL);
+        }
+    }
+
+    // ==================== CHECKPOINTS ====================
+
+    /**
+     * Crea la partición si no existe y la deja en RUNNING conservando su checkpoint
+     */
+    public void startPartition(Long periodId, Long courseId) {
+        jdbcTemplate.update(
+                "INSERT INTO period_closeouts (academic_period_id, course_id, status, started_at) " +
+                "VALUES (?, ?, 'RUNNING', NOW()) " +
+                "ON DUPLICATE KEY UPDATE status = IF(status = 'COMPLETED', 'COMPLETED', 'RUNNING'), " +
+                "finished_at = IF(status = 'COMPLETED', finished_at, NULL), last_error = NULL",
+                periodId, courseId);
+    }
+
+    /**
+     * @return [courseId, status, lastLevelEnrollmentId, levelsClosed, subjectsClosed, graduated, startedAt, finishedAt, lastError]
+     */
+    public List<Object[]> findPartitions(Long periodId) {
+        return jdbcTemplate.query(
+                "SELECT course_id, status, last_level_enrollment_id, level_enrollments_closed, " +
+                "subject_enrollments_closed, graduated, started_at, finished_at, last_error " +
+                "FROM period_closeouts WHERE academic_period_id = ? ORDER BY course_id",
+                (rs, i) -> {
+                    Timestamp finishedAt = rs.getTimestamp(8);
+                    return new Object[]{rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getInt(4), rs.getInt(5),
+                            rs.getInt(6), rs.getTimestamp(7).toLocalDateTime(),
+                            finishedAt != null ? finishedAt.toLocalDateTime() : null, rs.getString(9)};
+                },
+                periodId);
+    }
+
+    /**
+     * Avanza el checkpoint; debe ir en la transacción del bloque
+     */
+    public void advanceCheckpoint(Long periodId, Long courseId, long lastLevelEnrollmentId,
+                                  int levelsClosed, int subjectsClosed, int graduated) {
+        jdbcTemplate.update(
+                "UPDATE period_closeouts SET last_level_enrollment_id = ?, " +
+                "level_enrollments_closed = level_enrollments_closed + ?, " +
+                "subject_enrollments_closed = subject_enrollments_closed + ?, graduated = graduated + ? " +
+                "WHERE academic_period_id = ? AND course_id = ?",
+                lastLevelEnrollmentId, levelsClosed, subjectsClosed, graduated, periodId, courseId);
+    }
+
+    public void finishPartition(Long periodId, Long courseId, String status, String error) {
+        jdbcTemplate.update(
+                "UPDATE period_closeouts SET status = ?, finished_at = NOW(), last_error = ? " +
+                "WHERE academic_period_id = ? AND course_id = ?",
+                status, error, periodId, courseId);
+    }
+
+    /**
+     * Marca (o desmarca) que todas las particiones terminaron y falta desactivar el período
+     */
+    public void setDeactivationPending(Long periodId, boolean pending) {
+        jdbcTemplate.update("UPDATE period_closeouts SET deactivation_pending = ? WHERE academic_period_id = ?",
+                pending, periodId);
+    }
+
+    /**
+     * Períodos no archivados con particiones a medias o con la desactivación pendiente (caída del proceso)
+     */
+    public List<Long> findInterruptedPeriodIds() {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT pc.academic_period_id FROM period_closeouts pc " +
+                "WHERE (pc.status = 'RUNNING' OR pc.deactivation_pending = TRUE) " +
+                "AND NOT EXISTS (SELECT 1 FROM period_archives pa WHERE pa.academic_period_id = pc.academic_period_id)",
+                Long.class);
+    }
+
+    /**
+     * Indica si el período tiene un archivo iniciado: sus notas ya no están (o no todas) en grades
+     */
+    public boolean isArchived(Long periodId) {
+        return !jdbcTemplate.queryForList(
+                "SELECT 1 FROM period_archives WHERE academic_period_id = ? LIMIT 1", periodId).isEmpty();
+    }
+}
@@ -0,0 +1,132 @@
+package com.cesde.studentinfo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lecturas y escrituras JDBC batch de la promoción de nivel
+ */
+@Repository
+@RequiredArgsConstructor
+public class PromotionBatchRepository {
+
+    private static final String SOURCE_ROWS_SQL =
+            "SELECT le.id, le.course_enrollment_id, le.level_id, le.group_id, le.status, ce.enrollment_status " +
+            "FROM level_enrollments le " +
+            "JOIN course_enrollments ce ON ce.id = le.course_enrollment_id " +
+            "WHERE le.academic_period_id = ? AND ce.course_id = ? ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Inscripciones a nivel de un curso en el período de origen, opcionalmente de un solo grupo
+     *
+     * @return [levelEnrollmentId, courseEnrollmentId, levelId, groupId, status, courseEnrollmentStatus]
+     */
+    public List<Object[]> findSourceRows(Long periodId, Long courseId, Long groupId) {
+        String sql = SOURCE_ROWS_SQL + (groupId != null ? "AND le.group_id = ? " : "") + "ORDER BY le.id";
+        Object[] args = groupId != null ? new Object[]{periodId, courseId, groupId} : new Object[]{periodId, courseId};
+        return jdbcTemplate.query(sql,
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getObject(4, Long.class),
+                        rs.getString(5), rs.getString(6)},
+                args);
+    }
+
+    /**
+     * Pares [courseEnrollmentId, levelId] ya inscritos en el período destino
+     */
+    public List<Object[]> findExistingEnrollments(Long periodId, Collection<Long> courseEnrollmentIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("periodId", periodId)
+                .addValue("ids", courseEnrollmentIds);
+        return namedJdbcTemplate.query(
+                "SELECT course_enrollment_id, level_id FROM level_enrollments " +
+                "WHERE academic_period_id = :periodId AND course_enrollment_id IN (:ids)",
+                params,
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    /**
+     * Asignaciones activas del período: [subjectAssignmentId, subjectId, groupId]
+     */
+    public List<Object[]> findActiveAssignments(Long periodId) {
+        return jdbcTemplate.query(
+                "SELECT id, subject_id, group_id FROM subject_assignments " +
+                "WHERE academic_period_id = ? AND is_active = TRUE",
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getLong(2), rs.getObject(3, Long.class)},
+                periodId);
+    }
+
+    /**
+     * Inserta las inscripciones al nivel siguiente y devuelve sus ids por inscripción a curso
+     *
+     * @param rows [courseEnrollmentId, levelId]
+     * @return [levelEnrollmentId, courseEnrollmentId]
+     */
+    public List<Object[]> insertLevelEnrollments(List<Object[]> rows, Long periodId, Long groupId,
+                                                 LocalDate enrollmentDate) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO level_enrollments (course_enrollment_id, level_id, academic_period_id, group_id, " +
+                "enrollment_date, status) VALUES (?, ?, ?, ?, ?, 'EN_CURSO')",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setLong(1, (Long) row[0]);
+                    ps.setLong(2, (Long) row[1]);
+                    ps.setLong(3, periodId);
+                    if (groupId != null) {
+                        ps.setLong(4, groupId);
+                    } else {
+                        ps.setNull(4, Types.BIGINT);
+                    }
+                    ps.setDate(5, Date.valueOf(enrollmentDate));
+                });
+        // Los ids se leen por la clave única (inscripción a curso, nivel, período)
+        MapSqlParameterSource params = new MapSqlParameterSource("periodId", periodId)
+                .addValue("pairs", rows);
+        return namedJdbcTemplate.query(
+                "SELECT id, course_enrollment_id FROM level_enrollments " +
+                "WHERE academic_period_id = :periodId AND (course_enrollment_id, level_id) IN (:pairs)",
+                params,
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    /**
+     * @param rows [levelEnrollmentId, subjectId, subjectAssignmentId]
+     */
+    public void insertSubjectEnrollments(List<Object[]> rows, LocalDate enrollmentDate) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO subject_enrollments (level_enrollment_id, subject_id, subject_assignment_id, " +
+                "enrollment_date, status) VALUES (?, ?, ?, ?, 'EN_CURSO')",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setLong(1, (Long) row[0]);
+                    ps.setLong(2, (Long) row[1]);
+                    if (row[2] != null) {
+                        ps.setLong(3, (Long) row[2]);
+                    } else {
+                        ps.setNull(3, Types.BIGINT);
+                    }
+                    ps.setDate(4, Date.valueOf(enrollmentDate));
+                });
+    }
+
+    /**
+     * Inscripciones a nivel de un grupo; con lock bloquea antes la fila del grupo hasta el commit,
+     * así dos promociones al mismo grupo no pasan juntas del cupo
+     */
+    public int countGroupEnrollments(Long groupId, boolean lock) {
+        if (lock) {
+            jdbcTemplate.queryForList("SELECT id FROM course_groups WHERE id = ? FOR UPDATE", Long.class, groupId);
+        }
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM level_enrollments WHERE group_id = ?", Integer.class, groupId);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,93 @@
+package com.cesde.studentinfo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Consultas agregadas para reconciliar los contadores del dashboard
+ * Cada consulta agrupa en la BD y devuelve pocas filas
+ */
+@Repository
+@RequiredArgsConstructor
+public class StatsRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return [total, activos]
+     */
+    public long[] countStudents() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*), COALESCE(SUM(is_active), 0) FROM students",
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    /**
+     * @return [status, count]
+     */
+    public List<Object[]> countAttendanceByStatus() {
+        return jdbcTemplate.query("SELECT status, COUNT(*) FROM attendance GROUP BY status",
+                (rs, i) -> new Object[]{rs.getString(1), rs.getLong(2)});
+    }
+
+    public long countGrades() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM grades", Long.class);
+    }
+
+    /**
+     * @return [status, count]
+     */
+    public List<Object[]> countClassSessionsByStatus() {
+        return jdbcTemplate.query("SELECT status, COUNT(*) FROM class_sessions GROUP BY status",
+                (rs, i) -> new Object[]{rs.getString(1), rs.getLong(2)});
+    }
+
+    /**
+     * @return [total, activos]
+     */
+    public long[] countCourseGroups() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*), COALESCE(SUM(is_active), 0) FROM course_groups",
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    /**
+     * @return [id, name] de los períodos activos
+     */
+    public List<Object[]> findActivePeriods() {
+        return jdbcTemplate.query("SELECT id, name FROM academic_periods WHERE is_active = TRUE ORDER BY start_date DESC",
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2)});
+    }
+
+    /**
+     * @return [courseId, enrollmentStatus, count] de las inscripciones de los períodos activos
+     */
+    public List<Object[]> countActivePeriodEnrollmentsByCourseAndStatus() {
+        return jdbcTemplate.query(
+                "SELECT ce.course_id, ce.enrollment_status, COUNT(*) FROM course_enrollments ce " +
+                "JOIN academic_periods ap ON ap.id = ce.academic_period_id " +
+                "WHERE ap.is_active = TRUE GROUP BY ce.course_id, ce.enrollment_status",
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getLong(3)});
+    }
+
+    /**
+     * @return [id, code, name] de todos los cursos
+     */
+    public List<Object[]> findCourses() {
+        return jdbcTemplate.query("SELECT id, code, name FROM courses",
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3)});
+    }
+
+    /**
+     * @return [roleId, roleName, userCount]
+     */
+    public List<Object[]> countUsersByRole() {
+        return jdbcTemplate.query(
+                "SELECT r.id, r.name, COUNT(ur.user_id) FROM roles r " +
+                "LEFT JOIN user_roles ur ON ur.role_id = r.id GROUP BY r.id, r.name ORDER BY r.name",
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getLong(3)});
+    }
+}
@@ -0,0 +1,47 @@
+package com.cesde.studentinfo.repository;
+
+import com.cesde.studentinfo.model.Student;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.List;
+
+/**
+ * Inserciones masivas de estudiantes vía JDBC batch
+ * Evita el flush entidad por entidad de JPA (IDENTITY deshabilita el batching de Hibernate)
+ */
+@Repository
+@RequiredArgsConstructor
+public class StudentBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO students (identification_type, identification_number, first_name, last_name, " +
+            "email, phone, mobile, address, date_of_birth, enrollment_date, is_active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta un bloque de estudiantes en una sola transacción
+     */
+    @Transactional
+    public int batchInsert(List<Student> students) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, students, students.size(), (ps, s) -> {
+            ps.setString(1, s.getIdentificationType().name());
+            ps.setString(2, s.getIdentificationNumber());
+            ps.setString(3, s.getFirstName());
+            ps.setString(4, s.getLastName());
+            ps.setString(5, s.getEmail());
+            ps.setString(6, s.getPhone());
+            ps.setString(7, s.getMobile());
+            ps.setString(8, s.getAddress());
+            ps.setDate(9, Date.valueOf(s.getDateOfBirth()));
+            ps.setDate(10, Date.valueOf(s.getEnrollmentDate()));
+            ps.setBoolean(11, s.getIsActive());
+        });
+        return students.size();
+    }
+}
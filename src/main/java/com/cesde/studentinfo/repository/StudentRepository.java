@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -52,6 +53,33 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      */
     boolean existsByEmail(String email);
 
+    /**
+     * Estado activo de un estudiante sin cargar la entidad
+     */
+    @Query("SELECT s.isActive FROM Student s WHERE s.id = :id")
+    Optional<Boolean> findIsActiveById(@Param("id") Long id);
+
+    // ==================== BULK IMPORT METHODS ====================
+
+    /**
+     * Devuelve cuáles de los números de identificación dados ya existen (una sola consulta IN)
+     */
+    @Query("SELECT s.identificationNumber FROM Student s WHERE s.identificationNumber IN :numbers")
+    List<String> findExistingIdentificationNumbers(@Param("numbers") Collection<String> numbers);
+
+    /**
+     * Devuelve cuáles de los emails dados ya existen (una sola consulta IN)
+     */
+    @Query("SELECT s.email FROM Student s WHERE s.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Resuelve id y estado de los estudiantes por número de identificación
+     * Cada fila: [identificationNumber, id, isActive]
+     */
+    @Query("SELECT s.identificationNumber, s.id, s.isActive FROM Student s WHERE s.identificationNumber IN :numbers")
+    List<Object[]> findIdsByIdentificationNumbers(@Param("numbers") Collection<String> numbers);
+
     // ==================== PAGINATION METHODS ====================
 
     /**
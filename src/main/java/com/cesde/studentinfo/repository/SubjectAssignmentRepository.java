@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -54,6 +55,14 @@ public interface SubjectAssignmentRepository extends JpaRepository<SubjectAssign
            "WHERE sa.isActive = true")
     List<SubjectAssignment> findByIsActiveTrue();
 
+    @Query("SELECT sa FROM SubjectAssignment sa " +
+           "LEFT JOIN FETCH sa.subject s " +
+           "LEFT JOIN FETCH s.level " +
+           "LEFT JOIN FETCH sa.professor " +
+           "LEFT JOIN FETCH sa.academicPeriod " +
+           "WHERE sa.id IN :ids")
+    List<SubjectAssignment> findAllByIdIn(@Param("ids") Collection<Long> ids);
+
     boolean existsBySubjectIdAndProfessorIdAndAcademicPeriodId(Long subjectId, Long professorId, Long academicPeriodId);
 
     @Query("SELECT sa FROM SubjectAssignment sa " +
@@ -94,4 +103,38 @@ public interface SubjectAssignmentRepository extends JpaRepository<SubjectAssign
            "LEFT JOIN FETCH sa.academicPeriod " +
            "WHERE sa.academicPeriod.id = :periodId")
     Page<SubjectAssignment> findByAcademicPeriodIdWithDetails(@Param("periodId") Long periodId, Pageable pageable);
+
+    /**
+     * Datos de horario de las asignaciones activas de los períodos dados
+     * @return [id, subjectCode, subjectName, professorId, professorFirstName, professorLastName, classroom, academicPeriodId]
+     */
+    @Query("SELECT sa.id, s.code, s.name, p.id, p.firstName, p.lastName, sa.classroom, sa.academicPeriod.id " +
+           "FROM SubjectAssignment sa JOIN sa.subject s JOIN sa.professor p " +
+           "WHERE sa.academicPeriod.id IN :periodIds AND sa.isActive = true")
+    List<Object[]> findTimetableInfoByPeriodIds(@Param("periodIds") Collection<Long> periodIds);
+
+    /**
+     * Datos de horario de una asignación activa
+     * @return [id, subjectCode, subjectName, professorId, professorFirstName, professorLastName, classroom, academicPeriodId]
+     */
+    @Query("SELECT sa.id, s.code, s.name, p.id, p.firstName, p.lastName, sa.classroom, sa.academicPeriod.id " +
+           "FROM SubjectAssignment sa JOIN sa.subject s JOIN sa.professor p " +
+           "WHERE sa.id = :id AND sa.isActive = true")
+    List<Object[]> findTimetableInfoById(@Param("id") Long id);
+
+    /**
+     * Asignaciones de un lote de profesores (carga por lotes de GraphQL)
+     */
+    @Query("SELECT sa FROM SubjectAssignment sa " +
+           "WHERE sa.professor.id IN :professorIds")
+    List<SubjectAssignment> findByProfessorIdIn(@Param("professorIds") Collection<Long> professorIds);
+
+    /**
+     * Bloquea hasta el commit las asignaciones del profesor y las del aula (normalizada)
+     * Serializa las altas y cambios de sesiones que podrían chocar entre sí
+     */
+    @Query(value = "SELECT id FROM subject_assignments " +
+                   "WHERE professor_id = :professorId OR UPPER(TRIM(classroom)) = :classroom ORDER BY id FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockForScheduling(@Param("professorId") Long professorId, @Param("classroom") String classroom);
 }
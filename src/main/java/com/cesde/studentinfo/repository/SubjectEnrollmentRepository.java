@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 /**
@@ -55,4 +56,22 @@ public interface SubjectEnrollmentRepository extends JpaRepository<SubjectEnroll
            "WHERE se.status = :status " +
            "ORDER BY se.enrollmentDate DESC")
     List<SubjectEnrollment> findByStatus(@Param("status") SubjectEnrollment.SubjectStatus status);
+
+    // Filas del cuadro de notas de un grupo: [id, studentId, firstName, lastName, subjectCode, status]
+    @Query("SELECT se.id, s.id, s.firstName, s.lastName, sub.code, se.status FROM SubjectEnrollment se " +
+           "JOIN se.levelEnrollment le " +
+           "JOIN le.courseEnrollment ce " +
+           "JOIN ce.student s " +
+           "JOIN se.subject sub " +
+           "WHERE le.group.id = :groupId " +
+           "ORDER BY s.lastName, s.firstName, sub.code")
+    List<Object[]> findGradebookRowsByCourseGroupId(@Param("groupId") Long groupId);
+
+    /**
+     * Materias de un lote de inscripciones a nivel (carga por lotes de GraphQL)
+     */
+    @Query("SELECT se FROM SubjectEnrollment se " +
+           "WHERE se.levelEnrollment.id IN :levelEnrollmentIds " +
+           "ORDER BY se.enrollmentDate DESC")
+    List<SubjectEnrollment> findByLevelEnrollmentIdIn(@Param("levelEnrollmentIds") Collection<Long> levelEnrollmentIds);
 }
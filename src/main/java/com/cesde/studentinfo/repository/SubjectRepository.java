@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -59,6 +60,12 @@ public interface SubjectRepository extends JpaRepository<Subject, Long> {
     @Query("SELECT s FROM Subject s JOIN FETCH s.level WHERE s.isActive = true ORDER BY s.name")
     List<Subject> findAllActive();
 
+    /**
+     * Busca materias por lote de ids (multi-get) con su nivel
+     */
+    @Query("SELECT s FROM Subject s JOIN FETCH s.level WHERE s.id IN :ids")
+    List<Subject> findAllByIdIn(@Param("ids") Collection<Long> ids);
+
     // ==================== PAGINATION METHODS ====================
 
     @Query(value = "SELECT s FROM Subject s JOIN FETCH s.level",
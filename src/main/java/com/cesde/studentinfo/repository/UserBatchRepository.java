@@ -0,0 +1,40 @@
+package com.cesde.studentinfo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actualizaciones masivas sobre la tabla users vía JDBC batch
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserBatchRepository {
+
+    // No retrocede el timestamp si otra instancia ya escribió uno más reciente
+    private static final String UPDATE_LAST_LOGIN_SQL =
+            "UPDATE users SET last_login_at = ? WHERE id = ? AND (last_login_at IS NULL OR last_login_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Actualiza last_login_at de varios usuarios en un solo batch
+     */
+    @Transactional
+    public void batchUpdateLastLogin(Map<Long, LocalDateTime> lastLogins) {
+        List<Map.Entry<Long, LocalDateTime>> entries = new ArrayList<>(lastLogins.entrySet());
+        jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_SQL, entries, entries.size(), (ps, e) -> {
+            Timestamp at = Timestamp.valueOf(e.getValue());
+            ps.setTimestamp(1, at);
+            ps.setLong(2, e.getKey());
+            ps.setTimestamp(3, at);
+        });
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Optional;
 public class AcademicPeriodService {
 
     private final AcademicPeriodRepository academicPeriodRepository;
+    private final StatsService statsService;
 
     @Transactional(readOnly = true)
     public List<AcademicPeriod> getAllPeriods() {
@@ -33,6 +34,7 @@ public class AcademicPeriodService {
     }
 
     @Transactional(readOnly = true)
+    @Coalesced(ttlMillis = 2000)
     public List<AcademicPeriod> getActivePeriods() {
         log.info("Fetching active academic periods");
         return academicPeriodRepository.findAllActive();
@@ -75,6 +77,10 @@ public class AcademicPeriodService {
         }
 
         AcademicPeriod saved = academicPeriodRepository.save(period);
+        if (Boolean.TRUE.equals(saved.getIsActive())) {
+            // Cambia el conjunto de períodos activos de las estadísticas
+            statsService.reconcileAfterCommit();
+        }
         log.info("Academic period created successfully with id: {}", saved.getId());
         return saved;
     }
@@ -94,8 +100,9 @@ public class AcademicPeriodService {
         if (period.getEndDate() != null) {
             existing.setEndDate(period.getEndDate());
         }
-        if (period.getIsActive() != null) {
+        if (period.getIsActive() != null && !period.getIsActive().equals(existing.getIsActive())) {
             existing.setIsActive(period.getIsActive());
+            statsService.reconcileAfterCommit();
         }
 
         // Validar fechas
@@ -112,6 +119,9 @@ public class AcademicPeriodService {
                 .orElseThrow(() -> new ResourceNotFoundException("AcademicPeriod", id));
 
         academicPeriodRepository.deleteById(id);
+        if (Boolean.TRUE.equals(period.getIsActive())) {
+            statsService.reconcileAfterCommit();
+        }
         log.info("Academic period deleted successfully");
     }
 
@@ -0,0 +1,99 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.exception.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Ruta de lectura asíncrona para los GET de mayor concurrencia
+ *
+ * El controller devuelve un CompletableFuture: el hilo del servlet se libera mientras la consulta
+ * espera turno en un pool pequeño y acotado. Así el número de conexiones JDBC en uso por lecturas
+ * queda limitado por read.async.pool-size sin importar cuántos clientes haya conectados, y el
+ * exceso espera en una cola en memoria (503 con Retry-After si se llena).
+ */
+@Service
+@Slf4j
+public class AsyncReadService {
+
+    @Value("${read.async.pool-size:8}")
+    private int poolSize;
+
+    @Value("${read.async.queue-capacity:5000}")
+    private int queueCapacity;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "read-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Ejecuta la lectura en el pool; las excepciones del service llegan al GlobalExceptionHandler
+     * El MDC del request (requestId, user) se copia al hilo de lectura para los logs
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> read) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Supplier<T> task = () -> {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                return read.get();
+            } finally {
+                MDC.clear();
+            }
+        };
+        try {
+            return CompletableFuture.supplyAsync(task, executor)
+                    .whenComplete((result, error) -> completed.incrementAndGet());
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("Async read queue full ({} pending), rejecting request", executor.getQueue().size());
+            throw new ServiceUnavailableException("Server is busy, try again later", 1, e);
+        }
+    }
+
+    /**
+     * Métricas del pool de lectura para monitoreo
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", poolSize);
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("completed", completed.get());
+        stats.put("rejected", rejected.get());
+        return stats;
+    }
+}
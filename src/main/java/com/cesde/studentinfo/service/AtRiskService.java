@@ -0,0 +1,343 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.dto.AtRiskAlertDTO;
+import com.cesde.studentinfo.repository.AtRiskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service de alertas tempranas: inscripciones a materias en riesgo de reprobar
+ *
+ * Un job periódico toma las asistencias y notas modificadas desde la última marca de agua
+ * (update_date), recalcula por inscripción la tasa de inasistencia injustificada y el promedio
+ * ponderado de las notas registradas, y lo compara con la nota mínima aprobatoria (3.0).
+ * Las inscripciones se procesan en paralelo agrupadas por grupo (course_groups).
+ *
+ * La memoria es acotada: solo se guardan las inscripciones en riesgo, con un máximo configurable.
+ * Un barrido completo periódico descarta alertas de inscripciones retiradas o de períodos cerrados.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AtRiskService {
+
+    public static final double PASS_MARK = 3.0;
+    public static final String REASON_ABSENCES = "INASISTENCIA";
+    public static final String REASON_LOW_AVERAGE = "PROMEDIO_BAJO";
+
+    private static final int QUERY_CHUNK_SIZE = 500;
+    private static final int MAX_PENDING = 10_000;
+
+    private final AtRiskRepository atRiskRepository;
+
+    @Value("${alerts.at-risk.absence-rate-threshold:0.15}")
+    private double absenceRateThreshold;
+
+    @Value("${alerts.at-risk.min-attendance-records:3}")
+    private int minAttendanceRecords;
+
+    @Value("${alerts.at-risk.max-alerts:20000}")
+    private int maxAlerts;
+
+    @Value("${alerts.at-risk.parallelism:4}")
+    private int parallelism;
+
+    @Value("${alerts.at-risk.full-scan-interval-ms:3600000}")
+    private long fullScanIntervalMillis;
+
+    @Value("${alerts.at-risk.watermark-overlap-seconds:60}")
+    private long watermarkOverlapSeconds;
+
+    private volatile ConcurrentHashMap<Long, AtRiskAlertDTO> alerts = new ConcurrentHashMap<>();
+    private final Set<Long> pendingEnrollments = ConcurrentHashMap.newKeySet();
+    private final AtomicLong droppedAlerts = new AtomicLong();
+    private volatile LocalDateTime watermark;
+    private volatile long lastFullScanMillis;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, "at-risk-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Could not evaluate at-risk enrollments at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Procesa los cambios desde la marca de agua; cada cierto tiempo hace un barrido completo
+     */
+    @Scheduled(fixedDelayString = "${alerts.at-risk.interval-ms:60000}",
+               initialDelayString = "${alerts.at-risk.interval-ms:60000}")
+    public synchronized void refresh() {
+        // La marca se toma antes de leer: lo modificado durante el proceso entra en la siguiente pasada
+        LocalDateTime now = atRiskRepository.currentTimestamp();
+        if (watermark == null || System.currentTimeMillis() - lastFullScanMillis >= fullScanIntervalMillis) {
+            fullScan();
+        } else {
+            incrementalScan(watermark.minusSeconds(watermarkOverlapSeconds));
+        }
+        watermark = now;
+    }
+
+    /**
+     * Alertas vigentes, opcionalmente filtradas por período académico, de mayor a menor riesgo
+     */
+    public List<AtRiskAlertDTO> getAlerts(Long academicPeriodId) {
+        List<AtRiskAlertDTO> result = new ArrayList<>();
+        for (AtRiskAlertDTO alert : alerts.values()) {
+            if (academicPeriodId == null || academicPeriodId.equals(alert.getAcademicPeriodId())) {
+                result.add(alert);
+            }
+        }
+        result.sort(Comparator.comparing(AtRiskAlertDTO::getRiskScore).reversed()
+                .thenComparing(AtRiskAlertDTO::getSubjectEnrollmentId));
+        return result;
+    }
+
+    /**
+     * Marca una inscripción para reevaluar en la siguiente pasada
+     * (borrados de asistencias o notas, que no dejan rastro en update_date)
+     */
+    public void enrollmentChanged(Long subjectEnrollmentId) {
+        if (subjectEnrollmentId == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            if (pendingEnrollments.size() < MAX_PENDING) {
+                pendingEnrollments.add(subjectEnrollmentId);
+            } else {
+                // Demasiados cambios sueltos: se fuerza un barrido completo
+                lastFullScanMillis = 0;
+            }
+        });
+    }
+
+    /**
+     * Métricas del job para monitoreo
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("alerts", alerts.size());
+        stats.put("pendingEnrollments", pendingEnrollments.size());
+        stats.put("droppedAlerts", droppedAlerts.get());
+        stats.put("watermark", watermark);
+        return stats;
+    }
+
+    private void fullScan() {
+        long start = System.currentTimeMillis();
+        pendingEnrollments.clear();
+        List<Long> groupIds = atRiskRepository.findActiveGroupIds();
+
+        ConcurrentHashMap<Long, AtRiskAlertDTO> fresh = new ConcurrentHashMap<>();
+        LocalDateTime evaluatedAt = LocalDateTime.now();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(groupIds.size());
+        for (Long groupId : groupIds) {
+            tasks.add(CompletableFuture.runAsync(() ->
+                    evaluate(atRiskRepository.findActiveEnrollmentsByGroup(groupId), evaluatedAt)
+                            .forEach(alert -> put(fresh, alert)), executor));
+        }
+        await(tasks);
+
+        alerts = fresh;
+        lastFullScanMillis = System.currentTimeMillis();
+        log.info("At-risk full scan: {} groups, {} alerts in {} ms",
+                groupIds.size(), fresh.size(), System.currentTimeMillis() - start);
+    }
+
+    private void incrementalScan(LocalDateTime since) {
+        long start = System.currentTimeMillis();
+        List<Object[]> changed = new ArrayList<>(atRiskRepository.findEnrollmentsChangedSince(since));
+
+        Set<Long> pending = new HashSet<>(pendingEnrollments);
+        pendingEnrollments.removeAll(pending);
+        try {
+            reevaluate(changed, pending, start);
+        } catch (RuntimeException e) {
+            // Se reintentan en la siguiente pasada
+            pendingEnrollments.addAll(pending);
+            throw e;
+        }
+    }
+
+    private void reevaluate(List<Object[]> changed, Set<Long> pending, long start) {
+        changed.forEach(row -> pending.remove((Long) row[0]));
+        if (!pending.isEmpty()) {
+            List<Long> ids = new ArrayList<>(pending);
+            for (int i = 0; i < ids.size(); i += QUERY_CHUNK_SIZE) {
+                changed.addAll(atRiskRepository.findActiveEnrollmentsByIds(
+                        ids.subList(i, Math.min(i + QUERY_CHUNK_SIZE, ids.size()))));
+            }
+            // Las que ya no están activas (retiradas, período cerrado) dejan de alertar
+            changed.forEach(row -> pending.remove((Long) row[0]));
+            pending.forEach(alerts::remove);
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<Object[]>> byGroup = new HashMap<>();
+        changed.forEach(row -> byGroup.computeIfAbsent((Long) row[1], k -> new ArrayList<>()).add(row));
+
+        ConcurrentHashMap<Long, AtRiskAlertDTO> current = alerts;
+        LocalDateTime evaluatedAt = LocalDateTime.now();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(byGroup.size());
+        for (List<Object[]> rows : byGroup.values()) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                Map<Long, AtRiskAlertDTO> evaluated = new HashMap<>();
+                evaluate(rows, evaluatedAt).forEach(alert -> evaluated.put(alert.getSubjectEnrollmentId(), alert));
+                for (Object[] row : rows) {
+                    AtRiskAlertDTO alert = evaluated.get((Long) row[0]);
+                    if (alert != null) {
+                        put(current, alert);
+                    } else {
+                        current.remove((Long) row[0]);
+                    }
+                }
+            }, executor));
+        }
+        await(tasks);
+        log.info("At-risk incremental scan: {} enrollments in {} groups re-evaluated in {} ms",
+                changed.size(), byGroup.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Evalúa un lote de inscripciones de un mismo grupo
+     *
+     * @param rows [enrollmentId, groupId, academicPeriodId, studentId, studentName, subjectId, subjectName]
+     * @return alertas de las inscripciones en riesgo
+     */
+    private List<AtRiskAlertDTO> evaluate(List<Object[]> rows, LocalDateTime evaluatedAt) {
+        List<AtRiskAlertDTO> result = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += QUERY_CHUNK_SIZE) {
+            List<Object[]> chunk = rows.subList(from, Math.min(from + QUERY_CHUNK_SIZE, rows.size()));
+            List<Long> ids = chunk.stream().map(row -> (Long) row[0]).toList();
+
+            Map<Long, long[]> attendance = new HashMap<>();
+            atRiskRepository.countAttendanceByEnrollment(ids).forEach(row -> attendance.put(row[0], row));
+            Map<Long, double[]> grades = new HashMap<>();
+            atRiskRepository.sumWeightedGradesByEnrollment(ids)
+                    .forEach(row -> grades.put((Long) row[0], new double[]{(Double) row[1], (Double) row[2]}));
+
+            for (Object[] row : chunk) {
+                AtRiskAlertDTO alert = score(row, attendance.get((Long) row[0]), grades.get((Long) row[0]), evaluatedAt);
+                if (alert != null) {
+                    result.add(alert);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Puntaje de riesgo entre 0 y 1: el mayor entre la inasistencia relativa al umbral
+     * (1 al doble del umbral) y la distancia del promedio a la nota aprobatoria
+     */
+    private AtRiskAlertDTO score(Object[] row, long[] attendance, double[] grades, LocalDateTime evaluatedAt) {
+        long total = attendance != null ? attendance[1] : 0;
+        long unexcused = attendance != null ? attendance[2] : 0;
+        double absenceRate = total > 0 ? (double) unexcused / total : 0;
+        Double average = grades != null && grades[1] > 0 ? grades[0] / grades[1] : null;
+
+        List<String> reasons = new ArrayList<>(2);
+        double risk = 0;
+        if (total >= minAttendanceRecords && absenceRate >= absenceRateThreshold) {
+            reasons.add(REASON_ABSENCES);
+            risk = Math.min(1, absenceRate / (2 * absenceRateThreshold));
+        }
+        if (average != null && average < PASS_MARK) {
+            reasons.add(REASON_LOW_AVERAGE);
+            risk = Math.max(risk, (PASS_MARK - average) / PASS_MARK);
+        }
+        if (reasons.isEmpty()) {
+            return null;
+        }
+
+        return AtRiskAlertDTO.builder()
+                .subjectEnrollmentId((Long) row[0])
+                .courseGroupId((Long) row[1])
+                .academicPeriodId((Long) row[2])
+                .studentId((Long) row[3])
+                .studentName((String) row[4])
+                .subjectId((Long) row[5])
+                .subjectName((String) row[6])
+                .totalAttendance(total)
+                .unexcusedAbsences(unexcused)
+                .absenceRate(round(absenceRate, 4))
+                .weightedAverage(average != null ? round(average, 2) : null)
+                // Los pesos se guardan en porcentaje: período (%) × componente (%) / 100 = % del total
+                .gradedWeightPercentage(grades != null ? round(grades[1] / 100, 2) : 0.0)
+                .riskScore(round(risk, 4))
+                .reasons(reasons)
+                .evaluatedAt(evaluatedAt)
+                .build();
+    }
+
+    private void put(ConcurrentHashMap<Long, AtRiskAlertDTO> target, AtRiskAlertDTO alert) {
+        if (target.size() >= maxAlerts && !target.containsKey(alert.getSubjectEnrollmentId())) {
+            if (droppedAlerts.incrementAndGet() % 1000 == 1) {
+                log.warn("At-risk alerts limit reached ({}), {} alerts dropped so far", maxAlerts, droppedAlerts.get());
+            }
+            return;
+        }
+        target.put(alert.getSubjectEnrollmentId(), alert);
+    }
+
+    private static void await(List<CompletableFuture<Void>> tasks) {
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = Objects.requireNonNullElse(e.getCause(), e);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static double round(double value, int decimals) {
+        double factor = Math.pow(10, decimals);
+        return Math.round(value * factor) / factor;
+    }
+}
@@ -0,0 +1,227 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.dto.AttendanceResponseDTO;
+import com.cesde.studentinfo.exception.ResourceNotFoundException;
+import com.cesde.studentinfo.exception.ServiceUnavailableException;
+import com.cesde.studentinfo.model.Attendance;
+import com.cesde.studentinfo.repository.AttendanceRepository;
+import com.cesde.studentinfo.repository.ClassSessionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service del tablero de asistencia en vivo por sesión de clase (SSE)
+ *
+ * Los suscriptores se registran por sesión en un mapa concurrente de listas copy-on-write, sin
+ * bloqueos en la lectura. Al conectar se envía un snapshot de la sesión; después, cada alta,
+ * cambio o baja de asistencia se envía como delta cuando la transacción confirma. Los envíos
+ * salen de un único hilo de fan-out, así que las conexiones no ocupan hilos mientras esperan;
+ * el estado de cada visor (snapshot enviado, deltas en espera) solo lo toca ese hilo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceLiveService {
+
+    public static final String SNAPSHOT_EVENT = "snapshot";
+    public static final String CHANGED_EVENT = "attendance";
+    public static final String DELETED_EVENT = "attendance-deleted";
+
+    private final AttendanceRepository attendanceRepository;
+    private final ClassSessionRepository classSessionRepository;
+
+    @Value("${attendance.live.max-subscribers:500}")
+    private int maxSubscribers;
+
+    @Value("${attendance.live.timeout-ms:3600000}")
+    private long timeoutMillis;
+
+    private final ConcurrentHashMap<Long, CopyOnWriteArrayList<Viewer>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong pushed = new AtomicLong();
+    private ExecutorService fanOut;
+
+    @PostConstruct
+    public void init() {
+        fanOut = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "attendance-live");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOut.shutdownNow();
+        subscribers.values().forEach(list -> list.forEach(viewer -> viewer.emitter.complete()));
+    }
+
+    /**
+     * Registra un visor de la sesión y le envía el snapshot actual
+     *
+     * El visor se registra antes de leer el snapshot: un cambio confirmado entretanto llega como
+     * delta además de aparecer (o no) en el snapshot. Los deltas se retienen hasta enviar el snapshot
+     * y salen después de él, así un snapshot nunca pisa un cambio más nuevo; el cliente aplica los
+     * deltas por id y version.
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(Long sessionId) {
+        if (!classSessionRepository.existsById(sessionId)) {
+            throw new ResourceNotFoundException("ClassSession", sessionId);
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException("Too many live attendance viewers, try again later", 5);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Viewer viewer = new Viewer(emitter);
+        subscribers.compute(sessionId, (id, list) -> {
+            CopyOnWriteArrayList<Viewer> viewers = list != null ? list : new CopyOnWriteArrayList<>();
+            viewers.add(viewer);
+            return viewers;
+        });
+        Runnable unregister = () -> unregister(sessionId, viewer);
+        emitter.onCompletion(unregister);
+        emitter.onTimeout(unregister);
+        emitter.onError(e -> unregister.run());
+
+        // El visor ya ocupa un cupo: si la lectura falla se libera antes de propagar el error
+        List<AttendanceResponseDTO> snapshot;
+        try {
+            snapshot = attendanceRepository.findByClassSessionId(sessionId).stream()
+                    .map(AttendanceResponseDTO::fromEntity)
+                    .toList();
+        } catch (RuntimeException e) {
+            unregister(sessionId, viewer);
+            throw e;
+        }
+        fanOut.execute(() -> {
+            if (!send(sessionId, viewer, SseEmitter.event().name(SNAPSHOT_EVENT).data(snapshot))) {
+                return;
+            }
+            viewer.snapshotSent = true;
+            for (SseEmitter.SseEventBuilder delta : viewer.pending) {
+                if (!send(sessionId, viewer, delta)) {
+                    break;
+                }
+                pushed.incrementAndGet();
+            }
+            viewer.pending.clear();
+        });
+        log.debug("Live attendance viewer registered for session {} ({} records)", sessionId, snapshot.size());
+        return emitter;
+    }
+
+    /**
+     * Envía el registro a los visores de su sesión cuando la transacción confirme
+     * El DTO se arma dentro de la transacción y solo si la sesión tiene visores
+     */
+    public void attendanceChanged(Attendance attendance) {
+        Long sessionId = attendance.getClassSession().getId();
+        if (!subscribers.containsKey(sessionId)) {
+            return;
+        }
+        AttendanceResponseDTO dto = AttendanceResponseDTO.fromEntity(attendance);
+        TransactionCallbacks.afterCommit(() -> publish(sessionId, CHANGED_EVENT, dto));
+    }
+
+    public void attendanceDeleted(Attendance attendance) {
+        Long sessionId = attendance.getClassSession().getId();
+        if (!subscribers.containsKey(sessionId)) {
+            return;
+        }
+        Map<String, Object> payload = Map.of("id", attendance.getId(),
+                "subjectEnrollmentId", attendance.getSubjectEnrollment().getId());
+        TransactionCallbacks.afterCommit(() -> publish(sessionId, DELETED_EVENT, payload));
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.live.heartbeat-ms:15000}",
+               initialDelayString = "${attendance.live.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach((sessionId, list) -> {
+            if (!list.isEmpty()) {
+                fanOut.execute(() -> list.forEach(viewer ->
+                        send(sessionId, viewer, SseEmitter.event().comment("heartbeat"))));
+            }
+        });
+    }
+
+    /**
+     * Métricas del tablero en vivo para monitoreo
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "sessions", subscribers.size(),
+                "viewers", subscriberCount.get(),
+                "maxViewers", maxSubscribers,
+                "pushed", pushed.get());
+    }
+
+    private void publish(Long sessionId, String eventName, Object data) {
+        CopyOnWriteArrayList<Viewer> list = subscribers.get(sessionId);
+        if (list == null) {
+            return;
+        }
+        fanOut.execute(() -> {
+            for (Viewer viewer : list) {
+                SseEmitter.SseEventBuilder event = SseEmitter.event().name(eventName).data(data);
+                if (!viewer.snapshotSent) {
+                    // Aún no recibe el snapshot: el delta sale justo después de él
+                    viewer.pending.add(event);
+                } else if (send(sessionId, viewer, event)) {
+                    pushed.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    private boolean send(Long sessionId, Viewer viewer, SseEmitter.SseEventBuilder event) {
+        try {
+            viewer.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            unregister(sessionId, viewer);
+            viewer.emitter.completeWithError(new IOException("Live attendance viewer disconnected"));
+            return false;
+        }
+    }
+
+    private void unregister(Long sessionId, Viewer viewer) {
+        subscribers.computeIfPresent(sessionId, (id, list) -> {
+            if (list.remove(viewer)) {
+                subscriberCount.decrementAndGet();
+            }
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private static final class Viewer {
+        private final SseEmitter emitter;
+        // Solo los usa el hilo de fan-out
+        private final List<SseEmitter.SseEventBuilder> pending = new ArrayList<>();
+        private boolean snapshotSent;
+
+        Viewer(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.dto.AttendanceTrendDTO;
+import com.cesde.studentinfo.exception.BusinessException;
+import com.cesde.studentinfo.exception.ConflictException;
+import com.cesde.studentinfo.model.Attendance;
+import com.cesde.studentinfo.repository.AttendanceRollupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service del resumen diario de asistencia (fecha × asignación × conteo por estado)
+ *
+ * AttendanceService aplica cada alta, cambio de estado y borrado como un delta sobre el resumen en
+ * la misma transacción. Un proceso en segundo plano lo reconstruye desde el detalle (tabla caliente
+ * y archivo) por ventanas de rollup.backfill.window-days días, cada una en su propia transacción:
+ * completo al arrancar si el resumen está vacío, a pedido, y cada noche para los últimos
+ * rollup.reconcile-days días (corrige borrados en cascada hechos por fuera de los services; los de
+ * sesiones, inscripciones a materia y asignaciones se descuentan antes de borrar).
+ *
+ * Las tendencias se calculan solo sobre el resumen, así el costo depende del número de días y
+ * asignaciones del rango y no del número de registros de asistencia.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceRollupService {
+
+    public enum GroupBy { DAY, WEEK, SUBJECT, PROFESSOR }
+
+    private final AttendanceRollupRepository attendanceRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${rollup.backfill.window-days:31}")
+    private int windowDays;
+
+    @Value("${rollup.backfill.on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${rollup.reconcile-days:7}")
+    private int reconcileDays;
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private final AtomicLong deltasApplied = new AtomicLong();
+    private final AtomicLong backfillRuns = new AtomicLong();
+    private final AtomicLong daysRebuilt = new AtomicLong();
+    private final AtomicLong trendQueries = new AtomicLong();
+    private volatile Map<String, Object> lastBackfill = Map.of();
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "attendance-rollup");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            if (attendanceRollupRepository.isEmpty()) {
+                LocalDate[] range = attendanceRollupRepository.findAttendanceDateRange();
+                if (range != null && backfillRunning.compareAndSet(false, true)) {
+                    log.info("Attendance rollup is empty, backfilling {} to {}", range[0], range[1]);
+                    executor.execute(() -> backfill(range[0], range[1]));
+                }
+            }
+        } catch (RuntimeException e) {
+            // Sin la tabla attendance_daily_rollup (esquema sin migrar) las tendencias fallan hasta crearla
+            log.error("Could not check attendance rollup at startup: {}", e.getMessage());
+        }
+    }
+
+    // ==================== MANTENIMIENTO INCREMENTAL ====================
+
+    /**
+     * Aplica un cambio de asistencia al resumen; previous null es un alta y current null un borrado
+     * Debe llamarse dentro de la transacción de la escritura
+     */
+    public void attendanceChanged(Attendance attendance, Attendance.AttendanceStatus previous,
+                                  Attendance.AttendanceStatus current) {
+        if (previous == current) {
+            return;
+        }
+        LocalDate date = attendance.getAssignmentDate();
+        Long subjectAssignmentId = attendance.getClassSession().getSubjectAssignment().getId();
+        if (previous != null) {
+            attendanceRollupRepository.applyDelta(date, subjectAssignmentId, previous.name(), -1);
+        }
+        if (current != null) {
+            attendanceRollupRepository.applyDelta(date, subjectAssignmentId, current.name(), 1);
+        }
+        deltasApplied.incrementAndGet();
+    }
+
+    /**
+     * Descuenta las asistencias de una sesión que se va a borrar (se borran en cascada)
+     */
+    public void sessionDeleting(Long classSessionId) {
+        attendanceRollupRepository.subtractSession(classSessionId);
+    }
+
+    /**
+     * Descuenta las asistencias de una inscripción a materia que se va a borrar (se borran en cascada)
+     */
+    public void subjectEnrollmentDeleting(Long subjectEnrollmentId) {
+        attendanceRollupRepository.subtractSubjectEnrollment(subjectEnrollmentId);
+    }
+
+    /**
+     * Descuenta las asistencias de una asignación que se va a borrar (sus sesiones se borran en cascada)
+     */
+    public void assignmentDeleting(Long subjectAssignmentId) {
+        attendanceRollupRepository.subtractAssignment(subjectAssignmentId);
+    }
+
+    // ==================== RECONSTRUCCIÓN ====================
+
+    /**
+     * Encola la reconstrucción del resumen; sin fechas toma todo el rango con asistencias
+     */
+    public Map<String, Object> requestBackfill(LocalDate from, LocalDate to) {
+        LocalDate start = from;
+        LocalDate end = to;
+        if (start == null || end == null) {
+            LocalDate[] range = attendanceRollupRepository.findAttendanceDateRange();
+            if (range == null) {
+                throw new BusinessException("There are no attendance records to roll up");
+            }
+            start = start != null ? start : range[0];
+            end = end != null ? end : range[1];
+        }
+        if (start.isAfter(end)) {
+            throw new BusinessException("Start date must not be after end date");
+        }
+        if (!backfillRunning.compareAndSet(false, true)) {
+            throw new ConflictException("An attendance rollup backfill is already running");
+        }
+        LocalDate rangeStart = start;
+        LocalDate rangeEnd = end;
+        executor.execute(() -> backfill(rangeStart, rangeEnd));
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("from", rangeStart);
+        status.put("to", rangeEnd);
+        status.put("status", "RUNNING");
+        return status;
+    }
+
+    /**
+     * Reconstruye cada noche los últimos rollup.reconcile-days días
+     */
+    @Scheduled(cron = "${rollup.reconcile-cron:0 30 3 * * *}")
+    public void reconcileRecentDays() {
+        if (reconcileDays <= 0 || !backfillRunning.compareAndSet(false, true)) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        executor.execute(() -> backfill(today.minusDays(reconcileDays - 1L), today));
+    }
+
+    private void backfill(LocalDate from, LocalDate to) {
+        long start = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+        int rows = 0;
+        String error = null;
+        try {
+            for (LocalDate windowStart = from; !windowStart.isAfter(to); windowStart = windowStart.plusDays(windowDays)) {
+                LocalDate windowEnd = windowStart.plusDays(windowDays - 1L);
+                LocalDate end = windowEnd.isAfter(to) ? to : windowEnd;
+                LocalDate begin = windowStart;
+                Integer written = transactionTemplate.execute(status -> attendanceRollupRepository.rebuildRange(begin, end));
+                rows += written != null ? written : 0;
+                daysRebuilt.addAndGet(begin.datesUntil(end.plusDays(1)).count());
+            }
+            backfillRuns.incrementAndGet();
+            log.info("Attendance rollup rebuilt from {} to {}: {} rows in {} ms",
+                    from, to, rows, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+            log.error("Attendance rollup backfill from {} to {} failed: {}", from, to, e.getMessage());
+        } finally {
+            Map<String, Object> last = new LinkedHashMap<>();
+            last.put("from", from);
+            last.put("to", to);
+            last.put("status", error == null ? "COMPLETED" : "FAILED");
+            last.put("rows", rows);
+            last.put("startedAt", startedAt);
+            last.put("durationMs", System.currentTimeMillis() - start);
+            last.put("lastError", error);
+            lastBackfill = last;
+            backfillRunning.set(false);
+        }
+    }
+
+    // ==================== TENDENCIAS ====================
+
+    /**
+     * Conteos por estado y tasa de inasistencia del rango, agrupados por día, semana, materia o profesor
+     */
+    public List<AttendanceTrendDTO> getTrends(LocalDate from, LocalDate to, String groupBy) {
+        if (from.isAfter(to)) {
+            throw new BusinessException("Start date must not be after end date");
+        }
+        GroupBy grouping;
+        try {
+            grouping = GroupBy.valueOf(groupBy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("groupBy must be one of: day, week, subject, professor");
+        }
+        trendQueries.incrementAndGet();
+
+        return switch (grouping) {
+            case DAY -> attendanceRollupRepository.sumByDay(from, to).stream().map(AttendanceRollupService::byDate).toList();
+            case WEEK -> attendanceRollupRepository.sumByWeek(from, to).stream().map(AttendanceRollupService::byDate).toList();
+            case SUBJECT -> attendanceRollupRepository.sumBySubject(from, to).stream().map(AttendanceRollupService::byName).toList();
+            case PROFESSOR -> attendanceRollupRepository.sumByProfessor(from, to).stream().map(AttendanceRollupService::byName).toList();
+        };
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("deltasApplied", deltasApplied.get());
+        stats.put("trendQueries", trendQueries.get());
+        stats.put("backfillRunning", backfillRunning.get());
+        stats.put("backfillRuns", backfillRuns.get());
+        stats.put("daysRebuilt", daysRebuilt.get());
+        stats.put("lastBackfill", lastBackfill);
+        return stats;
+    }
+
+    /**
+     * @param row [date, present, absent, late, excused]
+     */
+    private static AttendanceTrendDTO byDate(Object[] row) {
+        return counts(AttendanceTrendDTO.builder().date((LocalDate) row[0]), row, 1);
+    }
+
+    /**
+     * @param row [id, name, present, absent, late, excused]
+     */
+    private static AttendanceTrendDTO byName(Object[] row) {
+        return counts(AttendanceTrendDTO.builder().id((Long) row[0]).name((String) row[1]), row, 2);
+    }
+
+    private static AttendanceTrendDTO counts(AttendanceTrendDTO.AttendanceTrendDTOBuilder builder, Object[] row, int offset) {
+        long present = (Long) row[offset];
+        long absent = (Long) row[offset + 1];
+        long late = (Long) row[offset + 2];
+        long excused = (Long) row[offset + 3];
+        long total = present + absent + late + excused;
+        return builder
+                .present(present)
+                .absent(absent)
+                .late(late)
+                .excused(excused)
+                .total(total)
+                .absenceRate(total > 0 ? Math.round((double) absent / total * 10000) / 10000.0 : 0)
+                .build();
+    }
+}
@@ -1,17 +1,26 @@
 package com.cesde.studentinfo.service;
 
 import com.cesde.studentinfo.exception.BusinessException;
+import com.cesde.studentinfo.exception.ConflictException;
 import com.cesde.studentinfo.exception.ResourceNotFoundException;
+import com.cesde.studentinfo.model.ArchivedAttendance;
 import com.cesde.studentinfo.model.Attendance;
+import com.cesde.studentinfo.repository.ArchivedAttendanceRepository;
 import com.cesde.studentinfo.repository.AttendanceRepository;
+import com.cesde.studentinfo.repository.ClassSessionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Service para gestión de asistencia
@@ -23,6 +32,18 @@ import java.util.Optional;
 public class AttendanceService {
 
     private final AttendanceRepository attendanceRepository;
+    private final StatsService statsService;
+    private final AtRiskService atRiskService;
+    private final OutboxService outboxService;
+    private final AttendanceLiveService attendanceLiveService;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchivedAttendanceRepository archivedAttendanceRepository;
+    private final PeriodArchiveService periodArchiveService;
+    private final AttendanceRollupService attendanceRollupService;
+    private final ClassSessionRepository classSessionRepository;
+
+    @Value("${concurrency.optimistic.max-attempts:3}")
+    private int maxUpdateAttempts;
 
     @Transactional(readOnly = true)
     public List<Attendance> getAllAttendance() {
@@ -33,27 +54,37 @@ public class AttendanceService {
     @Transactional(readOnly = true)
     public Optional<Attendance> getAttendanceById(Long id) {
         log.info("Fetching attendance by id: {}", id);
-        return attendanceRepository.findById(id);
+        Optional<Attendance> attendance = attendanceRepository.findById(id);
+        if (attendance.isEmpty() && periodArchiveService.isArchiveInUse()) {
+            return archivedAttendanceRepository.findById(id).map(this::toAttendance);
+        }
+        return attendance;
     }
 
     @Transactional(readOnly = true)
     public List<Attendance> getAttendanceByStudentId(Long studentId) {
         log.info("Fetching attendance for student: {}", studentId);
-        return attendanceRepository.findByStudentId(studentId);
+        return withArchived(attendanceRepository.findByStudentId(studentId),
+                () -> archivedAttendanceRepository.findByStudentId(studentId));
     }
 
     @Transactional(readOnly = true)
     public List<Attendance> getAttendanceBySessionId(Long sessionId) {
         log.info("Fetching attendance for session: {}", sessionId);
-        return attendanceRepository.findByClassSessionId(sessionId);
+        return withArchived(attendanceRepository.findByClassSessionId(sessionId),
+                () -> archivedAttendanceRepository.findByClassSessionId(sessionId));
     }
 
     @Transactional(readOnly = true)
     public List<Attendance> getAttendanceByEnrollmentId(Long enrollmentId) {
         log.info("Fetching attendance for enrollment: {}", enrollmentId);
-        return attendanceRepository.findByEnrollmentId(enrollmentId);
+        return withArchived(attendanceRepository.findByEnrollmentId(enrollmentId),
+                () -> archivedAttendanceRepository.findByEnrollmentId(enrollmentId));
     }
 
+    /**
+     * Devuelve cada registro del rango; para conteos y tasas usar AttendanceRollupService.getTrends
+     */
     @Transactional(readOnly = true)
     public List<Attendance> getAttendanceByDateRange(LocalDate startDate, LocalDate endDate) {
         log.info("Fetching attendance between {} and {}", startDate, endDate);
@@ -71,16 +102,35 @@ public class AttendanceService {
         }
 
         Attendance saved = attendanceRepository.save(attendance);
+        statsService.attendanceChanged(null, saved.getStatus());
+        attendanceRollupService.attendanceChanged(saved, null, saved.getStatus());
+        outboxService.attendanceChanged(OutboxService.Action.CREATED, saved);
+        attendanceLiveService.attendanceChanged(saved);
         log.info("Attendance created successfully with id: {}", saved.getId());
         return saved;
     }
 
-    public Attendance updateAttendance(Long id, Attendance attendance) {
-        log.info("Updating attendance: {}", id);
+    /**
+     * Actualiza una asistencia con control de concurrencia optimista
+     * Con expectedVersion (If-Match) no se reintenta; sin ella se reintenta de forma acotada
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Attendance updateAttendance(Long id, Attendance attendance, Long expectedVersion) {
+        log.info("Updating attendance: {} (expected version: {})", id, expectedVersion);
+        int attempts = expectedVersion != null ? 1 : maxUpdateAttempts;
+        return OptimisticRetry.execute("Attendance", id, attempts,
+                () -> transactionTemplate.execute(status -> applyAttendanceUpdate(id, attendance, expectedVersion)));
+    }
 
+    private Attendance applyAttendanceUpdate(Long id, Attendance attendance, Long expectedVersion) {
         Attendance existing = attendanceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Attendance", id));
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw new ConflictException("Attendance " + id + " is at version " + existing.getVersion() +
+                    ", expected " + expectedVersion);
+        }
 
+        Attendance.AttendanceStatus previousStatus = existing.getStatus();
         if (attendance.getStatus() != null) {
             existing.setStatus(attendance.getStatus());
         }
@@ -94,7 +144,12 @@ public class AttendanceService {
             existing.setNotes(attendance.getNotes());
         }
 
-        return attendanceRepository.save(existing);
+        Attendance saved = attendanceRepository.saveAndFlush(existing);
+        statsService.attendanceChanged(previousStatus, saved.getStatus());
+        attendanceRollupService.attendanceChanged(saved, previousStatus, saved.getStatus());
+        outboxService.attendanceChanged(OutboxService.Action.UPDATED, saved);
+        attendanceLiveService.attendanceChanged(saved);
+        return saved;
     }
 
     public void deleteAttendance(Long id) {
@@ -103,6 +158,11 @@ public class AttendanceService {
                 .orElseThrow(() -> new ResourceNotFoundException("Attendance", id));
 
         attendanceRepository.deleteById(id);
+        statsService.attendanceChanged(attendance.getStatus(), null);
+        attendanceRollupService.attendanceChanged(attendance, attendance.getStatus(), null);
+        outboxService.attendanceChanged(OutboxService.Action.DELETED, attendance);
+        attendanceLiveService.attendanceDeleted(attendance);
+        atRiskService.enrollmentChanged(attendance.getSubjectEnrollment().getId());
         log.info("Attendance deleted successfully");
     }
 
@@ -110,5 +170,24 @@ public class AttendanceService {
     public long countAttendance() {
         return attendanceRepository.count();
     }
+
+    /**
+     * Agrega a una consulta de la tabla caliente sus asistencias de períodos archivados
+     */
+    private List<Attendance> withArchived(List<Attendance> attendance, Supplier<List<ArchivedAttendance>> archived) {
+        if (!periodArchiveService.isArchiveInUse()) {
+            return attendance;
+        }
+        List<Attendance> result = new ArrayList<>(attendance);
+        archived.get().forEach(record -> result.add(toAttendance(record)));
+        return result;
+    }
+
+    private Attendance toAttendance(ArchivedAttendance record) {
+        if (record.getClassSession() != null) {
+            return record.toAttendance(null);
+        }
+        return record.toAttendance(classSessionRepository.findById(record.getClassSessionId()).orElse(null));
+    }
 }
 
@@ -13,7 +13,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
@@ -24,10 +23,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AuthService {
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
     private final UserService userService;
+    private final LastLoginRecorder lastLoginRecorder;
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
     @Transactional
@@ -39,11 +39,16 @@ public class AuthService {
         if (!user.getIsActive()) {
             throw new BadCredentialsException("La cuenta está desactivada");
         }
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())) {
             throw new BadCredentialsException("Credenciales inválidas");
         }
-        user.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(user);
+        // Rehash transparente cuando cambia el costo de BCrypt configurado
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(loginRequest.getPassword()));
+            passwordHashingService.recordRehash();
+            log.info("Password rehashed with current BCrypt cost for user: {}", user.getUsername());
+        }
+        lastLoginRecorder.record(user.getId(), LocalDateTime.now());
         UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
         String token = jwtUtil.generateToken(userDetails, user.getId());
         Set<String> roles = user.getRoles().stream()
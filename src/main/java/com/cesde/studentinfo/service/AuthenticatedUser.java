@@ -0,0 +1,84 @@
+package com.cesde.studentinfo.service;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+
+/**
+ * UserDetails con los roles como máscara de bits del {@link RoleRegistry}
+ *
+ * A diferencia del User de Spring no copia ni ordena las authorities: usa la colección
+ * compartida del registro para su combinación de roles.
+ */
+public final class AuthenticatedUser implements UserDetails {
+
+    private final String username;
+    private final String password;
+    private final boolean active;
+    private final RoleRegistry.RoleMask roleMask;
+    private final Collection<GrantedAuthority> authorities;
+
+    AuthenticatedUser(String username, String password, boolean active, RoleRegistry.RoleMask roleMask,
+                      Collection<GrantedAuthority> authorities) {
+        this.username = username;
+        this.password = password;
+        this.active = active;
+        this.roleMask = roleMask;
+        this.authorities = authorities;
+    }
+
+    public RoleRegistry.RoleMask getRoleMask() {
+        return roleMask;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return active;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof AuthenticatedUser other && username.equals(other.username));
+    }
+
+    @Override
+    public int hashCode() {
+        return username.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{username='" + username + "', enabled=" + active + "}";
+    }
+}
@@ -2,8 +2,10 @@ package com.cesde.studentinfo.service;
 
 import com.cesde.studentinfo.exception.BusinessException;
 import com.cesde.studentinfo.exception.ResourceNotFoundException;
+import com.cesde.studentinfo.model.ArchivedClassSession;
 import com.cesde.studentinfo.model.ClassSession;
 import com.cesde.studentinfo.model.SubjectAssignment;
+import com.cesde.studentinfo.repository.ArchivedClassSessionRepository;
 import com.cesde.studentinfo.repository.ClassSessionRepository;
 import com.cesde.studentinfo.repository.SubjectAssignmentRepository;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +30,12 @@ public class ClassSessionService {
 
     private final ClassSessionRepository classSessionRepository;
     private final SubjectAssignmentRepository subjectAssignmentRepository;
+    private final TimetableService timetableService;
+    private final ArchivedClassSessionRepository archivedClassSessionRepository;
+    private final PeriodArchiveService periodArchiveService;
+    private final StatsService statsService;
+    private final MultiGetService multiGetService;
+    private final AttendanceRollupService attendanceRollupService;
 
     @Transactional(readOnly = true)
     public List<ClassSession> getAllSessions() {
@@ -37,13 +46,33 @@ public class ClassSessionService {
     @Transactional(readOnly = true)
     public Optional<ClassSession> getSessionById(Long id) {
         log.info("Fetching class session by id: {}", id);
-        return classSessionRepository.findById(id);
+        Optional<ClassSession> session = classSessionRepository.findById(id);
+        if (session.isEmpty() && periodArchiveService.isArchiveInUse()) {
+            return archivedClassSessionRepository.findById(id).map(ArchivedClassSession::toClassSession);
+        }
+        return session;
+    }
+
+    /**
+     * Obtiene varias sesiones (con asignación, materia y profesor) por ID en el orden pedido; los inexistentes se omiten
+     */
+    @Transactional(readOnly = true)
+    public List<ClassSession> getSessionsByIds(List<Long> ids) {
+        return multiGetService.load(ClassSession.class, ids, ClassSession::getId, classSessionRepository::findAllByIdIn);
     }
 
     @Transactional(readOnly = true)
+    @Coalesced(ttlMillis = 500)
     public List<ClassSession> getSessionsBySubjectAssignment(Long assignmentId) {
         log.info("Fetching class sessions for subject assignment: {}", assignmentId);
-        return classSessionRepository.findBySubjectAssignmentId(assignmentId);
+        List<ClassSession> sessions = classSessionRepository.findBySubjectAssignmentId(assignmentId);
+        if (!periodArchiveService.isArchiveInUse()) {
+            return sessions;
+        }
+        List<ClassSession> result = new ArrayList<>(sessions);
+        archivedClassSessionRepository.findBySubjectAssignmentId(assignmentId)
+                .forEach(session -> result.add(session.toClassSession()));
+        return result;
     }
 
     @Transactional(readOnly = true)
@@ -89,7 +118,13 @@ public class ClassSessionService {
             session.setStatus(ClassSession.SessionStatus.PROGRAMADA);
         }
 
+        // Validar choques de horario del profesor y del aula
+        timetableService.checkConflicts(session.getSubjectAssignment().getId(), null,
+            session.getSessionDate(), session.getSessionTime(), session.getDurationMinutes(), session.getStatus());
+
         ClassSession saved = classSessionRepository.save(session);
+        timetableService.register(saved);
+        statsService.classSessionChanged(null, saved.getStatus());
         log.info("Class session created successfully with id: {}", saved.getId());
         return saved;
     }
@@ -121,7 +156,12 @@ public class ClassSessionService {
             .status(ClassSession.SessionStatus.PROGRAMADA)
             .build();
 
+        timetableService.checkConflicts(subjectAssignmentId, null, newSession.getSessionDate(),
+            newSession.getSessionTime(), newSession.getDurationMinutes(), newSession.getStatus());
+
         ClassSession saved = classSessionRepository.save(newSession);
+        timetableService.register(saved);
+        statsService.classSessionChanged(null, saved.getStatus());
         log.info("New class session created with id: {}", saved.getId());
         return saved;
     }
@@ -132,6 +172,7 @@ public class ClassSessionService {
         ClassSession existing = classSessionRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("ClassSession", id));
 
+        ClassSession.SessionStatus previousStatus = existing.getStatus();
         if (updates.getSessionDate() != null) {
             existing.setSessionDate(updates.getSessionDate());
         }
@@ -156,7 +197,12 @@ public class ClassSessionService {
             existing.setStatus(updates.getStatus());
         }
 
+        timetableService.checkConflicts(existing.getSubjectAssignment().getId(), id, existing.getSessionDate(),
+            existing.getSessionTime(), existing.getDurationMinutes(), existing.getStatus());
+
         ClassSession saved = classSessionRepository.save(existing);
+        timetableService.register(saved);
+        statsService.classSessionChanged(previousStatus, saved.getStatus());
         log.info("Class session updated successfully");
         return saved;
     }
@@ -167,7 +213,11 @@ public class ClassSessionService {
         ClassSession session = classSessionRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("ClassSession", id));
 
+        // Las asistencias se borran en cascada con la sesión; se descuentan antes del resumen diario
+        attendanceRollupService.sessionDeleting(id);
         classSessionRepository.delete(session);
+        timetableService.unregister(id);
+        statsService.classSessionChanged(session.getStatus(), null);
         log.info("Class session deleted successfully");
     }
 
@@ -0,0 +1,28 @@
+package com.cesde.studentinfo.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un método de lectura cuyas llamadas concurrentes con los mismos argumentos se agrupan
+ *
+ * Solo la primera llamada ejecuta el método (y su transacción); las que llegan mientras está en
+ * curso reciben el mismo resultado. Con ttlMillis > 0 el resultado se reutiliza además durante
+ * ese tiempo. Pensado para métodos @Transactional(readOnly = true) muy solicitados cuyo resultado
+ * no se modifica después: quienes lo reciben comparten la misma instancia (las colecciones se
+ * entregan no modificables; los elementos y los DTO no deben modificarse).
+ * Ver {@link RequestCoalescer}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+
+    /**
+     * Tiempo en milisegundos que el resultado se sigue sirviendo tras completarse (0 = solo en vuelo)
+     */
+    long ttlMillis() default 0;
+}
@@ -0,0 +1,217 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.dto.ImportReportDTO;
+import com.cesde.studentinfo.exception.BusinessException;
+import com.cesde.studentinfo.exception.ResourceNotFoundException;
+import com.cesde.studentinfo.model.AcademicPeriod;
+import com.cesde.studentinfo.model.Course;
+import com.cesde.studentinfo.model.CourseEnrollment;
+import com.cesde.studentinfo.model.Student;
+import com.cesde.studentinfo.repository.AcademicPeriodRepository;
+import com.cesde.studentinfo.repository.CourseEnrollmentBatchRepository;
+import com.cesde.studentinfo.repository.CourseEnrollmentRepository;
+import com.cesde.studentinfo.repository.CourseRepository;
+import com.cesde.studentinfo.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service para importación masiva de inscripciones a curso desde CSV
+ *
+ * Todas las filas se inscriben en el mismo período académico. Los cursos se cargan una vez;
+ * los estudiantes y las inscripciones existentes se resuelven con una consulta IN por bloque.
+ *
+ * Columnas: identificationNumber, courseCode, enrollmentDate, enrollmentStatus, notes
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseEnrollmentImportService {
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final AcademicPeriodRepository academicPeriodRepository;
+    private final CourseEnrollmentRepository enrollmentRepository;
+    private final CourseEnrollmentBatchRepository enrollmentBatchRepository;
+    private final StatsService statsService;
+
+    @Value("${import.chunk-size:500}")
+    private int chunkSize;
+
+    public ImportReportDTO importEnrollments(Long academicPeriodId, InputStream csv) {
+        log.info("Importing course enrollments for period {} from CSV", academicPeriodId);
+
+        AcademicPeriod period = academicPeriodRepository.findById(academicPeriodId)
+                .orElseThrow(() -> new ResourceNotFoundException("AcademicPeriod", academicPeriodId));
+        if (!period.getIsActive()) {
+            throw new BusinessException("Academic period is not active");
+        }
+
+        Map<String, Course> coursesByCode = courseRepository.findAll().stream()
+                .collect(Collectors.toMap(c -> c.getCode().toUpperCase(Locale.ROOT), c -> c));
+
+        ImportReportDTO report = new ImportReportDTO();
+        // Pares estudiante:curso aceptados en todo el archivo, para detectar duplicados entre bloques
+        Set<String> seenInFile = new HashSet<>();
+        try (CsvReader reader = new CsvReader(csv)) {
+            Map<String, Integer> columns = reader.readHeader();
+            if (!columns.containsKey("identificationnumber") || !columns.containsKey("coursecode")) {
+                throw new BusinessException("CSV header must include identificationNumber and courseCode columns");
+            }
+
+            List<PendingRow> chunk = new ArrayList<>(chunkSize);
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                report.setTotalRows(report.getTotalRows() + 1);
+                PendingRow row = parseRow(reader.getRecordLine(), record, columns, coursesByCode, period, report);
+                if (row == null) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    flushChunk(chunk, period, report, seenInFile);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flushChunk(chunk, period, report, seenInFile);
+            }
+        } catch (IOException e) {
+            throw new BusinessException("Could not read CSV stream: " + e.getMessage(), e);
+        }
+
+        log.info("Enrollment import finished: {} rows, {} imported, {} failed",
+                report.getTotalRows(), report.getImported(), report.getFailed());
+        return report;
+    }
+
+    private void flushChunk(List<PendingRow> chunk, AcademicPeriod period, ImportReportDTO report,
+                            Set<String> seenInFile) {
+        Set<String> identifications = chunk.stream()
+                .map(PendingRow::identificationNumber)
+                .collect(Collectors.toSet());
+
+        // [identificationNumber, id, isActive]
+        Map<String, Object[]> students = new HashMap<>();
+        for (Object[] row : studentRepository.findIdsByIdentificationNumbers(identifications)) {
+            students.put((String) row[0], row);
+        }
+
+        Set<Long> studentIds = students.values().stream()
+                .map(row -> (Long) row[1])
+                .collect(Collectors.toSet());
+        Set<String> enrolled = new HashSet<>();
+        if (!studentIds.isEmpty()) {
+            for (Object[] pair : enrollmentRepository.findStudentCoursePairs(period.getId(), studentIds)) {
+                enrolled.add(pair[0] + ":" + pair[1]);
+            }
+        }
+
+        List<CourseEnrollment> accepted = new ArrayList<>(chunk.size());
+        List<PendingRow> acceptedRows = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            Object[] student = students.get(row.identificationNumber());
+            if (student == null) {
+                report.addError(row.line(), row.identificationNumber(),
+                        "Student not found with identification: " + row.identificationNumber());
+                continue;
+            }
+            if (!Boolean.TRUE.equals(student[2])) {
+                report.addError(row.line(), row.identificationNumber(), "Student is not active and cannot be enrolled");
+                continue;
+            }
+            Long studentId = (Long) student[1];
+            String key = studentId + ":" + row.enrollment().getCourse().getId();
+            if (enrolled.contains(key) || !seenInFile.add(key)) {
+                report.addError(row.line(), row.identificationNumber(),
+                        "Student is already enrolled in this course for this period");
+                continue;
+            }
+            row.enrollment().setStudent(Student.builder().id(studentId).build());
+            accepted.add(row.enrollment());
+            acceptedRows.add(row);
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            report.setImported(report.getImported() + enrollmentBatchRepository.batchInsert(accepted));
+            accepted.forEach(e -> statsService.courseEnrollmentChanged(period.getId(), e.getCourse().getId(),
+                    null, e.getEnrollmentStatus(), 1));
+        } catch (DataIntegrityViolationException e) {
+            log.error("Enrollment import chunk rejected by database: {}", e.getMostSpecificCause().getMessage());
+            // Las filas rechazadas no quedaron inscritas: una repetición posterior puede volver a intentarse
+            accepted.forEach(en -> seenInFile.remove(en.getStudent().getId() + ":" + en.getCourse().getId()));
+            for (PendingRow row : acceptedRows) {
+                report.addError(row.line(), row.identificationNumber(),
+                        "Chunk rejected by database: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    private PendingRow parseRow(int line, List<String> record, Map<String, Integer> columns,
+                                Map<String, Course> coursesByCode, AcademicPeriod period, ImportReportDTO report) {
+        String idNumber = CsvReader.field(record, columns, "identificationNumber");
+        if (idNumber == null) {
+            report.addError(line, null, "Identification number is required");
+            return null;
+        }
+
+        String courseCode = CsvReader.field(record, columns, "courseCode");
+        Course course = courseCode != null ? coursesByCode.get(courseCode.toUpperCase(Locale.ROOT)) : null;
+        if (course == null) {
+            report.addError(line, idNumber, "Course not found with code: " + courseCode);
+            return null;
+        }
+        if (!course.getIsActive()) {
+            report.addError(line, idNumber, "Course is not active");
+            return null;
+        }
+
+        LocalDate enrollmentDate;
+        CourseEnrollment.EnrollmentStatus status;
+        try {
+            String date = CsvReader.field(record, columns, "enrollmentDate");
+            enrollmentDate = date != null ? LocalDate.parse(date) : LocalDate.now();
+            String statusValue = CsvReader.field(record, columns, "enrollmentStatus");
+            status = statusValue != null
+                    ? CourseEnrollment.EnrollmentStatus.valueOf(statusValue.toUpperCase(Locale.ROOT))
+                    : CourseEnrollment.EnrollmentStatus.ACTIVO;
+        } catch (DateTimeParseException e) {
+            report.addError(line, idNumber, "Invalid date (expected yyyy-MM-dd): " + e.getParsedString());
+            return null;
+        } catch (IllegalArgumentException e) {
+            report.addError(line, idNumber, "Invalid enrollment status: " + e.getMessage());
+            return null;
+        }
+
+        CourseEnrollment enrollment = CourseEnrollment.builder()
+                .course(course)
+                .academicPeriod(period)
+                .enrollmentDate(enrollmentDate)
+                .enrollmentStatus(status)
+                .notes(CsvReader.field(record, columns, "notes"))
+                .build();
+        return new PendingRow(line, idNumber, enrollment);
+    }
+
+    private record PendingRow(int line, String identificationNumber, CourseEnrollment enrollment) {
+    }
+}
@@ -32,6 +32,8 @@ public class CourseEnrollmentService {
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
     private final AcademicPeriodRepository academicPeriodRepository;
+    private final StatsService statsService;
+    private final OutboxService outboxService;
 
     @Transactional(readOnly = true)
     public List<CourseEnrollment> getAllEnrollments() {
@@ -110,6 +112,8 @@ public class CourseEnrollmentService {
         enrollment.setAcademicPeriod(period);
 
         CourseEnrollment saved = enrollmentRepository.save(enrollment);
+        statsService.courseEnrollmentChanged(period.getId(), course.getId(), null, saved.getEnrollmentStatus(), 1);
+        outboxService.courseEnrollmentChanged(OutboxService.Action.CREATED, saved);
         log.info("Enrollment created successfully with id: {}", saved.getId());
         return saved;
     }
@@ -120,14 +124,19 @@ public class CourseEnrollmentService {
         CourseEnrollment enrollment = enrollmentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("CourseEnrollment", id));
 
+        CourseEnrollment.EnrollmentStatus previousStatus = enrollment.getEnrollmentStatus();
         enrollment.setEnrollmentStatus(status);
+        statsService.courseEnrollmentChanged(enrollment.getAcademicPeriod().getId(), enrollment.getCourse().getId(),
+                previousStatus, status, 1);
 
         // Si cambia a EGRESADO, establecer fecha de completion
         if (status == CourseEnrollment.EnrollmentStatus.EGRESADO && enrollment.getCompletionDate() == null) {
             enrollment.setCompletionDate(LocalDate.now());
         }
 
-        return enrollmentRepository.save(enrollment);
+        CourseEnrollment saved = enrollmentRepository.save(enrollment);
+        outboxService.courseEnrollmentChanged(OutboxService.Action.UPDATED, saved);
+        return saved;
     }
 
     public CourseEnrollment updateEnrollment(Long id, CourseEnrollment updates) {
@@ -137,6 +146,8 @@ public class CourseEnrollmentService {
                 .orElseThrow(() -> new ResourceNotFoundException("CourseEnrollment", id));
 
         if (updates.getEnrollmentStatus() != null) {
+            statsService.courseEnrollmentChanged(existing.getAcademicPeriod().getId(), existing.getCourse().getId(),
+                    existing.getEnrollmentStatus(), updates.getEnrollmentStatus(), 1);
             existing.setEnrollmentStatus(updates.getEnrollmentStatus());
         }
         if (updates.getCompletionDate() != null) {
@@ -146,7 +157,9 @@ public class CourseEnrollmentService {
             existing.setNotes(updates.getNotes());
         }
 
-        return enrollmentRepository.save(existing);
+        CourseEnrollment saved = enrollmentRepository.save(existing);
+        outboxService.courseEnrollmentChanged(OutboxService.Action.UPDATED, saved);
+        return saved;
     }
 
     public void deleteEnrollment(Long id) {
@@ -155,6 +168,9 @@ public class CourseEnrollmentService {
                 .orElseThrow(() -> new ResourceNotFoundException("CourseEnrollment", id));
 
         enrollmentRepository.deleteById(id);
+        statsService.courseEnrollmentChanged(enrollment.getAcademicPeriod().getId(), enrollment.getCourse().getId(),
+                enrollment.getEnrollmentStatus(), null, 1);
+        outboxService.courseEnrollmentChanged(OutboxService.Action.DELETED, enrollment);
         log.info("Enrollment deleted successfully");
     }
 
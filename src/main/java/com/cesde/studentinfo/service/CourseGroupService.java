@@ -25,6 +25,7 @@ public class CourseGroupService {
     private final CourseRepository courseRepository;
     private final LevelRepository levelRepository;
     private final AcademicPeriodRepository academicPeriodRepository;
+    private final StatsService statsService;
 
     @Transactional(readOnly = true)
     public List<CourseGroup> getAllCourseGroups() {
@@ -89,6 +90,7 @@ public class CourseGroupService {
         }
 
         CourseGroup saved = courseGroupRepository.save(courseGroup);
+        statsService.courseGroupAdded(Boolean.TRUE.equals(saved.getIsActive()));
         log.info("Course group created successfully with id: {}", saved.getId());
         return saved;
     }
@@ -99,6 +101,8 @@ public class CourseGroupService {
         CourseGroup existing = courseGroupRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("CourseGroup", id));
 
+        boolean wasActive = Boolean.TRUE.equals(existing.getIsActive());
+
         // Actualizar campos
         if (courseGroup.getGroupName() != null) {
             existing.setGroupName(courseGroup.getGroupName());
@@ -116,7 +120,9 @@ public class CourseGroupService {
             existing.setIsActive(courseGroup.getIsActive());
         }
 
-        return courseGroupRepository.save(existing);
+        CourseGroup saved = courseGroupRepository.save(existing);
+        statsService.courseGroupActiveChanged(wasActive, Boolean.TRUE.equals(saved.getIsActive()));
+        return saved;
     }
 
     public void deleteCourseGroup(Long id) {
@@ -129,6 +135,7 @@ public class CourseGroupService {
         }
 
         courseGroupRepository.deleteById(id);
+        statsService.courseGroupRemoved(Boolean.TRUE.equals(courseGroup.getIsActive()));
         log.info("Course group deleted successfully");
     }
 
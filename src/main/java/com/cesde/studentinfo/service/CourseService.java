@@ -22,6 +22,7 @@ import java.util.Optional;
 public class CourseService {
 
     private final CourseRepository courseRepository;
+    private final MultiGetService multiGetService;
 
     /**
      * Crear un nuevo curso
@@ -77,6 +78,14 @@ public class CourseService {
         return courseRepository.findById(id);
     }
 
+    /**
+     * Obtiene varios cursos por ID en el orden pedido; los inexistentes se omiten
+     */
+    @Transactional(readOnly = true)
+    public List<Course> getCoursesByIds(List<Long> ids) {
+        return multiGetService.load(Course.class, ids, Course::getId, courseRepository::findAllById);
+    }
+
     /**
      * Obtener un curso por código
      */
@@ -0,0 +1,151 @@
+package com.cesde.studentinfo.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lector CSV incremental (RFC 4180) para las importaciones masivas
+ *
+ * Lee un registro a la vez desde el stream, sin cargar el archivo completo en memoria.
+ * Soporta campos entre comillas, comillas escapadas ("") y saltos de línea dentro de comillas.
+ */
+public class CsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private int currentLine = 1;
+    private int recordLine;
+    private boolean firstChar = true;
+
+    public CsvReader(InputStream inputStream) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lee el siguiente registro no vacío
+     * @return lista de campos, o null al final del stream
+     */
+    public List<String> readRecord() throws IOException {
+        while (true) {
+            List<String> record = readRawRecord();
+            if (record == null) {
+                return null;
+            }
+            if (record.size() > 1 || !record.get(0).isBlank()) {
+                return record;
+            }
+        }
+    }
+
+    /**
+     * Lee la cabecera y devuelve el índice de cada columna normalizada
+     * (minúsculas, sin espacios, guiones ni guiones bajos)
+     */
+    public Map<String, Integer> readHeader() throws IOException {
+        List<String> header = readRecord();
+        Map<String, Integer> columns = new HashMap<>();
+        if (header == null) {
+            return columns;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(normalizeColumn(header.get(i)), i);
+        }
+        return columns;
+    }
+
+    /**
+     * Número de línea (1-based) donde empieza el último registro leído
+     */
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    public static String normalizeColumn(String name) {
+        return name.trim().replaceAll("[\\s_\\-]", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Obtiene un campo por nombre de columna; devuelve null si la columna no existe o el campo está vacío
+     */
+    public static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(normalizeColumn(column));
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private List<String> readRawRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = currentLine;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+
+        while (c != -1) {
+            if (inQuotes) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        currentLine++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                currentLine++;
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = read();
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        int c = reader.read();
+        // Ignorar el BOM UTF-8 que agregan algunas hojas de cálculo
+        if (firstChar) {
+            firstChar = false;
+            if (c == '\uFEFF') {
+                c = reader.read();
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -2,15 +2,11 @@ package com.cesde.studentinfo.service;
 import com.cesde.studentinfo.model.User;
 import com.cesde.studentinfo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.Set;
-import java.util.stream.Collectors;
 /**
  * Implementación de UserDetailsService para Spring Security
  * 
@@ -19,11 +15,14 @@ import java.util.stream.Collectors;
  * pero este servicio elimina el warning de "generated security password".
  * 
  * Cuando se implemente autenticación completa, este servicio ya estará listo.
+ *
+ * Los roles se resuelven con el RoleRegistry: máscara de bits y GrantedAuthority compartidos.
  */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
     /**
      * Carga un usuario por su username para Spring Security
      * 
@@ -37,22 +36,9 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException(
                         "User not found with username: " + username));
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword()) // Ya está hasheado con BCrypt en la BD
-                .authorities(getAuthorities(user))
-                .accountExpired(false)
-                .accountLocked(!user.getIsActive()) // Bloqueado si no está activo
-                .credentialsExpired(false)
-                .disabled(!user.getIsActive()) // Deshabilitado si no está activo
-                .build();
-    }
-    /**
-     * Convierte los roles del usuario en GrantedAuthority para Spring Security
-     */
-    private Set<GrantedAuthority> getAuthorities(User user) {
-        return user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName().toUpperCase()))
-                .collect(Collectors.toSet());
+        RoleRegistry.RoleMask roleMask = roleRegistry.maskOf(user.getRoles());
+        // Bloqueado y deshabilitado si no está activo; el password ya está hasheado con BCrypt en la BD
+        return new AuthenticatedUser(user.getUsername(), user.getPassword(), user.getIsActive(), roleMask,
+                roleRegistry.authoritiesOf(roleMask));
     }
 }
@@ -1,20 +1,46 @@
 package com.cesde.studentinfo.service;
 
+import com.cesde.studentinfo.dto.BulkGradeRequestDTO;
+import com.cesde.studentinfo.dto.BulkGradeResultDTO;
+import com.cesde.studentinfo.dto.GradebookDTO;
 import com.cesde.studentinfo.exception.BusinessException;
+import com.cesde.studentinfo.exception.ConflictException;
 import com.cesde.studentinfo.exception.ResourceNotFoundException;
+import com.cesde.studentinfo.model.ArchivedGrade;
 import com.cesde.studentinfo.model.Grade;
 import com.cesde.studentinfo.model.GradeComponent;
 import com.cesde.studentinfo.model.GradePeriod;
+import com.cesde.studentinfo.model.SubjectAssignment;
 import com.cesde.studentinfo.model.SubjectEnrollment;
+import com.cesde.studentinfo.repository.ArchivedGradeRepository;
+import com.cesde.studentinfo.repository.CourseGroupRepository;
+import com.cesde.studentinfo.repository.GradeBatchRepository;
+import com.cesde.studentinfo.repository.GradeComponentRepository;
+import com.cesde.studentinfo.repository.GradePeriodRepository;
 import com.cesde.studentinfo.repository.GradeRepository;
+import com.cesde.studentinfo.repository.SubjectAssignmentRepository;
+import com.cesde.studentinfo.repository.SubjectEnrollmentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Service para gestión de calificaciones
@@ -26,6 +52,21 @@ import java.util.Optional;
 public class GradeService {
 
     private final GradeRepository gradeRepository;
+    private final GradePeriodRepository gradePeriodRepository;
+    private final GradeComponentRepository gradeComponentRepository;
+    private final SubjectEnrollmentRepository subjectEnrollmentRepository;
+    private final CourseGroupRepository courseGroupRepository;
+    private final SubjectAssignmentRepository subjectAssignmentRepository;
+    private final GradeBatchRepository gradeBatchRepository;
+    private final ArchivedGradeRepository archivedGradeRepository;
+    private final PeriodArchiveService periodArchiveService;
+    private final TransactionTemplate transactionTemplate;
+    private final StatsService statsService;
+    private final AtRiskService atRiskService;
+    private final OutboxService outboxService;
+
+    @Value("${concurrency.optimistic.max-attempts:3}")
+    private int maxUpdateAttempts;
 
     @Transactional(readOnly = true)
     public List<Grade> getAllGrades() {
@@ -36,19 +77,25 @@ public class GradeService {
     @Transactional(readOnly = true)
     public Optional<Grade> getGradeById(Long id) {
         log.info("Fetching grade by id: {}", id);
-        return gradeRepository.findById(id);
+        Optional<Grade> grade = gradeRepository.findById(id);
+        if (grade.isEmpty() && periodArchiveService.isArchiveInUse()) {
+            return archivedGradeRepository.findById(id).map(ArchivedGrade::toGrade);
+        }
+        return grade;
     }
 
     @Transactional(readOnly = true)
     public List<Grade> getGradesByStudentId(Long studentId) {
         log.info("Fetching grades for student: {}", studentId);
-        return gradeRepository.findByStudentId(studentId);
+        return withArchived(gradeRepository.findByStudentId(studentId),
+                () -> archivedGradeRepository.findByStudentId(studentId));
     }
 
     @Transactional(readOnly = true)
     public List<Grade> getGradesByEnrollmentId(Long enrollmentId) {
         log.info("Fetching grades for enrollment: {}", enrollmentId);
-        return gradeRepository.findByEnrollmentId(enrollmentId);
+        return withArchived(gradeRepository.findByEnrollmentId(enrollmentId),
+                () -> archivedGradeRepository.findByEnrollmentId(enrollmentId));
     }
 
     @Transactional(readOnly = true)
@@ -57,6 +104,79 @@ public class GradeService {
         return gradeRepository.findByCourseGroupId(groupId);
     }
 
+    /**
+     * Cuadro de notas del grupo como matriz densa de centésimas
+     * Solo proyecta (inscripción, período, componente, valor), sin hidratar entidades Grade
+     */
+    @Transactional(readOnly = true)
+    public GradebookDTO getGradebook(Long groupId) {
+        log.info("Building gradebook for course group: {}", groupId);
+        if (!courseGroupRepository.existsById(groupId)) {
+            throw new ResourceNotFoundException("CourseGroup", groupId);
+        }
+
+        int[] periods = gradePeriodRepository.findAll().stream()
+                .map(GradePeriod::getPeriodNumber)
+                .sorted()
+                .mapToInt(Integer::intValue)
+                .toArray();
+        String[] components = gradeComponentRepository.findAll().stream()
+                .sorted(Comparator.comparing(GradeComponent::getId))
+                .map(GradeComponent::getCode)
+                .toArray(String[]::new);
+        Map<Integer, Integer> periodIndex = new HashMap<>();
+        for (int i = 0; i < periods.length; i++) {
+            periodIndex.put(periods[i], i);
+        }
+        Map<String, Integer> componentIndex = new HashMap<>();
+        for (int i = 0; i < components.length; i++) {
+            componentIndex.put(components[i], i);
+        }
+        int columns = periods.length * components.length;
+
+        List<Object[]> rows = subjectEnrollmentRepository.findGradebookRowsByCourseGroupId(groupId);
+        long[] enrollmentIds = new long[rows.size()];
+        long[] studentIds = new long[rows.size()];
+        String[] studentNames = new String[rows.size()];
+        String[] subjectCodes = new String[rows.size()];
+        String[] statuses = new String[rows.size()];
+        Map<Long, Integer> rowIndex = new HashMap<>(rows.size() * 2);
+        for (int r = 0; r < rows.size(); r++) {
+            Object[] row = rows.get(r);
+            enrollmentIds[r] = (Long) row[0];
+            studentIds[r] = (Long) row[1];
+            studentNames[r] = row[2] + " " + row[3];
+            subjectCodes[r] = (String) row[4];
+            statuses[r] = ((Enum<?>) row[5]).name();
+            rowIndex.put(enrollmentIds[r], r);
+        }
+
+        short[] values = new short[rows.size() * columns];
+        Arrays.fill(values, GradebookDTO.NO_GRADE);
+        for (Object[] cell : gradeRepository.findGradebookCellsByCourseGroupId(groupId)) {
+            Integer r = rowIndex.get((Long) cell[0]);
+            Integer p = periodIndex.get((Integer) cell[1]);
+            Integer c = componentIndex.get((String) cell[2]);
+            if (r != null && p != null && c != null) {
+                values[r * columns + p * components.length + c] =
+                        (short) ((BigDecimal) cell[3]).movePointRight(2).intValue();
+            }
+        }
+
+        return GradebookDTO.builder()
+                .courseGroupId(groupId)
+                .periods(periods)
+                .components(components)
+                .columns(columns)
+                .enrollmentIds(enrollmentIds)
+                .studentIds(studentIds)
+                .studentNames(studentNames)
+                .subjectCodes(subjectCodes)
+                .statuses(statuses)
+                .values(values)
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public List<Grade> getGradesByGradePeriodId(Long periodId) {
         log.info("Fetching grades for grade period: {}", periodId);
@@ -77,15 +197,108 @@ public class GradeService {
         }
 
         Grade saved = gradeRepository.save(grade);
+        statsService.gradesChanged(1);
+        outboxService.gradeChanged(OutboxService.Action.CREATED, saved);
         log.info("Grade created successfully with id: {}", saved.getId());
         return saved;
     }
 
-    public Grade updateGrade(Long id, Grade grade) {
-        log.info("Updating grade: {}", id);
+    /**
+     * Registra una columna completa de notas (un período y un componente) para una asignación
+     *
+     * Valida todas las filas contra uk_enrollment_period_component con una sola consulta,
+     * hace upsert con un batch INSERT ... ON DUPLICATE KEY UPDATE y recalcula una vez la
+     * nota definitiva de cada inscripción afectada. Las filas inválidas se reportan sin
+     * abortar el resto.
+     */
+    public BulkGradeResultDTO bulkUpsertGrades(BulkGradeRequestDTO request) {
+        log.info("Bulk grade entry for assignment {}: period {}, component {}, {} rows",
+                request.getSubjectAssignmentId(), request.getGradePeriodId(),
+                request.getGradeComponentId(), request.getGrades().size());
+
+        SubjectAssignment assignment = subjectAssignmentRepository.findById(request.getSubjectAssignmentId())
+                .orElseThrow(() -> new ResourceNotFoundException("SubjectAssignment", request.getSubjectAssignmentId()));
+        if (!gradePeriodRepository.existsById(request.getGradePeriodId())) {
+            throw new ResourceNotFoundException("GradePeriod", request.getGradePeriodId());
+        }
+        if (!gradeComponentRepository.existsById(request.getGradeComponentId())) {
+            throw new ResourceNotFoundException("GradeComponent", request.getGradeComponentId());
+        }
 
+        Set<Long> enrollmentIds = new LinkedHashSet<>();
+        request.getGrades().forEach(entry -> enrollmentIds.add(entry.getSubjectEnrollmentId()));
+        Map<Long, Object[]> enrollments = new HashMap<>();
+        gradeBatchRepository.findEnrollmentsForGradeColumn(enrollmentIds,
+                        request.getGradePeriodId(), request.getGradeComponentId())
+                .forEach(row -> enrollments.put((Long) row[0], row));
+
+        BulkGradeResultDTO result = BulkGradeResultDTO.builder().total(request.getGrades().size()).build();
+        List<Object[]> upserts = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (BulkGradeRequestDTO.Entry entry : request.getGrades()) {
+            Long enrollmentId = entry.getSubjectEnrollmentId();
+            Object[] enrollment = enrollments.get(enrollmentId);
+            String error = null;
+            if (!seen.add(enrollmentId)) {
+                error = "Duplicate subject enrollment in request";
+            } else if (entry.getGradeValue().doubleValue() < 0 || entry.getGradeValue().doubleValue() > 5) {
+                error = "Grade value must be between 0 and 5";
+            } else if (enrollment == null) {
+                error = "Subject enrollment not found";
+            } else if (!assignment.getId().equals(enrollment[1])) {
+                error = "Subject enrollment does not belong to subject assignment " + assignment.getId();
+            } else if (SubjectEnrollment.SubjectStatus.RETIRADO.name().equals(enrollment[2])) {
+                error = "Subject enrollment is withdrawn";
+            }
+
+            if (error != null) {
+                result.addResult(enrollmentId, BulkGradeResultDTO.RowStatus.FAILED, error);
+                continue;
+            }
+            upserts.add(new Object[]{enrollmentId, entry.getGradeValue(), entry.getComments()});
+            result.addResult(enrollmentId, enrollment[3] == null
+                    ? BulkGradeResultDTO.RowStatus.CREATED
+                    : BulkGradeResultDTO.RowStatus.UPDATED, null);
+        }
+
+        if (!upserts.isEmpty()) {
+            LocalDate assignmentDate = request.getAssignmentDate() != null ? request.getAssignmentDate() : LocalDate.now();
+            Long professorId = assignment.getProfessor() != null ? assignment.getProfessor().getId() : null;
+            gradeBatchRepository.batchUpsert(upserts, request.getGradePeriodId(), request.getGradeComponentId(),
+                    assignmentDate, professorId);
+            List<Long> upsertedIds = upserts.stream().map(row -> (Long) row[0]).toList();
+            gradeBatchRepository.recomputeFinalGrades(upsertedIds);
+            statsService.gradesChanged(result.getCreated());
+            outboxService.gradesBulkUpserted(assignment.getId(), request.getGradePeriodId(),
+                    request.getGradeComponentId(), upsertedIds);
+        }
+
+        log.info("Bulk grade entry finished: {} created, {} updated, {} failed",
+                result.getCreated(), result.getUpdated(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * Actualiza una nota con control de concurrencia optimista
+     *
+     * Con expectedVersion (If-Match) un conflicto se informa sin reintentar; sin ella los cambios
+     * de campo son idempotentes y se reintentan un número acotado de veces en transacciones nuevas.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Grade updateGrade(Long id, Grade grade, Long expectedVersion) {
+        log.info("Updating grade: {} (expected version: {})", id, expectedVersion);
+        int attempts = expectedVersion != null ? 1 : maxUpdateAttempts;
+        return OptimisticRetry.execute("Grade", id, attempts,
+                () -> transactionTemplate.execute(status -> applyGradeUpdate(id, grade, expectedVersion)));
+    }
+
+    private Grade applyGradeUpdate(Long id, Grade grade, Long expectedVersion) {
         Grade existing = gradeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Grade", id));
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw new ConflictException("Grade " + id + " is at version " + existing.getVersion() +
+                    ", expected " + expectedVersion);
+        }
 
         if (grade.getGradeValue() != null) {
             // Validar rango
@@ -99,7 +312,9 @@ public class GradeService {
             existing.setComments(grade.getComments());
         }
 
-        return gradeRepository.save(existing);
+        Grade saved = gradeRepository.saveAndFlush(existing);
+        outboxService.gradeChanged(OutboxService.Action.UPDATED, saved);
+        return saved;
     }
 
     public void deleteGrade(Long id) {
@@ -108,6 +323,9 @@ public class GradeService {
                 .orElseThrow(() -> new ResourceNotFoundException("Grade", id));
 
         gradeRepository.deleteById(id);
+        statsService.gradesChanged(-1);
+        outboxService.gradeChanged(OutboxService.Action.DELETED, grade);
+        atRiskService.enrollmentChanged(grade.getSubjectEnrollment().getId());
         log.info("Grade deleted successfully");
     }
 
@@ -115,5 +333,17 @@ public class GradeService {
     public long countGrades() {
         return gradeRepository.count();
     }
+
+    /**
+     * Agrega a una consulta de la tabla caliente sus notas de períodos archivados
+     */
+    private List<Grade> withArchived(List<Grade> grades, Supplier<List<ArchivedGrade>> archived) {
+        if (!periodArchiveService.isArchiveInUse()) {
+            return grades;
+        }
+        List<Grade> result = new ArrayList<>(grades);
+        archived.get().forEach(grade -> result.add(grade.toGrade()));
+        return result;
+    }
 }
 
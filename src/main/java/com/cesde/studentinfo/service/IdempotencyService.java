@@ -0,0 +1,265 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.repository.IdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service de claves de idempotencia para los POST (header Idempotency-Key)
+ *
+ * Guarda la respuesta de cada clave en un caché en memoria acotado y con vencimiento.
+ * El primer request con una clave la reserva y ejecuta; los duplicados que llegan mientras
+ * está en curso esperan su resultado en lugar de competir, y los posteriores reciben la
+ * respuesta guardada sin volver a ejecutar el service. Opcionalmente la reserva y la respuesta
+ * se replican en la tabla idempotency_keys para que varios nodos compartan las claves.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    private static final long DB_POLL_INTERVAL_MILLIS = 100;
+
+    /**
+     * Resultado de reservar una clave
+     */
+    public enum Outcome {
+        /** El request es el primero con la clave: debe ejecutarse y luego completar o abandonar */
+        EXECUTE,
+        /** Ya hay una respuesta guardada para la clave */
+        REPLAY,
+        /** La clave se usó con un request distinto */
+        MISMATCH,
+        /** Otro request con la misma clave sigue en curso tras la espera máxima */
+        IN_PROGRESS
+    }
+
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    public record Reservation(Outcome outcome, StoredResponse response) {
+    }
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Value("${idempotency.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    @Value("${idempotency.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMillis;
+
+    @Value("${idempotency.db.enabled:false}")
+    private boolean dbEnabled;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong waited = new AtomicLong();
+
+    /**
+     * Reserva la clave o resuelve el request contra la respuesta ya guardada
+     *
+     * @param key         clave con alcance (usuario, método, ruta y header)
+     * @param fingerprint hash del request, para detectar reutilización con otro cuerpo
+     */
+    public Reservation reserve(String key, String fingerprint) {
+        long deadline = System.currentTimeMillis() + waitTimeoutMillis;
+        while (true) {
+            Entry fresh = new Entry(fingerprint);
+            Entry existing = entries.putIfAbsent(key, fresh);
+            if (existing == null) {
+                if (entries.size() > maxEntries) {
+                    evict();
+                }
+                if (dbEnabled) {
+                    Reservation remote = reserveInDatabase(key, fingerprint, deadline);
+                    if (remote.outcome() != Outcome.EXECUTE) {
+                        // La respuesta (o el conflicto) viene de otro nodo: no hay nada que ejecutar aquí
+                        entries.remove(key, fresh);
+                        fresh.response.complete(remote.response());
+                        return remote;
+                    }
+                }
+                return new Reservation(Outcome.EXECUTE, null);
+            }
+
+            if (existing.isExpired()) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                return new Reservation(Outcome.MISMATCH, null);
+            }
+
+            StoredResponse response;
+            try {
+                if (!existing.response.isDone()) {
+                    waited.incrementAndGet();
+                }
+                response = existing.response.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return new Reservation(Outcome.IN_PROGRESS, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Reservation(Outcome.IN_PROGRESS, null);
+            } catch (ExecutionException e) {
+                response = null;
+            }
+            if (response != null) {
+                replayed.incrementAndGet();
+                return new Reservation(Outcome.REPLAY, response);
+            }
+            // El primer request no guardó respuesta (error 5xx): este la reintenta
+            entries.remove(key, existing);
+        }
+    }
+
+    /**
+     * Guarda la respuesta del request que reservó la clave y despierta a los que esperan
+     */
+    public void complete(String key, StoredResponse response) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+            entry.response.complete(response);
+        }
+        if (dbEnabled) {
+            try {
+                idempotencyKeyRepository.complete(key, response.status(), response.contentType(), response.body(), ttlSeconds);
+            } catch (RuntimeException e) {
+                log.warn("Could not persist idempotency key: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Libera la clave sin respuesta (error del servidor): un reintento volverá a ejecutar
+     */
+    public void abandon(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            entry.response.complete(null);
+        }
+        if (dbEnabled) {
+            try {
+                idempotencyKeyRepository.delete(key);
+            } catch (RuntimeException e) {
+                log.warn("Could not release idempotency key: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:60000}",
+               initialDelayString = "${idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        entries.entrySet().removeIf(e -> e.getValue().isExpired());
+        if (dbEnabled) {
+            int deleted = idempotencyKeyRepository.deleteExpired();
+            if (deleted > 0) {
+                log.debug("Purged {} expired idempotency keys from database", deleted);
+            }
+        }
+    }
+
+    /**
+     * Métricas del caché para monitoreo
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("replayed", replayed.get());
+        stats.put("waitedForInFlight", waited.get());
+        stats.put("database", dbEnabled);
+        return stats;
+    }
+
+    private Reservation reserveInDatabase(String key, String fingerprint, long deadline) {
+        while (true) {
+            if (idempotencyKeyRepository.claim(key, fingerprint, ttlSeconds)) {
+                return new Reservation(Outcome.EXECUTE, null);
+            }
+            Optional<Object[]> row = idempotencyKeyRepository.find(key);
+            if (row.isPresent()) {
+                Object[] stored = row.get();
+                if (!fingerprint.equals(stored[0])) {
+                    return new Reservation(Outcome.MISMATCH, null);
+                }
+                if (stored[1] != null) {
+                    replayed.incrementAndGet();
+                    return new Reservation(Outcome.REPLAY,
+                            new StoredResponse((Integer) stored[1], (String) stored[2], (byte[]) stored[3]));
+                }
+            }
+            // En curso en otro nodo (o recién liberada): se consulta de nuevo hasta el límite
+            if (System.currentTimeMillis() >= deadline) {
+                return new Reservation(Outcome.IN_PROGRESS, null);
+            }
+            waited.incrementAndGet();
+            try {
+                Thread.sleep(DB_POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Reservation(Outcome.IN_PROGRESS, null);
+            }
+        }
+    }
+
+    /**
+     * Descarta las entradas vencidas; si el caché sigue lleno descarta respuestas ya completadas
+     * (nunca las que están en curso, que tienen requests esperando)
+     */
+    private void evict() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.entrySet().removeIf(e -> e.getValue().isExpired());
+            int excess = entries.size() - (maxEntries * 9 / 10);
+            if (excess > 0) {
+                log.warn("Idempotency cache holds {} keys, discarding {} completed responses", entries.size(), excess);
+                Iterator<Entry> it = entries.values().iterator();
+                while (excess > 0 && it.hasNext()) {
+                    if (it.next().response.isDone()) {
+                        it.remove();
+                        excess--;
+                    }
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
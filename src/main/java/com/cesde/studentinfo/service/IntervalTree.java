@@ -0,0 +1,176 @@
+package com.cesde.studentinfo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Árbol de intervalos inmutable sobre arreglos ordenados por inicio
+ *
+ * El árbol es implícito: el nodo de un rango [lo, hi] es su punto medio y guarda el fin máximo
+ * de su subárbol, lo que permite descartar ramas completas. Las consultas de solapamiento son
+ * O(log n + k). Las modificaciones devuelven un árbol nuevo (copy-on-write), de modo que las
+ * lecturas concurrentes nunca ven un estado intermedio.
+ *
+ * Los intervalos son semiabiertos: [start, end).
+ */
+public final class IntervalTree<T> {
+
+    private static final IntervalTree<?> EMPTY = new IntervalTree<>(new long[0], new long[0], new Object[0]);
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final Object[] values;
+
+    private IntervalTree(long[] starts, long[] ends, Object[] values) {
+        this.starts = starts;
+        this.ends = ends;
+        this.values = values;
+        this.maxEnds = new long[starts.length];
+        computeMaxEnds(0, starts.length - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> IntervalTree<T> empty() {
+        return (IntervalTree<T>) EMPTY;
+    }
+
+    public static <T> IntervalTree<T> of(List<Interval<T>> intervals) {
+        List<Interval<T>> sorted = new ArrayList<>(intervals);
+        sorted.sort(Comparator.comparingLong(Interval::start));
+        long[] starts = new long[sorted.size()];
+        long[] ends = new long[sorted.size()];
+        Object[] values = new Object[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            starts[i] = sorted.get(i).start();
+            ends[i] = sorted.get(i).end();
+            values[i] = sorted.get(i).value();
+        }
+        return new IntervalTree<>(starts, ends, values);
+    }
+
+    /**
+     * Nuevo árbol con el intervalo agregado
+     */
+    public IntervalTree<T> with(long start, long end, T value) {
+        int n = starts.length;
+        int pos = upperBound(start);
+        long[] newStarts = new long[n + 1];
+        long[] newEnds = new long[n + 1];
+        Object[] newValues = new Object[n + 1];
+        System.arraycopy(starts, 0, newStarts, 0, pos);
+        System.arraycopy(ends, 0, newEnds, 0, pos);
+        System.arraycopy(values, 0, newValues, 0, pos);
+        newStarts[pos] = start;
+        newEnds[pos] = end;
+        newValues[pos] = value;
+        System.arraycopy(starts, pos, newStarts, pos + 1, n - pos);
+        System.arraycopy(ends, pos, newEnds, pos + 1, n - pos);
+        System.arraycopy(values, pos, newValues, pos + 1, n - pos);
+        return new IntervalTree<>(newStarts, newEnds, newValues);
+    }
+
+    /**
+     * Nuevo árbol sin los valores que cumplen la condición (el mismo árbol si no hay cambios)
+     */
+    @SuppressWarnings("unchecked")
+    public IntervalTree<T> without(Predicate<T> condition) {
+        int n = starts.length;
+        long[] newStarts = new long[n];
+        long[] newEnds = new long[n];
+        Object[] newValues = new Object[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (!condition.test((T) values[i])) {
+                newStarts[size] = starts[i];
+                newEnds[size] = ends[i];
+                newValues[size] = values[i];
+                size++;
+            }
+        }
+        if (size == n) {
+            return this;
+        }
+        return new IntervalTree<>(Arrays.copyOf(newStarts, size), Arrays.copyOf(newEnds, size),
+                Arrays.copyOf(newValues, size));
+    }
+
+    /**
+     * Valores cuyo intervalo se solapa con [start, end), ordenados por inicio
+     */
+    public List<T> overlapping(long start, long end) {
+        List<T> result = new ArrayList<>();
+        collect(0, starts.length - 1, start, end, result);
+        return result;
+    }
+
+    /**
+     * Todos los valores ordenados por inicio
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> values() {
+        List<T> result = new ArrayList<>(values.length);
+        for (Object value : values) {
+            result.add((T) value);
+        }
+        return result;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(int lo, int hi, long start, long end, List<T> result) {
+        if (lo > hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        // Ningún intervalo del subárbol termina después del inicio consultado
+        if (maxEnds[mid] <= start) {
+            return;
+        }
+        collect(lo, mid - 1, start, end, result);
+        if (starts[mid] < end) {
+            if (ends[mid] > start) {
+                result.add((T) values[mid]);
+            }
+            // Solo el subárbol derecho puede tener inicios posteriores al fin consultado
+            collect(mid + 1, hi, start, end, result);
+        }
+    }
+
+    private long computeMaxEnds(int lo, int hi) {
+        if (lo > hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(ends[mid], Math.max(computeMaxEnds(lo, mid - 1), computeMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    private int upperBound(long start) {
+        int lo = 0;
+        int hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] <= start) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public record Interval<T>(long start, long end, T value) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.repository.UserBatchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro write-behind del último login de cada usuario
+ *
+ * El login solo deja el timestamp en un mapa concurrente (un valor por usuario, el más reciente);
+ * una tarea periódica lo vuelca con un único UPDATE en batch. Al cerrar el contexto se vacía el buffer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LastLoginRecorder {
+
+    private final UserBatchRepository userBatchRepository;
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public void record(Long userId, LocalDateTime loginAt) {
+        pending.merge(userId, loginAt, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // remove(key, value) conserva los logins que llegan durante el volcado para el siguiente ciclo
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        pending.forEach((userId, loginAt) -> {
+            if (pending.remove(userId, loginAt)) {
+                batch.put(userId, loginAt);
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            userBatchRepository.batchUpdateLastLogin(batch);
+            log.debug("Flushed last login timestamps for {} users", batch.size());
+        } catch (RuntimeException e) {
+            log.error("Could not flush last login timestamps for {} users, retrying next cycle: {}",
+                    batch.size(), e.getMessage());
+            batch.forEach(this::record);
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        log.info("Draining {} pending last login timestamps", pending.size());
+        flush();
+    }
+}
@@ -29,6 +29,7 @@ public class LevelEnrollmentService {
     private final LevelRepository levelRepository;
     private final AcademicPeriodRepository academicPeriodRepository;
     private final CourseGroupRepository courseGroupRepository;
+    private final OutboxService outboxService;
 
     @Transactional(readOnly = true)
     public List<LevelEnrollment> getAllLevelEnrollments() {
@@ -131,6 +132,7 @@ public class LevelEnrollmentService {
         }
 
         LevelEnrollment saved = levelEnrollmentRepository.save(enrollment);
+        outboxService.levelEnrollmentChanged(OutboxService.Action.CREATED, saved);
         log.info("Level enrollment created successfully with ID: {}", saved.getId());
         return saved;
     }
@@ -154,6 +156,7 @@ public class LevelEnrollmentService {
         }
 
         LevelEnrollment updated = levelEnrollmentRepository.save(existing);
+        outboxService.levelEnrollmentChanged(OutboxService.Action.UPDATED, updated);
         log.info("Level enrollment updated successfully");
         return updated;
     }
@@ -174,6 +177,7 @@ public class LevelEnrollmentService {
         }
 
         LevelEnrollment updated = levelEnrollmentRepository.save(enrollment);
+        outboxService.levelEnrollmentChanged(OutboxService.Action.UPDATED, updated);
         log.info("Level enrollment status updated successfully");
         return updated;
     }
@@ -181,11 +185,11 @@ public class LevelEnrollmentService {
     public void deleteLevelEnrollment(Long id) {
         log.info("Deleting level enrollment with ID: {}", id);
 
-        if (!levelEnrollmentRepository.existsById(id)) {
-            throw new ResourceNotFoundException("LevelEnrollment", id);
-        }
+        LevelEnrollment enrollment = levelEnrollmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("LevelEnrollment", id));
 
         levelEnrollmentRepository.deleteById(id);
+        outboxService.levelEnrollmentChanged(OutboxService.Action.DELETED, enrollment);
         log.info("Level enrollment deleted successfully");
     }
 }
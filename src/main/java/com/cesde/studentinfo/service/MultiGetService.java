@@ -0,0 +1,130 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Carga por lotes de entidades por id para los endpoints multi-get (?ids=1,2,3)
+ *
+ * Los ids se deduplican, se descartan los que ya están en el mapa de identidad del request y el
+ * resto se consulta con IN en bloques de read.multi-get.chunk-size, para no acercarse al límite
+ * de paquete de MySQL ni generar un plan distinto por cada cantidad de ids. El resultado sale en
+ * el orden de la solicitud y sin los ids inexistentes. Los cargadores por lotes de GraphQL usan
+ * las mismas consultas por bloques.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MultiGetService {
+
+    private final RequestIdentityCache identityCache;
+
+    @Value("${read.multi-get.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${read.multi-get.max-ids:1000}")
+    private int maxIds;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong requestedIds = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    /**
+     * Multi-get de los endpoints REST: valida la cantidad de ids y carga con {@link #fetch}
+     */
+    public <T> List<T> load(Class<T> type, List<Long> ids, Function<T, Long> idOf,
+                            Function<Collection<Long>, List<T>> finder) {
+        List<Long> requested = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (requested.isEmpty()) {
+            throw new BusinessException("ids must contain at least one id");
+        }
+        if (requested.size() > maxIds) {
+            throw new BusinessException("At most " + maxIds + " ids can be requested at once");
+        }
+        return fetch(type, requested, idOf, finder);
+    }
+
+    /**
+     * Carga sin límite de cantidad, para los cargadores por lotes (GraphQL) cuyo tamaño ya está acotado
+     *
+     * @param type   tipo de la entidad, clave del mapa de identidad
+     * @param ids    ids en el orden pedido (puede traer repetidos)
+     * @param idOf   id de una entidad cargada
+     * @param finder consulta IN para un bloque de ids; debe traer con JOIN FETCH lo que use el DTO
+     */
+    public <T> List<T> fetch(Class<T> type, Collection<Long> ids, Function<T, Long> idOf,
+                             Function<Collection<Long>, List<T>> finder) {
+        List<Long> requested = ids.stream().filter(Objects::nonNull).distinct().toList();
+        requests.incrementAndGet();
+        requestedIds.addAndGet(requested.size());
+
+        // Fuera de un request HTTP (p. ej. tareas programadas) no hay mapa de identidad que compartir
+        Map<Long, Object> loaded = RequestContextHolder.getRequestAttributes() != null
+                ? identityCache.entities(type)
+                : new HashMap<>();
+        List<Long> missing = requested.stream().filter(id -> !loaded.containsKey(id)).toList();
+        cacheHits.addAndGet(requested.size() - missing.size());
+
+        for (int from = 0; from < missing.size(); from += chunkSize) {
+            List<Long> chunk = missing.subList(from, Math.min(from + chunkSize, missing.size()));
+            for (T entity : finder.apply(chunk)) {
+                loaded.put(idOf.apply(entity), entity);
+            }
+            chunk.forEach(id -> loaded.putIfAbsent(id, RequestIdentityCache.MISSING));
+            queries.incrementAndGet();
+        }
+
+        List<T> result = new ArrayList<>(requested.size());
+        for (Long id : requested) {
+            Object entity = loaded.get(id);
+            if (entity != RequestIdentityCache.MISSING) {
+                result.add(type.cast(entity));
+            }
+        }
+        log.debug("Multi-get {}: {} ids, {} from request cache, {} found",
+                type.getSimpleName(), requested.size(), requested.size() - missing.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Consulta IN por bloques de chunk-size claves para relaciones uno a muchos (hijos por id del padre)
+     */
+    public <T> List<T> findInChunks(Collection<Long> keys, Function<Collection<Long>, List<T>> finder) {
+        List<Long> distinct = keys.stream().filter(Objects::nonNull).distinct().toList();
+        List<T> result = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            result.addAll(finder.apply(distinct.subList(from, Math.min(from + chunkSize, distinct.size()))));
+            queries.incrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Métricas de los multi-get para monitoreo
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.get());
+        stats.put("requestedIds", requestedIds.get());
+        stats.put("queries", queries.get());
+        stats.put("cacheHits", cacheHits.get());
+        stats.put("chunkSize", chunkSize);
+        stats.put("maxIds", maxIds);
+        return stats;
+    }
+}
@@ -0,0 +1,52 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.exception.ConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Reintento acotado ante conflictos de concurrencia optimista (@Version)
+ *
+ * Solo apto para actualizaciones idempotentes a nivel de campo: cada intento debe ejecutarse
+ * en una transacción nueva que vuelva a leer la entidad y aplicar los mismos cambios.
+ * Agotados los intentos el conflicto se informa como {@link ConflictException} (HTTP 409).
+ */
+@Slf4j
+public final class OptimisticRetry {
+
+    private static final long BASE_BACKOFF_MILLIS = 5;
+
+    private OptimisticRetry() {
+    }
+
+    public static <T> T execute(String resource, Object id, int maxAttempts, Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (i >= maxAttempts) {
+                    throw new ConflictException(resource + " " + id +
+                            " was modified concurrently, reload it and try again", e);
+                }
+                log.debug("Optimistic lock conflict on {} {} (attempt {}/{}), retrying", resource, id, i, maxAttempts);
+                backoff(i);
+            }
+        }
+    }
+
+    /**
+     * Espera aleatoria creciente para que los editores en conflicto no vuelvan a chocar a la vez
+     */
+    private static void backoff(int attempt) {
+        long max = BASE_BACKOFF_MILLIS << Math.min(attempt, 4);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, max + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Update interrupted while retrying a concurrent modification", e);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.dto.OutboxEventDTO;
+import com.cesde.studentinfo.exception.ServiceUnavailableException;
+import com.cesde.studentinfo.repository.OutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relay del outbox: publica los eventos confirmados por Server-Sent Events
+ *
+ * Un único hilo sondea outbox_events a partir del último offset publicado (el horizonte) y
+ * envía los eventos nuevos en lotes a los suscriptores al día. Los ids AUTO_INCREMENT se asignan
+ * al insertar y no al confirmar, así que un hueco en la secuencia puede ser una transacción aún
+ * abierta: el relay lo espera hasta gap-timeout-ms antes de saltarlo. Los ids saltados se vuelven
+ * a buscar en cada ciclo durante late-event-window-ms: si la transacción larga confirma en ese
+ * tiempo, el evento se envía a los suscriptores que ya pasaron su offset (sin mover su cursor).
+ * Los suscriptores que se conectan con un offset anterior se ponen al día desde la BD en lotes
+ * acotados por ciclo antes de recibir los eventos en vivo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelayService {
+
+    public static final String EVENT_NAME = "outbox";
+
+    private final OutboxRepository outboxRepository;
+
+    @Value("${events.relay.poll-interval-ms:500}")
+    private long pollIntervalMillis;
+
+    @Value("${events.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${events.relay.gap-timeout-ms:5000}")
+    private long gapTimeoutMillis;
+
+    @Value("${events.relay.late-event-window-ms:300000}")
+    private long lateEventWindowMillis;
+
+    @Value("${events.relay.max-skipped-ids:10000}")
+    private int maxSkippedIds;
+
+    @Value("${events.stream.max-subscribers:200}")
+    private int maxSubscribers;
+
+    @Value("${events.stream.timeout-ms:1800000}")
+    private long streamTimeoutMillis;
+
+    @Value("${events.retention-days:7}")
+    private int retentionDays;
+
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicBoolean signalPending = new AtomicBoolean();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong skippedGaps = new AtomicLong();
+    private final AtomicLong lateEvents = new AtomicLong();
+    // Ids saltados -> instante en que se saltaron; solo lo usa el hilo del relay
+    private final TreeMap<Long, Long> skippedIds = new TreeMap<>();
+    private volatile long horizon = -1;
+    private long gapSince;
+    private ScheduledExecutorService relay;
+
+    @PostConstruct
+    public void init() {
+        relay = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "outbox-relay");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relay.shutdownNow();
+        subscribers.forEach(s -> s.emitter.complete());
+    }
+
+    /**
+     * Arranca el relay desde el último evento existente: lo anterior solo se envía a quien lo pida con since
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            horizon = outboxRepository.findMaxId();
+            log.info("Outbox relay started at offset {}", horizon);
+        } catch (Exception e) {
+            log.warn("Could not read outbox offset, relay starts on first poll: {}", e.getMessage());
+        }
+        relay.scheduleWithFixedDelay(this::safeTick, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Aviso tras el commit de un evento: adelanta el siguiente ciclo sin acumular ejecuciones
+     */
+    public void signal() {
+        if (signalPending.compareAndSet(false, true)) {
+            relay.execute(this::safeTick);
+        }
+    }
+
+    /**
+     * Registra un suscriptor
+     *
+     * @param since último offset recibido por el consumidor; null para empezar en vivo
+     */
+    public SseEmitter subscribe(Long since) {
+        // Se reserva el cupo antes de registrar: dos suscripciones simultáneas no pasan juntas del límite
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException("Too many event stream subscribers, try again later", 5);
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Subscriber subscriber;
+        try {
+            long start = since != null ? Math.max(0, since) : horizon >= 0 ? horizon : outboxRepository.findMaxId();
+            subscriber = new Subscriber(emitter, start);
+            emitter.onCompletion(() -> unregister(subscriber));
+            emitter.onTimeout(() -> unregister(subscriber));
+            emitter.onError(e -> unregister(subscriber));
+            subscribers.add(subscriber);
+        } catch (RuntimeException e) {
+            subscriberCount.decrementAndGet();
+            throw e;
+        }
+        log.debug("Event stream subscriber registered from offset {}", subscriber.cursor);
+        signal();
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${events.stream.heartbeat-ms:15000}",
+               initialDelayString = "${events.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            relay.execute(() -> subscribers.forEach(s -> {
+                try {
+                    s.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    drop(s);
+                }
+            }));
+        }
+    }
+
+    @Scheduled(cron = "${events.purge-cron:0 30 3 * * *}")
+    public void purgeOldEvents() {
+        int deleted = outboxRepository.deleteOlderThanDays(retentionDays);
+        if (deleted > 0) {
+            log.info("Purged {} outbox events older than {} days", deleted, retentionDays);
+        }
+    }
+
+    /**
+     * Métricas del relay para monitoreo
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("offset", horizon);
+        stats.put("subscribers", subscribers.size());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("published", published.get());
+        stats.put("skippedGaps", skippedGaps.get());
+        stats.put("lateEvents", lateEvents.get());
+        return stats;
+    }
+
+    private void safeTick() {
+        signalPending.set(false);
+        try {
+            tick();
+        } catch (Exception e) {
+            log.warn("Outbox relay cycle failed: {}", e.getMessage());
+        }
+    }
+
+    private void tick() {
+        if (horizon < 0) {
+            horizon = outboxRepository.findMaxId();
+        }
+        long before = horizon;
+        rescanSkipped();
+        List<OutboxEventDTO> live = advance(outboxRepository.findAfter(before, batchSize));
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.cursor < before) {
+                // Consumidor atrasado: un lote desde la BD por ciclo, sin pasar del horizonte
+                List<OutboxEventDTO> catchUp = new ArrayList<>();
+                for (Object[] row : outboxRepository.findAfter(subscriber.cursor, batchSize)) {
+                    if ((Long) row[0] > before) {
+                        break;
+                    }
+                    catchUp.add(toEvent(row));
+                }
+                if (catchUp.isEmpty()) {
+                    subscriber.cursor = before;
+                } else {
+                    send(subscriber, catchUp);
+                }
+                if (subscriber.cursor < before) {
+                    signal();
+                    continue;
+                }
+            }
+            if (subscriber.cursor == before && !live.isEmpty()) {
+                send(subscriber, live);
+            } else if (subscriber.cursor > horizon) {
+                // Offset futuro (p. ej. tras purgar la tabla): se alinea con el horizonte
+                subscriber.cursor = horizon;
+            }
+        }
+        if (live.size() == batchSize) {
+            signal();
+        }
+    }
+
+    /**
+     * Avanza el horizonte sobre los eventos contiguos; un hueco detiene el avance hasta gap-timeout-ms
+     */
+    private List<OutboxEventDTO> advance(List<Object[]> rows) {
+        List<OutboxEventDTO> events = new ArrayList<>();
+        long next = horizon;
+        for (Object[] row : rows) {
+            long id = (Long) row[0];
+            if (id != next + 1) {
+                long now = System.currentTimeMillis();
+                if (gapSince == 0) {
+                    gapSince = now;
+                }
+                if (now - gapSince < gapTimeoutMillis) {
+                    break;
+                }
+                log.debug("Skipping outbox ids {}..{} (rolled back or not yet committed)", next + 1, id - 1);
+                skippedGaps.incrementAndGet();
+                for (long missing = next + 1; missing < id && skippedIds.size() < maxSkippedIds; missing++) {
+                    skippedIds.put(missing, now);
+                }
+            }
+            gapSince = 0;
+            events.add(toEvent(row));
+            next = id;
+        }
+        if (events.size() == rows.size()) {
+            gapSince = 0;
+        } else {
+            // Se vuelve a sondear pronto para no esperar un ciclo completo por el hueco
+            relay.schedule(this::signal, Math.min(pollIntervalMillis, gapTimeoutMillis), TimeUnit.MILLISECONDS);
+        }
+        horizon = next;
+        published.addAndGet(events.size());
+        return events;
+    }
+
+    /**
+     * Busca los ids saltados que ya confirmaron y los envía a los suscriptores que pasaron su offset;
+     * los atrasados los leen de la BD al ponerse al día
+     */
+    private void rescanSkipped() {
+        if (skippedIds.isEmpty()) {
+            return;
+        }
+        long expiredBefore = System.currentTimeMillis() - lateEventWindowMillis;
+        skippedIds.values().removeIf(skippedAt -> skippedAt < expiredBefore);
+        if (skippedIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(skippedIds.keySet());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Object[]> rows = outboxRepository.findByIds(ids.subList(from, Math.min(from + batchSize, ids.size())));
+            for (Object[] row : rows) {
+                OutboxEventDTO event = toEvent(row);
+                skippedIds.remove(event.getOffset());
+                lateEvents.incrementAndGet();
+                published.incrementAndGet();
+                log.debug("Relaying late outbox event {}", event.getOffset());
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.cursor >= event.getOffset()) {
+                        sendLate(subscriber, event);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Envía un evento tardío con el id SSE del cursor actual, así el offset para reanudar no retrocede
+     */
+    private void sendLate(Subscriber subscriber, OutboxEventDTO event) {
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(subscriber.cursor))
+                    .name(EVENT_NAME)
+                    .data(List.of(event)));
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, List<OutboxEventDTO> batch) {
+        long last = batch.get(batch.size() - 1).getOffset();
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(last))
+                    .name(EVENT_NAME)
+                    .data(batch));
+            subscriber.cursor = last;
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber);
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        unregister(subscriber);
+        subscriber.emitter.completeWithError(new IOException("Event stream subscriber disconnected"));
+    }
+
+    private static OutboxEventDTO toEvent(Object[] row) {
+        return OutboxEventDTO.builder()
+                .offset((Long) row[0])
+                .aggregateType((String) row[1])
+                .aggregateId((Long) row[2])
+                .eventType((String) row[3])
+                .payload((String) row[4])
+                .occurredAt((LocalDateTime) row[5])
+                .build();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private volatile long cursor;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.model.Attendance;
+import com.cesde.studentinfo.model.CourseEnrollment;
+import com.cesde.studentinfo.model.Grade;
+import com.cesde.studentinfo.model.LevelEnrollment;
+import com.cesde.studentinfo.repository.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Service del outbox transaccional de eventos de cambio
+ *
+ * Cada mutación de notas, asistencias e inscripciones escribe su evento en outbox_events
+ * dentro de la misma transacción (propagación MANDATORY): si el cambio se revierte, el evento
+ * también. Al confirmar se avisa al relay para que lo publique sin esperar al siguiente sondeo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    public enum Action {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxRelayService outboxRelayService;
+    private final ObjectMapper objectMapper;
+
+    public void gradeChanged(Action action, Grade grade) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", grade.getId());
+        payload.put("subjectEnrollmentId", grade.getSubjectEnrollment() != null ? grade.getSubjectEnrollment().getId() : null);
+        if (action != Action.DELETED) {
+            payload.put("gradePeriodId", grade.getGradePeriod() != null ? grade.getGradePeriod().getId() : null);
+            payload.put("gradeComponentId", grade.getGradeComponent() != null ? grade.getGradeComponent().getId() : null);
+            payload.put("gradeValue", grade.getGradeValue());
+            payload.put("version", grade.getVersion());
+        }
+        record("Grade", grade.getId(), "GRADE_" + action, payload);
+    }
+
+    /**
+     * Un solo evento por columna registrada con POST /grades/bulk
+     */
+    public void gradesBulkUpserted(Long subjectAssignmentId, Long gradePeriodId, Long gradeComponentId,
+                                   Collection<Long> subjectEnrollmentIds) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("subjectAssignmentId", subjectAssignmentId);
+        payload.put("gradePeriodId", gradePeriodId);
+        payload.put("gradeComponentId", gradeComponentId);
+        payload.put("subjectEnrollmentIds", subjectEnrollmentIds);
+        record("SubjectAssignment", subjectAssignmentId, "GRADES_BULK_UPSERTED", payload);
+    }
+
+    /**
+     * Un solo evento por bloque del cierre de período (inscripciones a nivel cerradas y egresados)
+     */
+    public void levelEnrollmentsClosed(Long academicPeriodId, Long courseId, Collection<Long> levelEnrollmentIds,
+                                       Collection<Long> graduatedCourseEnrollmentIds) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("academicPeriodId", academicPeriodId);
+        payload.put("courseId", courseId);
+        payload.put("levelEnrollmentIds", levelEnrollmentIds);
+        payload.put("graduatedCourseEnrollmentIds", graduatedCourseEnrollmentIds);
+        record("AcademicPeriod", academicPeriodId, "LEVEL_ENROLLMENTS_CLOSED", payload);
+    }
+
+    /**
+     * Un solo evento por grupo promovido (inscripciones a nivel creadas en el período destino)
+     */
+    public void levelEnrollmentsPromoted(Long academicPeriodId, Long sourceGroupId, Long targetGroupId,
+                                         Collection<Long> levelEnrollmentIds) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("academicPeriodId", academicPeriodId);
+        payload.put("sourceGroupId", sourceGroupId);
+        payload.put("targetGroupId", targetGroupId);
+        payload.put("levelEnrollmentIds", levelEnrollmentIds);
+        record("AcademicPeriod", academicPeriodId, "LEVEL_ENROLLMENTS_PROMOTED", payload);
+    }
+
+    public void attendanceChanged(Action action, Attendance attendance) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", attendance.getId());
+        payload.put("subjectEnrollmentId", attendance.getSubjectEnrollment() != null ? attendance.getSubjectEnrollment().getId() : null);
+        payload.put("classSessionId", attendance.getClassSession() != null ? attendance.getClassSession().getId() : null);
+        if (action != Action.DELETED) {
+            payload.put("status", attendance.getStatus());
+            payload.put("isExcused", attendance.getIsExcused());
+            payload.put("version", attendance.getVersion());
+        }
+        record("Attendance", attendance.getId(), "ATTENDANCE_" + action, payload);
+    }
+
+    public void courseEnrollmentChanged(Action action, CourseEnrollment enrollment) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", enrollment.getId());
+        payload.put("studentId", enrollment.getStudent() != null ? enrollment.getStudent().getId() : null);
+        payload.put("courseId", enrollment.getCourse() != null ? enrollment.getCourse().getId() : null);
+        payload.put("academicPeriodId", enrollment.getAcademicPeriod() != null ? enrollment.getAcademicPeriod().getId() : null);
+        if (action != Action.DELETED) {
+            payload.put("enrollmentStatus", enrollment.getEnrollmentStatus());
+        }
+        record("CourseEnrollment", enrollment.getId(), "COURSE_ENROLLMENT_" + action, payload);
+    }
+
+    public void levelEnrollmentChanged(Action action, LevelEnrollment enrollment) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", enrollment.getId());
+        payload.put("courseEnrollmentId", enrollment.getCourseEnrollment() != null ? enrollment.getCourseEnrollment().getId() : null);
+        payload.put("levelId", enrollment.getLevel() != null ? enrollment.getLevel().getId() : null);
+        payload.put("academicPeriodId", enrollment.getAcademicPeriod() != null ? enrollment.getAcademicPeriod().getId() : null);
+        payload.put("groupId", enrollment.getGroup() != null ? enrollment.getGroup().getId() : null);
+        if (action != Action.DELETED) {
+            payload.put("status", enrollment.getStatus());
+            payload.put("finalAverage", enrollment.getFinalAverage());
+        }
+        record("LevelEnrollment", enrollment.getId(), "LEVEL_ENROLLMENT_" + action, payload);
+    }
+
+    private void record(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload for " + eventType, e);
+        }
+        outboxRepository.append(aggregateType, aggregateId, eventType, json);
+        log.debug("Outbox event {} recorded for {} {}", eventType, aggregateType, aggregateId);
+        TransactionCallbacks.afterCommit(outboxRelayService::signal);
+    }
+}
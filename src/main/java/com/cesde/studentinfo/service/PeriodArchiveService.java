@@ -0,0 +1,264 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.exception.BusinessException;
+import com.cesde.studentinfo.exception.ConflictException;
+import com.cesde.studentinfo.exception.ResourceNotFoundException;
+import com.cesde.studentinfo.model.AcademicPeriod;
+import com.cesde.studentinfo.repository.AcademicPeriodRepository;
+import com.cesde.studentinfo.repository.PeriodArchiveRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Service de archivo de períodos académicos cerrados
+ *
+ * Mueve las sesiones de clase (cada una con sus asistencias, en el mismo lote) y las notas de un
+ * período inactivo a las tablas *_archive en lotes de archive.batch-size notas o
+ * archive.session-batch-size sesiones, cada uno en su propia transacción corta y con una pausa
+ * de archive.batch-pause-ms entre lotes para no competir con el tráfico en línea. Los archivos
+ * corren de a uno en un hilo propio; uno interrumpido se retoma volviendo a pedirlo.
+ *
+ * Los contadores del dashboard cuentan solo las tablas calientes: al terminar cada archivo se
+ * reconcilian para descontar lo movido.
+ *
+ * Las consultas históricas (por estudiante, por inscripción, por sesión o por id) de
+ * GradeService, AttendanceService y ClassSessionService combinan las tablas calientes con las de
+ * archivo; mientras no haya ningún período archivado no consultan el archivo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PeriodArchiveService {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private final PeriodArchiveRepository periodArchiveRepository;
+    private final AcademicPeriodRepository academicPeriodRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StatsService statsService;
+
+    @Value("${archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${archive.session-batch-size:50}")
+    private int sessionBatchSize;
+
+    @Value("${archive.batch-pause-ms:100}")
+    private long batchPauseMillis;
+
+    @Value("${archive.auto.enabled:false}")
+    private boolean autoArchiveEnabled;
+
+    @Value("${archive.auto.after-days:30}")
+    private int autoArchiveAfterDays;
+
+    private final Set<Long> queuedPeriods = ConcurrentHashMap.newKeySet();
+    private final AtomicLong rowsArchived = new AtomicLong();
+    private final AtomicLong completedRuns = new AtomicLong();
+    private final AtomicLong failedRuns = new AtomicLong();
+    private volatile boolean archiveInUse;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "period-archive");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            archiveInUse = periodArchiveRepository.countArchivedPeriods() > 0;
+        } catch (RuntimeException e) {
+            // Sin la tabla period_archives (esquema sin migrar) las lecturas siguen solo en las tablas calientes
+            log.error("Could not read period archive state at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Indica si las lecturas históricas deben consultar también las tablas de archivo
+     */
+    public boolean isArchiveInUse() {
+        return archiveInUse;
+    }
+
+    /**
+     * Encola el archivo de un período inactivo y devuelve su estado actual
+     */
+    public Map<String, Object> requestArchive(Long periodId) {
+        AcademicPeriod period = academicPeriodRepository.findById(periodId)
+                .orElseThrow(() -> new ResourceNotFoundException("AcademicPeriod", periodId));
+        if (Boolean.TRUE.equals(period.getIsActive())) {
+            throw new BusinessException("Academic period " + period.getName() + " is active and cannot be archived");
+        }
+        if (!queuedPeriods.add(periodId)) {
+            throw new ConflictException("Academic period " + period.getName() + " is already being archived");
+        }
+        periodArchiveRepository.markRunning(periodId);
+        archiveInUse = true;
+        executor.execute(() -> run(periodId));
+        return getStatus(periodId);
+    }
+
+    /**
+     * Estado del archivo de un período: filas movidas, inicio, fin y último error
+     */
+    public Map<String, Object> getStatus(Long periodId) {
+        List<Object[]> rows = periodArchiveRepository.findByPeriodId(periodId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Academic period " + periodId + " has not been archived");
+        }
+        Object[] row = rows.get(0);
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("academicPeriodId", row[0]);
+        status.put("status", row[1]);
+        status.put("gradesMoved", row[2]);
+        status.put("attendanceMoved", row[3]);
+        status.put("sessionsMoved", row[4]);
+        status.put("startedAt", row[5]);
+        status.put("finishedAt", row[6]);
+        status.put("lastError", row[7]);
+        return status;
+    }
+
+    /**
+     * Archiva los períodos inactivos terminados hace más de archive.auto.after-days días
+     */
+    @Scheduled(cron = "${archive.auto.cron:0 0 2 * * *}")
+    public void archiveClosedPeriods() {
+        if (!autoArchiveEnabled) {
+            return;
+        }
+        for (Long periodId : periodArchiveRepository.findClosedPeriodsToArchive(
+                LocalDate.now().minusDays(autoArchiveAfterDays))) {
+            if (queuedPeriods.add(periodId)) {
+                periodArchiveRepository.markRunning(periodId);
+                archiveInUse = true;
+                executor.execute(() -> run(periodId));
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("archiveInUse", archiveInUse);
+        stats.put("queued", queuedPeriods.size());
+        stats.put("rowsArchived", rowsArchived.get());
+        stats.put("completedRuns", completedRuns.get());
+        stats.put("failedRuns", failedRuns.get());
+        stats.put("batchSize", batchSize);
+        return stats;
+    }
+
+    private void run(Long periodId) {
+        long start = System.currentTimeMillis();
+        try {
+            int[] sessionsAndAttendance = moveSessions(periodId);
+            int sessions = sessionsAndAttendance[0];
+            int attendance = sessionsAndAttendance[1];
+            int grades = moveAll(periodId, periodArchiveRepository::archiveGradeBatch);
+            periodArchiveRepository.markFinished(periodId, STATUS_COMPLETED, null);
+            completedRuns.incrementAndGet();
+            log.info("Archived academic period {}: {} grades, {} attendance, {} sessions in {} ms",
+                    periodId, grades, attendance, sessions, System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            markFailed(periodId, "Interrupted");
+        } catch (RuntimeException e) {
+            log.error("Archiving academic period {} failed: {}", periodId, e.getMessage());
+            markFailed(periodId, e.getMessage());
+        } finally {
+            queuedPeriods.remove(periodId);
+            reconcileStats();
+        }
+    }
+
+    /**
+     * Mueve lotes de sesiones con sus asistencias hasta vaciar el período en la tabla caliente
+     *
+     * @return [sesiones movidas, asistencias movidas]
+     */
+    private int[] moveSessions(Long periodId) throws InterruptedException {
+        int[] total = new int[2];
+        while (true) {
+            int[] moved = transactionTemplate.execute(status ->
+                    periodArchiveRepository.archiveSessionBatch(periodId, sessionBatchSize));
+            if (moved == null || moved[0] == 0) {
+                return total;
+            }
+            total[0] += moved[0];
+            total[1] += moved[1];
+            rowsArchived.addAndGet(moved[0] + moved[1]);
+            if (moved[0] < sessionBatchSize) {
+                return total;
+            }
+            Thread.sleep(batchPauseMillis);
+        }
+    }
+
+    private void reconcileStats() {
+        try {
+            statsService.reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile dashboard counters after archiving: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Mueve lotes hasta vaciar el período en la tabla caliente
+     */
+    private int moveAll(Long periodId, BiFunction<Long, Integer, Integer> batch) throws InterruptedException {
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> batch.apply(periodId, batchSize));
+            if (moved == null || moved == 0) {
+                return total;
+            }
+            total += moved;
+            rowsArchived.addAndGet(moved);
+            if (moved < batchSize) {
+                return total;
+            }
+            Thread.sleep(batchPauseMillis);
+        }
+    }
+
+    private void markFailed(Long periodId, String error) {
+        failedRuns.incrementAndGet();
+        try {
+            String message = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+            periodArchiveRepository.markFinished(periodId, STATUS_FAILED, message);
+        } catch (RuntimeException e) {
+            log.warn("Could not record archive failure for period {}: {}", periodId, e.getMessage());
+        }
+    }
+}
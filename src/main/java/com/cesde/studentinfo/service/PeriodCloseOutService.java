@@ -0,0 +1,349 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.exception.BusinessException;
+import com.cesde.studentinfo.exception.ConflictException;
+import com.cesde.studentinfo.exception.ResourceNotFoundException;
+import com.cesde.studentinfo.model.AcademicPeriod;
+import com.cesde.studentinfo.model.CourseEnrollment;
+import com.cesde.studentinfo.model.LevelEnrollment;
+import com.cesde.studentinfo.model.SubjectEnrollment;
+import com.cesde.studentinfo.repository.AcademicPeriodRepository;
+import com.cesde.studentinfo.repository.PeriodCloseOutRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service de cierre de período académico
+ *
+ * Cierra en un solo proceso lo que antes eran llamadas REST una por una: la nota definitiva y el
+ * estado final de cada inscripción a materia (APROBADO con promedio ponderado ≥ 3.0), el promedio
+ * y estado de cada inscripción a nivel (APROBADO si aprobó todas sus materias no retiradas), el
+ * egreso de las inscripciones a curso que aprueban su último nivel con su fila en
+ * student_status_history, y al final la desactivación del período.
+ *
+ * El trabajo se parte por curso y las particiones corren en paralelo (closeout.parallelism).
+ * Cada partición avanza por bloques de closeout.chunk-size inscripciones a nivel: una transacción
+ * por bloque con lecturas agregadas y escrituras JDBC batch, y el checkpoint (último id) en
+ * period_closeouts dentro de la misma transacción. Tras una caída el cierre se retoma solo al
+ * arrancar, o al volver a pedirlo, desde el último bloque confirmado. Antes de desactivar el
+ * período se marca deactivation_pending en period_closeouts, así una caída entre la última
+ * partición y la desactivación también se retoma; un período reactivado a propósito después de un
+ * cierre terminado no se vuelve a cerrar solo. Un período archivado no se cierra: sus notas ya
+ * están en grades_archive.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PeriodCloseOutService {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final BigDecimal PASS_MARK = BigDecimal.valueOf(AtRiskService.PASS_MARK);
+    private static final String CREATED_BY = "closeout";
+
+    private final PeriodCloseOutRepository periodCloseOutRepository;
+    private final AcademicPeriodRepository academicPeriodRepository;
+    private final AcademicPeriodService academicPeriodService;
+    private final OutboxService outboxService;
+    private final StatsService statsService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${closeout.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${closeout.parallelism:4}")
+    private int parallelism;
+
+    private final Set<Long> runningPeriods = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> startedAtMillis = new ConcurrentHashMap<>();
+    private ExecutorService coordinator;
+    private ExecutorService partitions;
+
+    @PostConstruct
+    public void init() {
+        coordinator = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "closeout");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        partitions = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, "closeout-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        partitions.shutdownNow();
+    }
+
+    /**
+     * Retoma los cierres que quedaron a medias por una caída
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            // La consulta ya excluye los períodos archivados
+            for (Long periodId : periodCloseOutRepository.findInterruptedPeriodIds()) {
+                log.info("Resuming interrupted close-out of academic period {}", periodId);
+                submit(periodId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not resume period close-outs at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Encola el cierre de un período (o lo retoma desde su checkpoint) y devuelve su progreso
+     */
+    public Map<String, Object> requestCloseOut(Long periodId) {
+        AcademicPeriod period = academicPeriodRepository.findById(periodId)
+                .orElseThrow(() -> new ResourceNotFoundException("AcademicPeriod", periodId));
+        if (periodCloseOutRepository.isArchived(periodId)) {
+            throw new BusinessException("Academic period " + period.getName() + " is archived and cannot be closed");
+        }
+        if (!submit(periodId)) {
+            throw new ConflictException("Academic period " + period.getName() + " is already being closed");
+        }
+        return getProgress(periodId);
+    }
+
+    /**
+     * Progreso del cierre: totales, particiones por curso y throughput en inscripciones a nivel por segundo
+     */
+    public Map<String, Object> getProgress(Long periodId) {
+        List<Object[]> rows = periodCloseOutRepository.findPartitions(periodId);
+        if (rows.isEmpty() && !runningPeriods.contains(periodId)) {
+            throw new ResourceNotFoundException("Academic period " + periodId + " has no close-out");
+        }
+        int levels = 0;
+        int subjects = 0;
+        int graduated = 0;
+        boolean failed = false;
+        boolean completed = !rows.isEmpty();
+        List<Map<String, Object>> courses = new ArrayList<>();
+        for (Object[] row : rows) {
+            Map<String, Object> course = new LinkedHashMap<>();
+            course.put("courseId", row[0]);
+            course.put("status", row[1]);
+            course.put("levelEnrollmentsClosed", row[3]);
+            course.put("subjectEnrollmentsClosed", row[4]);
+            course.put("graduated", row[5]);
+            course.put("startedAt", row[6]);
+            course.put("finishedAt", row[7]);
+            course.put("lastError", row[8]);
+            courses.add(course);
+            levels += (Integer) row[3];
+            subjects += (Integer) row[4];
+            graduated += (Integer) row[5];
+            failed |= STATUS_FAILED.equals(row[1]);
+            completed &= STATUS_COMPLETED.equals(row[1]);
+        }
+
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("academicPeriodId", periodId);
+        progress.put("status", runningPeriods.contains(periodId) ? STATUS_RUNNING
+                : failed ? STATUS_FAILED : completed ? STATUS_COMPLETED : STATUS_RUNNING);
+        progress.put("levelEnrollmentsClosed", levels);
+        progress.put("subjectEnrollmentsClosed", subjects);
+        progress.put("graduated", graduated);
+        Long started = startedAtMillis.get(periodId);
+        if (started != null && runningPeriods.contains(periodId)) {
+            double seconds = Math.max(1, System.currentTimeMillis() - started) / 1000.0;
+            progress.put("levelEnrollmentsPerSecond", Math.round(levels / seconds * 10) / 10.0);
+        }
+        progress.put("courses", courses);
+        return progress;
+    }
+
+    private boolean submit(Long periodId) {
+        if (!runningPeriods.add(periodId)) {
+            return false;
+        }
+        startedAtMillis.put(periodId, System.currentTimeMillis());
+        coordinator.execute(() -> run(periodId));
+        return true;
+    }
+
+    private void run(Long periodId) {
+        long start = System.currentTimeMillis();
+        try {
+            AcademicPeriod period = academicPeriodRepository.findById(periodId)
+                    .orElseThrow(() -> new ResourceNotFoundException("AcademicPeriod", periodId));
+            List<Long> courseIds = periodCloseOutRepository.findCourseIdsWithLevelEnrollments(periodId);
+            courseIds.forEach(courseId -> periodCloseOutRepository.startPartition(periodId, courseId));
+
+            List<CompletableFuture<Boolean>> futures = courseIds.stream()
+                    .map(courseId -> CompletableFuture.supplyAsync(() -> closePartition(period, courseId), partitions))
+                    .toList();
+            boolean allCompleted = futures.stream().map(CompletableFuture::join).reduce(true, Boolean::logicalAnd);
+
+            if (allCompleted) {
+                // Solo se desactiva cuando todas las particiones terminaron; si no, queda activo para reintentar
+                periodCloseOutRepository.setDeactivationPending(periodId, true);
+                academicPeriodService.updatePeriod(periodId, AcademicPeriod.builder().isActive(false).build());
+                periodCloseOutRepository.setDeactivationPending(periodId, false);
+                log.info("Academic period {} closed: {} courses in {} ms",
+                        period.getName(), courseIds.size(), System.currentTimeMillis() - start);
+            } else {
+                log.warn("Academic period {} close-out finished with failed partitions", period.getName());
+            }
+        } catch (RuntimeException e) {
+            log.error("Close-out of academic period {} failed: {}", periodId, e.getMessage());
+        } finally {
+            runningPeriods.remove(periodId);
+            startedAtMillis.remove(periodId);
+        }
+    }
+
+    /**
+     * Cierra los bloques pendientes de un curso desde su checkpoint
+     *
+     * @return true si la partición quedó completa
+     */
+    private boolean closePartition(AcademicPeriod period, Long courseId) {
+        Long periodId = period.getId();
+        try {
+            List<Object[]> partition = periodCloseOutRepository.findPartitions(periodId).stream()
+                    .filter(row -> courseId.equals(row[0]))
+                    .toList();
+            if (partition.isEmpty() || STATUS_COMPLETED.equals(partition.get(0)[1])) {
+                return true;
+            }
+            long checkpoint = (Long) partition.get(0)[2];
+            String reason = "Cierre del período " + period.getName();
+
+            while (true) {
+                long afterId = checkpoint;
+                Long next = transactionTemplate.execute(status -> closeChunk(periodId, courseId, afterId, reason));
+                if (next == null) {
+                    break;
+                }
+                checkpoint = next;
+            }
+            periodCloseOutRepository.finishPartition(periodId, courseId, STATUS_COMPLETED, null);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Close-out of course {} in period {} failed: {}", courseId, periodId, e.getMessage());
+            String message = e.getMessage() != null && e.getMessage().length() > 500
+                    ? e.getMessage().substring(0, 500) : e.getMessage();
+            try {
+                periodCloseOutRepository.finishPartition(periodId, courseId, STATUS_FAILED, message);
+            } catch (RuntimeException ignored) {
+                // El checkpoint sigue en RUNNING y se retoma al arrancar
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Cierra un bloque de inscripciones a nivel dentro de la transacción en curso
+     *
+     * @return id de la última inscripción del bloque, o null si no quedan
+     */
+    private Long closeChunk(Long periodId, Long courseId, long afterId, String reason) {
+        List<Long> levelIds = periodCloseOutRepository.findNextLevelEnrollmentIds(periodId, courseId, afterId, chunkSize);
+        if (levelIds.isEmpty()) {
+            return null;
+        }
+        LocalDate today = LocalDate.now();
+
+        // Materias: las EN_CURSO toman la nota definitiva y APROBADO/REPROBADO; las demás conservan su estado
+        Map<Long, List<Object[]>> subjectsByLevel = new HashMap<>();
+        List<Object[]> subjectUpdates = new ArrayList<>();
+        for (Object[] row : periodCloseOutRepository.findSubjectRows(levelIds)) {
+            String status = (String) row[2];
+            BigDecimal finalGrade = (BigDecimal) row[3];
+            if (SubjectEnrollment.SubjectStatus.EN_CURSO.name().equals(status)) {
+                finalGrade = (BigDecimal) row[4];
+                status = finalGrade != null && finalGrade.compareTo(PASS_MARK) >= 0
+                        ? SubjectEnrollment.SubjectStatus.APROBADO.name()
+                        : SubjectEnrollment.SubjectStatus.REPROBADO.name();
+                subjectUpdates.add(new Object[]{row[0], status, finalGrade});
+            }
+            subjectsByLevel.computeIfAbsent((Long) row[1], k -> new ArrayList<>())
+                    .add(new Object[]{status, finalGrade});
+        }
+
+        // Niveles EN_CURSO: promedio de las materias no retiradas; egresa quien aprueba el último nivel
+        List<Object[]> levelUpdates = new ArrayList<>();
+        List<Long> graduations = new ArrayList<>();
+        for (Object[] row : periodCloseOutRepository.findLevelRows(levelIds)) {
+            if (!LevelEnrollment.LevelStatus.EN_CURSO.name().equals(row[1])) {
+                continue;
+            }
+            int taken = 0;
+            boolean allApproved = true;
+            BigDecimal sum = BigDecimal.ZERO;
+            int graded = 0;
+            for (Object[] subject : subjectsByLevel.getOrDefault((Long) row[0], List.of())) {
+                if (SubjectEnrollment.SubjectStatus.RETIRADO.name().equals(subject[0])) {
+                    continue;
+                }
+                taken++;
+                allApproved &= SubjectEnrollment.SubjectStatus.APROBADO.name().equals(subject[0]);
+                if (subject[1] != null) {
+                    sum = sum.add((BigDecimal) subject[1]);
+                    graded++;
+                }
+            }
+            boolean approved = taken > 0 && allApproved;
+            BigDecimal average = graded > 0 ? sum.divide(BigDecimal.valueOf(graded), 2, RoundingMode.HALF_UP) : null;
+            String status = approved ? LevelEnrollment.LevelStatus.APROBADO.name()
+                    : LevelEnrollment.LevelStatus.REPROBADO.name();
+            levelUpdates.add(new Object[]{row[0], status, average});
+
+            if (approved && CourseEnrollment.EnrollmentStatus.ACTIVO.name().equals(row[3])
+                    && (Integer) row[4] >= (Integer) row[5]) {
+                graduations.add((Long) row[2]);
+            }
+        }
+
+        if (!subjectUpdates.isEmpty()) {
+            periodCloseOutRepository.batchUpdateSubjectEnrollments(subjectUpdates);
+        }
+        if (!levelUpdates.isEmpty()) {
+            periodCloseOutRepository.batchUpdateLevelEnrollments(levelUpdates, today);
+        }
+        if (!graduations.isEmpty()) {
+            periodCloseOutRepository.batchGraduate(graduations, today, reason, CREATED_BY);
+            statsService.courseEnrollmentChanged(periodId, courseId, CourseEnrollment.EnrollmentStatus.ACTIVO,
+                    CourseEnrollment.EnrollmentStatus.EGRESADO, graduations.size());
+        }
+        long lastId = levelIds.get(levelIds.size() - 1);
+        periodCloseOutRepository.advanceCheckpoint(periodId, courseId, lastId,
+                levelUpdates.size(), subjectUpdates.size(), graduations.size());
+        if (!levelUpdates.isEmpty()) {
+            outboxService.levelEnrollmentsClosed(periodId, courseId,
+                    levelUpdates.stream().map(row -> (Long) row[0]).toList(), graduations);
+        }
+        return lastId;
+    }
+}
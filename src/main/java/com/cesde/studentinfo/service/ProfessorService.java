@@ -22,6 +22,7 @@ import java.util.Optional;
 public class ProfessorService {
 
     private final ProfessorRepository professorRepository;
+    private final MultiGetService multiGetService;
 
     public Professor createProfessor(Professor professor) {
         log.info("Creating professor with identification: {}", professor.getIdentificationNumber());
@@ -63,6 +64,14 @@ public class ProfessorService {
         return professorRepository.findById(id);
     }
 
+    /**
+     * Obtiene varios profesores por ID en el orden pedido; los inexistentes se omiten
+     */
+    @Transactional(readOnly = true)
+    public List<Professor> getProfessorsByIds(List<Long> ids) {
+        return multiGetService.load(Professor.class, ids, Professor::getId, professorRepository::findAllById);
+    }
+
     @Transactional(readOnly = true)
     public Optional<Professor> getProfessorByIdentification(String idNumber) {
         return professorRepository.findByIdentificationNumber(idNumber);
@@ -0,0 +1,294 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.dto.PromotionRequestDTO;
+import com.cesde.studentinfo.dto.PromotionResultDTO;
+import com.cesde.studentinfo.exception.BusinessException;
+import com.cesde.studentinfo.exception.ResourceNotFoundException;
+import com.cesde.studentinfo.model.AcademicPeriod;
+import com.cesde.studentinfo.model.CourseEnrollment;
+import com.cesde.studentinfo.model.CourseGroup;
+import com.cesde.studentinfo.model.Level;
+import com.cesde.studentinfo.model.LevelEnrollment;
+import com.cesde.studentinfo.model.Subject;
+import com.cesde.studentinfo.repository.AcademicPeriodRepository;
+import com.cesde.studentinfo.repository.CourseGroupRepository;
+import com.cesde.studentinfo.repository.CourseRepository;
+import com.cesde.studentinfo.repository.LevelRepository;
+import com.cesde.studentinfo.repository.PromotionBatchRepository;
+import com.cesde.studentinfo.repository.SubjectRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Service de promoción de nivel: inscribe a los estudiantes que aprobaron un nivel en el siguiente
+ *
+ * En lugar de una llamada por inscripción (cada una con sus findById de validación), carga una sola
+ * vez los niveles del curso, las materias de cada nivel, las asignaciones de profesor y los grupos
+ * del período destino, decide en memoria quién puede pasar y escribe con inserts batch las nuevas
+ * inscripciones a nivel y a todas las materias del siguiente nivel. Cada grupo de origen (y las
+ * inscripciones sin grupo) se escribe en su propia transacción.
+ *
+ * Pasa quien tiene el nivel APROBADO, la inscripción a curso ACTIVA, no está en el último nivel y aún
+ * no tiene inscripción al siguiente nivel en el período destino. El grupo destino (indicado o
+ * resuelto por código) debe ser del curso, del período destino y del siguiente nivel, y tener cupo
+ * (max_students) contando sus inscripciones a nivel.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PromotionService {
+
+    private static final int WRITE_CHUNK_SIZE = 500;
+
+    private final PromotionBatchRepository promotionBatchRepository;
+    private final AcademicPeriodRepository academicPeriodRepository;
+    private final CourseRepository courseRepository;
+    private final CourseGroupRepository courseGroupRepository;
+    private final LevelRepository levelRepository;
+    private final SubjectRepository subjectRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+
+    public PromotionResultDTO promote(PromotionRequestDTO request) {
+        AcademicPeriod targetPeriod = academicPeriodRepository.findById(request.getTargetPeriodId())
+                .orElseThrow(() -> new ResourceNotFoundException("AcademicPeriod", request.getTargetPeriodId()));
+        if (!Boolean.TRUE.equals(targetPeriod.getIsActive())) {
+            throw new BusinessException("Target academic period is not active");
+        }
+
+        Long courseId;
+        Long sourcePeriodId;
+        if (request.getSourceGroupId() != null) {
+            CourseGroup sourceGroup = courseGroupRepository.findById(request.getSourceGroupId())
+                    .orElseThrow(() -> new ResourceNotFoundException("CourseGroup", request.getSourceGroupId()));
+            courseId = sourceGroup.getCourse().getId();
+            sourcePeriodId = sourceGroup.getAcademicPeriod().getId();
+        } else if (request.getCourseId() != null && request.getSourcePeriodId() != null) {
+            if (!courseRepository.existsById(request.getCourseId())) {
+                throw new ResourceNotFoundException("Course", request.getCourseId());
+            }
+            if (request.getTargetGroupId() != null) {
+                throw new BusinessException("Target group can only be set when promoting a single group");
+            }
+            courseId = request.getCourseId();
+            sourcePeriodId = request.getSourcePeriodId();
+        } else {
+            throw new BusinessException("Either source group ID or course ID with source period ID is required");
+        }
+        if (sourcePeriodId.equals(targetPeriod.getId())) {
+            throw new BusinessException("Source and target academic periods must be different");
+        }
+        LocalDate enrollmentDate = request.getEnrollmentDate() != null ? request.getEnrollmentDate() : LocalDate.now();
+        log.info("Promoting course {} from period {} to period {}", courseId, sourcePeriodId, targetPeriod.getId());
+
+        // Datos de referencia, una sola vez
+        List<Level> levels = levelRepository.findByCourseId(courseId);
+        Map<Long, Level> nextLevel = new HashMap<>();
+        for (int i = 0; i + 1 < levels.size(); i++) {
+            nextLevel.put(levels.get(i).getId(), levels.get(i + 1));
+        }
+        Map<Long, List<Long>> subjectsByLevel = new HashMap<>();
+        for (Level level : nextLevel.values()) {
+            subjectsByLevel.put(level.getId(), subjectRepository.findByLevelId(level.getId()).stream()
+                    .filter(subject -> !Boolean.FALSE.equals(subject.getIsActive()))
+                    .map(Subject::getId)
+                    .toList());
+        }
+        Map<Long, CourseGroup> sourceGroups = new HashMap<>();
+        Map<String, CourseGroup> targetGroupsByLevelAndCode = new HashMap<>();
+        for (CourseGroup group : courseGroupRepository.findByCourseId(courseId)) {
+            Long periodId = group.getAcademicPeriod().getId();
+            if (periodId.equals(sourcePeriodId)) {
+                sourceGroups.put(group.getId(), group);
+            } else if (periodId.equals(targetPeriod.getId())) {
+                targetGroupsByLevelAndCode.put(group.getLevel().getId() + ":" + group.getGroupCode(), group);
+            }
+        }
+        Map<Long, Long> assignmentBySubject = new HashMap<>();
+        Map<String, Long> assignmentBySubjectAndGroup = new HashMap<>();
+        Set<Long> ambiguousSubjects = new HashSet<>();
+        for (Object[] row : promotionBatchRepository.findActiveAssignments(targetPeriod.getId())) {
+            Long subjectId = (Long) row[1];
+            if (row[2] != null) {
+                assignmentBySubjectAndGroup.put(subjectId + ":" + row[2], (Long) row[0]);
+            }
+            if (assignmentBySubject.putIfAbsent(subjectId, (Long) row[0]) != null) {
+                ambiguousSubjects.add(subjectId);
+            }
+        }
+        ambiguousSubjects.forEach(assignmentBySubject::remove);
+
+        List<Object[]> sourceRows = promotionBatchRepository.findSourceRows(sourcePeriodId, courseId,
+                request.getSourceGroupId());
+        Set<String> existing = new HashSet<>();
+        List<Long> courseEnrollmentIds = sourceRows.stream().map(row -> (Long) row[1]).distinct().toList();
+        for (int from = 0; from < courseEnrollmentIds.size(); from += WRITE_CHUNK_SIZE) {
+            List<Long> chunk = courseEnrollmentIds.subList(from, Math.min(from + WRITE_CHUNK_SIZE, courseEnrollmentIds.size()));
+            for (Object[] row : promotionBatchRepository.findExistingEnrollments(targetPeriod.getId(), chunk)) {
+                existing.add(row[0] + ":" + row[1]);
+            }
+        }
+
+        // Elegibilidad en memoria, agrupando por grupo de origen
+        PromotionResultDTO result = new PromotionResultDTO();
+        Map<Long, List<Object[]>> promotionsBySourceGroup = new LinkedHashMap<>();
+        Map<Long, Integer> skippedBySourceGroup = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (Object[] row : sourceRows) {
+            Long groupId = (Long) row[3];
+            Level next = nextLevel.get((Long) row[2]);
+            String skip = null;
+            if (!LevelEnrollment.LevelStatus.APROBADO.name().equals(row[4])) {
+                skip = "notApproved";
+                result.setNotApproved(result.getNotApproved() + 1);
+            } else if (!CourseEnrollment.EnrollmentStatus.ACTIVO.name().equals(row[5])) {
+                skip = "inactive";
+                result.setInactiveCourseEnrollment(result.getInactiveCourseEnrollment() + 1);
+            } else if (next == null) {
+                skip = "lastLevel";
+                result.setLastLevel(result.getLastLevel() + 1);
+            } else if (existing.contains(row[1] + ":" + next.getId()) || !seen.add((Long) row[1])) {
+                skip = "alreadyEnrolled";
+                result.setAlreadyEnrolled(result.getAlreadyEnrolled() + 1);
+            }
+            if (skip != null) {
+                skippedBySourceGroup.merge(groupId, 1, Integer::sum);
+                continue;
+            }
+            promotionsBySourceGroup.computeIfAbsent(groupId, k -> new ArrayList<>())
+                    .add(new Object[]{row[1], next.getId()});
+        }
+
+        // Grupos destino y cupo validados antes de escribir el primer grupo
+        Map<Long, CourseGroup> targetGroups = new HashMap<>();
+        Map<CourseGroup, Integer> requestedSeats = new HashMap<>();
+        for (Map.Entry<Long, List<Object[]>> entry : promotionsBySourceGroup.entrySet()) {
+            CourseGroup target = resolveTargetGroup(request.getTargetGroupId(), sourceGroups.get(entry.getKey()),
+                    entry.getValue(), nextLevel, targetGroupsByLevelAndCode);
+            targetGroups.put(entry.getKey(), target);
+            if (target != null) {
+                requestedSeats.merge(target, entry.getValue().size(), Integer::sum);
+            }
+        }
+        requestedSeats.forEach((target, seats) -> checkCapacity(target, seats, false));
+
+        for (Map.Entry<Long, List<Object[]>> entry : promotionsBySourceGroup.entrySet()) {
+            Long sourceGroupId = entry.getKey();
+            CourseGroup targetGroup = targetGroups.get(sourceGroupId);
+            Long targetGroupId = targetGroup != null ? targetGroup.getId() : null;
+            List<Object[]> promotions = entry.getValue();
+
+            int subjectsCreated = Objects.requireNonNull(transactionTemplate.execute(status -> {
+                if (targetGroup != null) {
+                    checkCapacity(targetGroup, promotions.size(), true);
+                }
+                return writeGroup(promotions, targetPeriod.getId(), sourceGroupId, targetGroupId, enrollmentDate,
+                        subjectsByLevel, assignmentBySubject, assignmentBySubjectAndGroup);
+            }));
+            result.addGroup(PromotionResultDTO.GroupResult.builder()
+                    .sourceGroupId(sourceGroupId)
+                    .targetGroupId(targetGroupId)
+                    .promoted(promotions.size())
+                    .subjectEnrollmentsCreated(subjectsCreated)
+                    .skipped(skippedBySourceGroup.getOrDefault(sourceGroupId, 0))
+                    .build());
+        }
+        log.info("Promotion finished: {} promoted, {} subject enrollments created, {} not approved, " +
+                 "{} in last level, {} already enrolled", result.getPromoted(), result.getSubjectEnrollmentsCreated(),
+                result.getNotApproved(), result.getLastLevel(), result.getAlreadyEnrolled());
+        return result;
+    }
+
+    /**
+     * Grupo destino: el indicado, o el del siguiente nivel con el mismo código en el período destino
+     *
+     * @param promotions [courseEnrollmentId, nextLevelId] del grupo de origen
+     */
+    private CourseGroup resolveTargetGroup(Long requestedGroupId, CourseGroup sourceGroup, List<Object[]> promotions,
+                                           Map<Long, Level> nextLevel,
+                                           Map<String, CourseGroup> targetGroupsByLevelAndCode) {
+        if (requestedGroupId != null) {
+            // targetGroupsByLevelAndCode solo tiene grupos del curso en el período destino
+            CourseGroup target = targetGroupsByLevelAndCode.values().stream()
+                    .filter(group -> group.getId().equals(requestedGroupId))
+                    .findFirst()
+                    .orElseThrow(() -> new BusinessException(
+                            "Target group must belong to the course and the target academic period"));
+            boolean nextLevelGroup = promotions.stream()
+                    .allMatch(row -> target.getLevel().getId().equals(row[1]));
+            if (!nextLevelGroup) {
+                throw new BusinessException("Target group " + target.getGroupCode() + " is not a group of the next level");
+            }
+            return target;
+        }
+        if (sourceGroup == null || nextLevel.get(sourceGroup.getLevel().getId()) == null) {
+            return null;
+        }
+        return targetGroupsByLevelAndCode.get(
+                nextLevel.get(sourceGroup.getLevel().getId()).getId() + ":" + sourceGroup.getGroupCode());
+    }
+
+    /**
+     * Valida que el grupo tenga cupo para las nuevas inscripciones; con lock bloquea el grupo hasta el commit
+     */
+    private void checkCapacity(CourseGroup group, int seats, boolean lock) {
+        if (group.getMaxStudents() == null) {
+            return;
+        }
+        int enrolled = promotionBatchRepository.countGroupEnrollments(group.getId(), lock);
+        if (enrolled + seats > group.getMaxStudents()) {
+            throw new BusinessException("Course group " + group.getGroupCode() + " has " +
+                    (group.getMaxStudents() - enrolled) + " free places and " + seats + " students to promote");
+        }
+    }
+
+    /**
+     * Escribe las promociones de un grupo de origen dentro de la transacción en curso
+     *
+     * @param promotions [courseEnrollmentId, nextLevelId]
+     * @return inscripciones a materia creadas
+     */
+    private int writeGroup(List<Object[]> promotions, Long targetPeriodId, Long sourceGroupId, Long targetGroupId,
+                           LocalDate enrollmentDate, Map<Long, List<Long>> subjectsByLevel,
+                           Map<Long, Long> assignmentBySubject, Map<String, Long> assignmentBySubjectAndGroup) {
+        Map<Long, Long> levelByCourseEnrollment = new HashMap<>();
+        promotions.forEach(row -> levelByCourseEnrollment.put((Long) row[0], (Long) row[1]));
+
+        int subjectsCreated = 0;
+        List<Long> created = new ArrayList<>();
+        for (int from = 0; from < promotions.size(); from += WRITE_CHUNK_SIZE) {
+            List<Object[]> chunk = promotions.subList(from, Math.min(from + WRITE_CHUNK_SIZE, promotions.size()));
+            List<Object[]> subjectRows = new ArrayList<>();
+            for (Object[] row : promotionBatchRepository.insertLevelEnrollments(chunk, targetPeriodId, targetGroupId,
+                    enrollmentDate)) {
+                Long levelEnrollmentId = (Long) row[0];
+                created.add(levelEnrollmentId);
+                for (Long subjectId : subjectsByLevel.getOrDefault(levelByCourseEnrollment.get((Long) row[1]), List.of())) {
+                    Long assignmentId = targetGroupId != null
+                            ? assignmentBySubjectAndGroup.get(subjectId + ":" + targetGroupId)
+                            : null;
+                    subjectRows.add(new Object[]{levelEnrollmentId, subjectId,
+                            assignmentId != null ? assignmentId : assignmentBySubject.get(subjectId)});
+                }
+            }
+            if (!subjectRows.isEmpty()) {
+                promotionBatchRepository.insertSubjectEnrollments(subjectRows, enrollmentDate);
+                subjectsCreated += subjectRows.size();
+            }
+        }
+        outboxService.levelEnrollmentsPromoted(targetPeriodId, sourceGroupId, targetGroupId, created);
+        return subjectsCreated;
+    }
+}
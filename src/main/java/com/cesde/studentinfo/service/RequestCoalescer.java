@@ -0,0 +1,153 @@
+package com.cesde.studentinfo.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Interceptor de los métodos {@link Coalesced}: single-flight por método y argumentos
+ *
+ * La primera llamada con una clave publica un CompletableFuture y ejecuta el método en el hilo del
+ * propio llamador; las concurrentes esperan ese futuro en lugar de repetir la consulta. Se aplica por fuera
+ * de la transacción (ver CoalescingConfig), así que las llamadas agrupadas no abren conexión.
+ * Las llamadas hechas dentro de una transacción existente no se agrupan: podrían ver sus propios
+ * cambios aún sin confirmar. Los errores se propagan a todos los que esperaban y no se cachean.
+ * Los resultados List, Set y Map se comparten como vistas no modificables, así ningún llamador
+ * puede alterar lo que reciben los demás.
+ */
+@Slf4j
+public class RequestCoalescer implements MethodInterceptor {
+
+    private final ConcurrentHashMap<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Method, Counters> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Coalesced coalesced = AnnotatedElementUtils.findMergedAnnotation(method, Coalesced.class);
+        if (coalesced == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+
+        Counters stats = counters.computeIfAbsent(method, m -> new Counters());
+        stats.calls.incrementAndGet();
+        Key key = new Key(method, Arrays.asList(invocation.getArguments()));
+        while (true) {
+            Flight flight = new Flight();
+            Flight existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                return lead(invocation, key, flight, coalesced.ttlMillis(), stats);
+            }
+            if (existing.isExpired()) {
+                flights.remove(key, existing);
+                continue;
+            }
+            if (existing.result.isDone()) {
+                stats.cacheHits.incrementAndGet();
+            } else {
+                stats.collapsed.incrementAndGet();
+            }
+            return await(existing);
+        }
+    }
+
+    /**
+     * Métricas por método: llamadas, ejecuciones reales y proporción de llamadas ahorradas
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        counters.forEach((method, c) -> {
+            long calls = c.calls.get();
+            long executions = c.executions.get();
+            Map<String, Object> entry = new TreeMap<>();
+            entry.put("calls", calls);
+            entry.put("executions", executions);
+            entry.put("collapsed", c.collapsed.get());
+            entry.put("cacheHits", c.cacheHits.get());
+            entry.put("collapseRatio", calls == 0 ? 0.0 : Math.round((calls - executions) * 1000.0 / calls) / 1000.0);
+            stats.put(method.getDeclaringClass().getSimpleName() + "." + method.getName(), entry);
+        });
+        stats.put("inFlightOrCached", flights.size());
+        return stats;
+    }
+
+    private Object lead(MethodInvocation invocation, Key key, Flight flight, long ttlMillis, Counters stats)
+            throws Throwable {
+        stats.executions.incrementAndGet();
+        try {
+            Object value = unmodifiable(invocation.proceed());
+            flight.result.complete(value);
+            if (ttlMillis > 0) {
+                flight.expiresAt = System.currentTimeMillis() + ttlMillis;
+                CompletableFuture.delayedExecutor(ttlMillis, TimeUnit.MILLISECONDS)
+                        .execute(() -> flights.remove(key, flight));
+            } else {
+                flights.remove(key, flight);
+            }
+            return value;
+        } catch (Throwable e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Object unmodifiable(Object value) {
+        if (value instanceof List<?> list) {
+            return Collections.unmodifiableList(list);
+        }
+        if (value instanceof Set<?> set) {
+            return Collections.unmodifiableSet(set);
+        }
+        if (value instanceof Map<?, ?> map) {
+            return Collections.unmodifiableMap(map);
+        }
+        return value;
+    }
+
+    private Object await(Flight flight) throws Throwable {
+        try {
+            return flight.result.get();
+        } catch (ExecutionException | CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private record Key(Method method, List<Object> arguments) {
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+
+    private static final class Counters {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong executions = new AtomicLong();
+        private final AtomicLong collapsed = new AtomicLong();
+        private final AtomicLong cacheHits = new AtomicLong();
+    }
+}
@@ -0,0 +1,29 @@
+package com.cesde.studentinfo.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mapa de identidad en memoria por request HTTP
+ *
+ * Guarda las entidades ya cargadas por tipo e id mientras dura el request; un id pedido de nuevo
+ * (otro multi-get, otra pantalla armada en el mismo request) no vuelve a la base de datos.
+ * Los ids inexistentes también se recuerdan para no consultarlos dos veces.
+ * Los mapas son concurrentes porque el request puede delegar trabajo en otros hilos
+ * (respuestas asíncronas, GraphQL) que comparten el mismo scope.
+ */
+@Component
+@RequestScope
+public class RequestIdentityCache {
+
+    static final Object MISSING = new Object();
+
+    private final Map<Class<?>, Map<Long, Object>> entities = new ConcurrentHashMap<>();
+
+    Map<Long, Object> entities(Class<?> type) {
+        return entities.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+    }
+}
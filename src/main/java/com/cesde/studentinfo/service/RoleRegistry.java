@@ -0,0 +1,261 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.model.Role;
+import com.cesde.studentinfo.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro en memoria de roles con índice de bit por rol
+ *
+ * Carga todos los roles una vez y asigna a cada uno un bit estable: los roles nuevos toman el
+ * siguiente bit libre y los bits de roles eliminados no se reutilizan, así una máscara ya calculada
+ * sigue siendo válida tras un refresh. Los permisos de un usuario son una {@link RoleMask} inmutable;
+ * comprobar un rol es un test de bit y los GrantedAuthority se comparten entre usuarios (uno por rol,
+ * y una sola colección por combinación de roles). Se refresca tras el commit de los cambios hechos
+ * en RoleService y de forma periódica para cambios hechos por fuera de la API.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoleRegistry {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final RoleRepository roleRepository;
+
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong unknownRoleRefreshes = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Se reintenta en la primera autenticación o en el siguiente refresh programado
+            log.error("Could not load role registry at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recarga los roles conservando los bits ya asignados
+     */
+    @Scheduled(fixedDelayString = "${security.role-registry.refresh-interval-ms:600000}",
+               initialDelayString = "${security.role-registry.refresh-interval-ms:600000}")
+    public synchronized void refresh() {
+        Snapshot previous = snapshot;
+        int nextBit = previous != null ? previous.nextBit : 0;
+
+        List<Role> roles = new ArrayList<>(roleRepository.findAll());
+        roles.sort(Comparator.comparing(Role::getId));
+        Map<Long, Integer> bitByRoleId = new HashMap<>();
+        for (Role role : roles) {
+            Integer bit = previous != null ? previous.bitByRoleId.get(role.getId()) : null;
+            bitByRoleId.put(role.getId(), bit != null ? bit : nextBit++);
+        }
+
+        GrantedAuthority[] authorities = new GrantedAuthority[nextBit];
+        Map<String, Integer> bitByName = new HashMap<>();
+        for (Role role : roles) {
+            int bit = bitByRoleId.get(role.getId());
+            String authority = ROLE_PREFIX + role.getName().toUpperCase(Locale.ROOT);
+            bitByName.put(normalize(role.getName()), bit);
+            // Se conserva el objeto si el nombre del rol no cambió
+            GrantedAuthority existing = previous != null && bit < previous.authorities.length
+                    ? previous.authorities[bit] : null;
+            authorities[bit] = existing != null && existing.getAuthority().equals(authority)
+                    ? existing : new SimpleGrantedAuthority(authority);
+        }
+
+        snapshot = new Snapshot(Map.copyOf(bitByRoleId), Map.copyOf(bitByName), authorities, nextBit);
+        refreshes.incrementAndGet();
+        log.info("Role registry loaded: {} roles, {} bits assigned", roles.size(), nextBit);
+    }
+
+    /**
+     * Programa un refresh para cuando confirme la transacción en curso
+     */
+    public void refreshAfterCommit() {
+        TransactionCallbacks.afterCommit(this::refresh);
+    }
+
+    /**
+     * Máscara de los roles dados; un rol desconocido (creado por fuera de la API) fuerza un refresh
+     */
+    public RoleMask maskOf(Collection<Role> roles) {
+        Snapshot current = snapshot();
+        if (!roles.stream().allMatch(role -> current.bitByRoleId.containsKey(role.getId()))) {
+            unknownRoleRefreshes.incrementAndGet();
+            refresh();
+            return maskOf(roles, snapshot);
+        }
+        return maskOf(roles, current);
+    }
+
+    private static RoleMask maskOf(Collection<Role> roles, Snapshot current) {
+        long[] words = new long[(current.nextBit + 63) >>> 6];
+        for (Role role : roles) {
+            Integer bit = current.bitByRoleId.get(role.getId());
+            if (bit != null) {
+                words[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return new RoleMask(words);
+    }
+
+    /**
+     * Colección inmutable y compartida de GrantedAuthority de una máscara
+     */
+    public Collection<GrantedAuthority> authoritiesOf(RoleMask mask) {
+        Snapshot current = snapshot();
+        return current.authoritiesByMask.computeIfAbsent(mask, m -> {
+            Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+            for (int bit = m.nextSetBit(0); bit >= 0; bit = m.nextSetBit(bit + 1)) {
+                if (bit < current.authorities.length && current.authorities[bit] != null) {
+                    authorities.add(current.authorities[bit]);
+                }
+            }
+            return Collections.unmodifiableSet(authorities);
+        });
+    }
+
+    /**
+     * Test de bit del rol (sin prefijo ROLE_, sin distinguir mayúsculas) sobre la máscara
+     */
+    public boolean hasRole(RoleMask mask, String roleName) {
+        Integer bit = snapshot().bitByName.get(normalize(roleName));
+        return bit != null && mask.has(bit);
+    }
+
+    /**
+     * Para expresiones de seguridad, p. ej. {@code @PreAuthorize("@roleRegistry.hasRole(authentication, 'ADMIN')")}
+     */
+    public boolean hasRole(Authentication authentication, String roleName) {
+        if (authentication == null) {
+            return false;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return hasRole(user.getRoleMask(), roleName);
+        }
+        String authority = ROLE_PREFIX + normalize(roleName);
+        return authentication.getAuthorities().stream().anyMatch(a -> authority.equals(a.getAuthority()));
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("roles", current != null ? current.bitByRoleId.size() : 0);
+        stats.put("bitsAssigned", current != null ? current.nextBit : 0);
+        stats.put("distinctRoleSets", current != null ? current.authoritiesByMask.size() : 0);
+        stats.put("refreshes", refreshes.get());
+        stats.put("unknownRoleRefreshes", unknownRoleRefreshes.get());
+        return stats;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private static String normalize(String roleName) {
+        String name = roleName.toUpperCase(Locale.ROOT);
+        return name.startsWith(ROLE_PREFIX) ? name.substring(ROLE_PREFIX.length()) : name;
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, Integer> bitByRoleId;
+        private final Map<String, Integer> bitByName;
+        private final GrantedAuthority[] authorities;
+        private final int nextBit;
+        private final Map<RoleMask, Collection<GrantedAuthority>> authoritiesByMask = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<Long, Integer> bitByRoleId, Map<String, Integer> bitByName,
+                         GrantedAuthority[] authorities, int nextBit) {
+            this.bitByRoleId = bitByRoleId;
+            this.bitByName = bitByName;
+            this.authorities = authorities;
+            this.nextBit = nextBit;
+        }
+    }
+
+    /**
+     * Conjunto inmutable de roles de un usuario como bits
+     */
+    public static final class RoleMask implements Serializable {
+
+        private final long[] words;
+
+        private RoleMask(long[] words) {
+            int length = words.length;
+            while (length > 0 && words[length - 1] == 0) {
+                length--;
+            }
+            this.words = Arrays.copyOf(words, length);
+        }
+
+        public boolean has(int bit) {
+            int word = bit >>> 6;
+            return word < words.length && (words[word] & (1L << bit)) != 0;
+        }
+
+        public boolean isEmpty() {
+            return words.length == 0;
+        }
+
+        int nextSetBit(int from) {
+            int word = from >>> 6;
+            if (word >= words.length) {
+                return -1;
+            }
+            long current = words[word] & (-1L << from);
+            while (true) {
+                if (current != 0) {
+                    return (word << 6) + Long.numberOfTrailingZeros(current);
+                }
+                if (++word == words.length) {
+                    return -1;
+                }
+                current = words[word];
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof RoleMask other && Arrays.equals(words, other.words));
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(words);
+        }
+    }
+}
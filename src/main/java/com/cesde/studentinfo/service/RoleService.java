@@ -19,6 +19,8 @@ import java.util.Optional;
 public class RoleService {
 
     private final RoleRepository roleRepository;
+    private final StatsService statsService;
+    private final RoleRegistry roleRegistry;
 
     public Role createRole(Role role) {
         log.info("Creating role: {}", role.getName());
@@ -26,7 +28,10 @@ public class RoleService {
         if (roleRepository.existsByName(role.getName())) {
             throw new IllegalArgumentException("Ya existe un rol con el nombre: " + role.getName());
         }
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        statsService.roleAdded(saved.getId(), saved.getName());
+        roleRegistry.refreshAfterCommit();
+        return saved;
     }
 
     public Role updateRole(Role role) {
@@ -35,7 +40,10 @@ public class RoleService {
         if (!roleRepository.existsById(role.getId())) {
             throw new IllegalArgumentException("Rol no encontrado con ID: " + role.getId());
         }
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        statsService.roleAdded(saved.getId(), saved.getName());
+        roleRegistry.refreshAfterCommit();
+        return saved;
     }
 
     public void deleteRole(Long id) {
@@ -51,6 +59,8 @@ public class RoleService {
         }
 
         roleRepository.deleteById(id);
+        statsService.roleRemoved(id);
+        roleRegistry.refreshAfterCommit();
     }
 
     public void toggleRoleStatus(Long id) {
@@ -60,6 +70,7 @@ public class RoleService {
                 .orElseThrow(() -> new IllegalArgumentException("Rol no encontrado con ID: " + id));
         role.setEnabled(!role.getEnabled());
         roleRepository.save(role);
+        roleRegistry.refreshAfterCommit();
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,318 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.dto.StatsOverviewDTO;
+import com.cesde.studentinfo.repository.StatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Service de estadísticas del dashboard basado en contadores en memoria
+ *
+ * Los services notifican altas, bajas y cambios de estado; los contadores se ajustan tras el commit.
+ * Una reconciliación periódica recalcula todo con consultas agrupadas y reemplaza los contadores,
+ * corrigiendo la deriva por cambios hechos fuera de la API o transacciones concurrentes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatsService {
+
+    private final StatsRepository statsRepository;
+
+    private volatile Counters counters;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("Could not load dashboard counters at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcula los contadores desde la BD
+     */
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval-ms:300000}",
+               initialDelayString = "${stats.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        long start = System.currentTimeMillis();
+        Counters fresh = new Counters();
+
+        long[] students = statsRepository.countStudents();
+        fresh.students.add(students[0]);
+        fresh.activeStudents.add(students[1]);
+        statsRepository.countAttendanceByStatus()
+                .forEach(row -> add(fresh.attendanceByStatus, (String) row[0], (Long) row[1]));
+        fresh.grades.add(statsRepository.countGrades());
+        statsRepository.countClassSessionsByStatus()
+                .forEach(row -> add(fresh.sessionsByStatus, (String) row[0], (Long) row[1]));
+        long[] groups = statsRepository.countCourseGroups();
+        fresh.courseGroups.add(groups[0]);
+        fresh.activeCourseGroups.add(groups[1]);
+
+        statsRepository.findActivePeriods().forEach(row -> fresh.activePeriods.put((Long) row[0], (String) row[1]));
+        statsRepository.findCourses().forEach(row -> fresh.courses.put((Long) row[0], new String[]{(String) row[1], (String) row[2]}));
+        statsRepository.countActivePeriodEnrollmentsByCourseAndStatus().forEach(row ->
+                add(fresh.enrollmentsByCourse.computeIfAbsent((Long) row[0], k -> new ConcurrentHashMap<>()),
+                        (String) row[1], (Long) row[2]));
+        statsRepository.countUsersByRole().forEach(row -> {
+            fresh.roleNames.put((Long) row[0], (String) row[1]);
+            add(fresh.usersByRole, (Long) row[0], (Long) row[2]);
+        });
+
+        Counters previous = counters;
+        if (previous != null && previous.students.sum() != fresh.students.sum()) {
+            log.info("Dashboard counters drift corrected: students {} -> {}",
+                    previous.students.sum(), fresh.students.sum());
+        }
+        counters = fresh;
+        log.info("Dashboard counters reconciled in {} ms", System.currentTimeMillis() - start);
+    }
+
+    public StatsOverviewDTO getOverview() {
+        Counters c = counters();
+
+        Map<String, Long> enrollmentsByStatus = new TreeMap<>();
+        List<StatsOverviewDTO.CourseEnrollmentStats> byCourse = new ArrayList<>();
+        long enrollments = 0;
+        for (Map.Entry<Long, ConcurrentHashMap<String, LongAdder>> entry : c.enrollmentsByCourse.entrySet()) {
+            Map<String, Long> byStatus = snapshot(entry.getValue());
+            long total = byStatus.values().stream().mapToLong(Long::longValue).sum();
+            if (total == 0) {
+                continue;
+            }
+            byStatus.forEach((status, count) -> enrollmentsByStatus.merge(status, count, Long::sum));
+            enrollments += total;
+            String[] course = c.courses.getOrDefault(entry.getKey(), new String[2]);
+            byCourse.add(StatsOverviewDTO.CourseEnrollmentStats.builder()
+                    .courseId(entry.getKey())
+                    .courseCode(course[0])
+                    .courseName(course[1])
+                    .total(total)
+                    .byStatus(byStatus)
+                    .build());
+        }
+        byCourse.sort(Comparator.comparing(StatsOverviewDTO.CourseEnrollmentStats::getTotal).reversed());
+
+        List<StatsOverviewDTO.PeriodInfo> periods = new ArrayList<>();
+        c.activePeriods.forEach((id, name) -> periods.add(new StatsOverviewDTO.PeriodInfo(id, name)));
+
+        List<StatsOverviewDTO.RoleUserCount> roles = new ArrayList<>();
+        c.roleNames.forEach((id, name) -> roles.add(new StatsOverviewDTO.RoleUserCount(id, name,
+                c.usersByRole.containsKey(id) ? c.usersByRole.get(id).sum() : 0)));
+        roles.sort(Comparator.comparing(StatsOverviewDTO.RoleUserCount::getRoleName));
+
+        Map<String, Long> attendance = snapshot(c.attendanceByStatus);
+        Map<String, Long> sessions = snapshot(c.sessionsByStatus);
+        return StatsOverviewDTO.builder()
+                .totalStudents(c.students.sum())
+                .activeStudents(c.activeStudents.sum())
+                .totalAttendance(attendance.values().stream().mapToLong(Long::longValue).sum())
+                .attendanceByStatus(attendance)
+                .totalGrades(c.grades.sum())
+                .totalClassSessions(sessions.values().stream().mapToLong(Long::longValue).sum())
+                .classSessionsByStatus(sessions)
+                .totalCourseGroups(c.courseGroups.sum())
+                .activeCourseGroups(c.activeCourseGroups.sum())
+                .activePeriods(periods)
+                .activePeriodEnrollments(enrollments)
+                .enrollmentsByStatus(enrollmentsByStatus)
+                .enrollmentsByCourse(byCourse)
+                .roles(roles)
+                .lastReconciledAt(c.reconciledAt)
+                .build();
+    }
+
+    // ==================== NOTIFICACIONES DE LOS SERVICES ====================
+
+    public void studentsAdded(long total, long active) {
+        apply(c -> {
+            c.students.add(total);
+            c.activeStudents.add(active);
+        });
+    }
+
+    public void studentRemoved(boolean wasActive) {
+        apply(c -> {
+            c.students.decrement();
+            if (wasActive) {
+                c.activeStudents.decrement();
+            }
+        });
+    }
+
+    public void studentActiveChanged(boolean wasActive, boolean isActive) {
+        if (wasActive != isActive) {
+            apply(c -> c.activeStudents.add(isActive ? 1 : -1));
+        }
+    }
+
+    public void attendanceChanged(Enum<?> oldStatus, Enum<?> newStatus) {
+        if (oldStatus != newStatus) {
+            apply(c -> move(c.attendanceByStatus, oldStatus, newStatus));
+        }
+    }
+
+    public void gradesChanged(long delta) {
+        apply(c -> c.grades.add(delta));
+    }
+
+    public void classSessionChanged(Enum<?> oldStatus, Enum<?> newStatus) {
+        if (oldStatus != newStatus) {
+            apply(c -> move(c.sessionsByStatus, oldStatus, newStatus));
+        }
+    }
+
+    public void courseGroupAdded(boolean active) {
+        apply(c -> {
+            c.courseGroups.increment();
+            if (active) {
+                c.activeCourseGroups.increment();
+            }
+        });
+    }
+
+    public void courseGroupRemoved(boolean wasActive) {
+        apply(c -> {
+            c.courseGroups.decrement();
+            if (wasActive) {
+                c.activeCourseGroups.decrement();
+            }
+        });
+    }
+
+    public void courseGroupActiveChanged(boolean wasActive, boolean isActive) {
+        if (wasActive != isActive) {
+            apply(c -> c.activeCourseGroups.add(isActive ? 1 : -1));
+        }
+    }
+
+    /**
+     * Alta (oldStatus null), baja (newStatus null) o cambio de estado de una inscripción a curso
+     */
+    public void courseEnrollmentChanged(Long periodId, Long courseId, Enum<?> oldStatus, Enum<?> newStatus, long count) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        apply(c -> {
+            if (!c.activePeriods.containsKey(periodId)) {
+                return;
+            }
+            ConcurrentHashMap<String, LongAdder> byStatus =
+                    c.enrollmentsByCourse.computeIfAbsent(courseId, k -> new ConcurrentHashMap<>());
+            if (oldStatus != null) {
+                add(byStatus, oldStatus.name(), -count);
+            }
+            if (newStatus != null) {
+                add(byStatus, newStatus.name(), count);
+            }
+        });
+    }
+
+    public void roleUsersChanged(Long roleId, long delta) {
+        apply(c -> add(c.usersByRole, roleId, delta));
+    }
+
+    public void roleAdded(Long roleId, String name) {
+        apply(c -> c.roleNames.put(roleId, name));
+    }
+
+    public void roleRemoved(Long roleId) {
+        apply(c -> {
+            c.roleNames.remove(roleId);
+            c.usersByRole.remove(roleId);
+        });
+    }
+
+    /**
+     * Fuerza una reconciliación tras el commit (p. ej. al cambiar el período activo)
+     */
+    public void reconcileAfterCommit() {
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                log.error("Dashboard counters reconciliation failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    private Counters counters() {
+        Counters current = counters;
+        if (current == null) {
+            synchronized (this) {
+                if (counters == null) {
+                    reconcile();
+                }
+                current = counters;
+            }
+        }
+        return current;
+    }
+
+    private void apply(Consumer<Counters> change) {
+        TransactionCallbacks.afterCommit(() -> {
+            Counters current = counters;
+            // Sin contadores cargados no hay nada que ajustar: la primera carga lee la BD
+            if (current != null) {
+                change.accept(current);
+            }
+        });
+    }
+
+    private static void move(ConcurrentHashMap<String, LongAdder> byStatus, Enum<?> oldStatus, Enum<?> newStatus) {
+        if (oldStatus != null) {
+            add(byStatus, oldStatus.name(), -1);
+        }
+        if (newStatus != null) {
+            add(byStatus, newStatus.name(), 1);
+        }
+    }
+
+    private static <K> void add(ConcurrentHashMap<K, LongAdder> map, K key, long delta) {
+        map.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> map) {
+        Map<String, Long> result = new TreeMap<>();
+        map.forEach((key, adder) -> {
+            long value = adder.sum();
+            if (value != 0) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    private static final class Counters {
+        private final LongAdder students = new LongAdder();
+        private final LongAdder activeStudents = new LongAdder();
+        private final ConcurrentHashMap<String, LongAdder> attendanceByStatus = new ConcurrentHashMap<>();
+        private final LongAdder grades = new LongAdder();
+        private final ConcurrentHashMap<String, LongAdder> sessionsByStatus = new ConcurrentHashMap<>();
+        private final LongAdder courseGroups = new LongAdder();
+        private final LongAdder activeCourseGroups = new LongAdder();
+        private final Map<Long, String> activePeriods = new LinkedHashMap<>();
+        private final Map<Long, String[]> courses = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, ConcurrentHashMap<String, LongAdder>> enrollmentsByCourse = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, String> roleNames = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, LongAdder> usersByRole = new ConcurrentHashMap<>();
+        private final LocalDateTime reconciledAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,235 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.dto.ImportReportDTO;
+import com.cesde.studentinfo.dto.StudentDTO;
+import com.cesde.studentinfo.exception.BusinessException;
+import com.cesde.studentinfo.model.Person;
+import com.cesde.studentinfo.model.Student;
+import com.cesde.studentinfo.repository.StudentBatchRepository;
+import com.cesde.studentinfo.repository.StudentRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service para importación masiva de estudiantes desde CSV
+ *
+ * El archivo se procesa por bloques: cada bloque valida duplicados contra la BD
+ * con una consulta IN por identificación y otra por email, y se inserta con JDBC batch
+ * en su propia transacción. Un bloque fallido no revierte los anteriores.
+ *
+ * Columnas: identificationType, identificationNumber, firstName, lastName, email,
+ * phone, mobile, address, dateOfBirth, enrollmentDate, isActive
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentImportService {
+
+    private final StudentRepository studentRepository;
+    private final StudentBatchRepository studentBatchRepository;
+    private final Validator validator;
+    private final StatsService statsService;
+
+    @Value("${import.chunk-size:500}")
+    private int chunkSize;
+
+    public ImportReportDTO importStudents(InputStream csv) {
+        log.info("Importing students from CSV (chunk size: {})", chunkSize);
+        ImportReportDTO report = new ImportReportDTO();
+        Set<String> seenIdentifications = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        try (CsvReader reader = new CsvReader(csv)) {
+            Map<String, Integer> columns = reader.readHeader();
+            if (!columns.containsKey("identificationnumber") || !columns.containsKey("email")) {
+                throw new BusinessException("CSV header must include at least identificationNumber and email columns");
+            }
+
+            List<PendingRow> chunk = new ArrayList<>(chunkSize);
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                report.setTotalRows(report.getTotalRows() + 1);
+                int line = reader.getRecordLine();
+
+                PendingRow row = parseRow(line, record, columns, report);
+                if (row == null) {
+                    continue;
+                }
+                // Las claves se reservan solo si la fila pasa ambas comprobaciones
+                String idNumber = row.student().getIdentificationNumber();
+                String emailKey = emailKey(row);
+                if (seenIdentifications.contains(idNumber)) {
+                    report.addError(line, idNumber, "Duplicated identification number in file");
+                    continue;
+                }
+                if (seenEmails.contains(emailKey)) {
+                    report.addError(line, idNumber, "Duplicated email in file: " + row.student().getEmail());
+                    continue;
+                }
+                seenIdentifications.add(idNumber);
+                seenEmails.add(emailKey);
+
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    flushChunk(chunk, report, seenIdentifications, seenEmails);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flushChunk(chunk, report, seenIdentifications, seenEmails);
+            }
+        } catch (IOException e) {
+            throw new BusinessException("Could not read CSV stream: " + e.getMessage(), e);
+        }
+
+        log.info("Student import finished: {} rows, {} imported, {} failed",
+                report.getTotalRows(), report.getImported(), report.getFailed());
+        return report;
+    }
+
+    /**
+     * Inserta el bloque; las filas que no se insertan liberan sus claves en seenIdentifications
+     * y seenEmails para que una fila posterior del archivo con la misma clave pueda importarse
+     */
+    private void flushChunk(List<PendingRow> chunk, ImportReportDTO report,
+                            Set<String> seenIdentifications, Set<String> seenEmails) {
+        Set<String> identifications = chunk.stream()
+                .map(r -> r.student().getIdentificationNumber())
+                .collect(Collectors.toSet());
+        Set<String> emails = chunk.stream()
+                .map(r -> r.student().getEmail())
+                .collect(Collectors.toSet());
+
+        Set<String> existingIdentifications = new HashSet<>(
+                studentRepository.findExistingIdentificationNumbers(identifications));
+        Set<String> existingEmails = studentRepository.findExistingEmails(emails).stream()
+                .map(e -> e.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        List<PendingRow> accepted = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            String idNumber = row.student().getIdentificationNumber();
+            if (existingIdentifications.contains(idNumber)) {
+                report.addError(row.line(), idNumber, "Ya existe un estudiante con ID: " + idNumber);
+                release(row, seenIdentifications, seenEmails);
+            } else if (existingEmails.contains(emailKey(row))) {
+                report.addError(row.line(), idNumber, "Ya existe un estudiante con email: " + row.student().getEmail());
+                release(row, seenIdentifications, seenEmails);
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            int inserted = studentBatchRepository.batchInsert(
+                    accepted.stream().map(PendingRow::student).collect(Collectors.toList()));
+            report.setImported(report.getImported() + inserted);
+            statsService.studentsAdded(inserted, accepted.stream()
+                    .filter(r -> Boolean.TRUE.equals(r.student().getIsActive()))
+                    .count());
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición insertó alguno de los registros entre la validación y el batch
+            log.error("Student import chunk rejected by database: {}", e.getMostSpecificCause().getMessage());
+            for (PendingRow row : accepted) {
+                report.addError(row.line(), row.student().getIdentificationNumber(),
+                        "Chunk rejected by database: " + e.getMostSpecificCause().getMessage());
+                release(row, seenIdentifications, seenEmails);
+            }
+        }
+    }
+
+    private static void release(PendingRow row, Set<String> seenIdentifications, Set<String> seenEmails) {
+        seenIdentifications.remove(row.student().getIdentificationNumber());
+        seenEmails.remove(emailKey(row));
+    }
+
+    private static String emailKey(PendingRow row) {
+        return row.student().getEmail().toLowerCase(Locale.ROOT);
+    }
+
+    private PendingRow parseRow(int line, List<String> record, Map<String, Integer> columns, ImportReportDTO report) {
+        String idNumber = CsvReader.field(record, columns, "identificationNumber");
+        StudentDTO dto;
+        try {
+            String type = CsvReader.field(record, columns, "identificationType");
+            String isActive = CsvReader.field(record, columns, "isActive");
+            String enrollmentDate = CsvReader.field(record, columns, "enrollmentDate");
+            String dateOfBirth = CsvReader.field(record, columns, "dateOfBirth");
+
+            dto = StudentDTO.builder()
+                    .identificationType(type != null
+                            ? Person.IdentificationType.valueOf(type.toUpperCase(Locale.ROOT))
+                            : Person.IdentificationType.CC)
+                    .identificationNumber(idNumber)
+                    .firstName(CsvReader.field(record, columns, "firstName"))
+                    .lastName(CsvReader.field(record, columns, "lastName"))
+                    .email(CsvReader.field(record, columns, "email"))
+                    .phone(CsvReader.field(record, columns, "phone"))
+                    .mobile(CsvReader.field(record, columns, "mobile"))
+                    .address(CsvReader.field(record, columns, "address"))
+                    .dateOfBirth(dateOfBirth != null ? LocalDate.parse(dateOfBirth) : null)
+                    .enrollmentDate(enrollmentDate != null ? LocalDate.parse(enrollmentDate) : LocalDate.now())
+                    .isActive(isActive == null || Boolean.parseBoolean(isActive) || isActive.equals("1"))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            report.addError(line, idNumber, "Invalid identification type: " + e.getMessage());
+            return null;
+        } catch (DateTimeParseException e) {
+            report.addError(line, idNumber, "Invalid date (expected yyyy-MM-dd): " + e.getParsedString());
+            return null;
+        }
+
+        Set<ConstraintViolation<StudentDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            report.addError(line, idNumber, message);
+            return null;
+        }
+        // La columna date_of_birth es NOT NULL en la BD
+        if (dto.getDateOfBirth() == null) {
+            report.addError(line, idNumber, "Date of birth is required");
+            return null;
+        }
+
+        Student student = Student.builder()
+                .identificationType(dto.getIdentificationType())
+                .identificationNumber(dto.getIdentificationNumber())
+                .firstName(dto.getFirstName())
+                .lastName(dto.getLastName())
+                .email(dto.getEmail())
+                .phone(dto.getPhone())
+                .mobile(dto.getMobile())
+                .address(dto.getAddress())
+                .dateOfBirth(dto.getDateOfBirth())
+                .enrollmentDate(dto.getEnrollmentDate())
+                .isActive(dto.getIsActive())
+                .build();
+        return new PendingRow(line, student);
+    }
+
+    private record PendingRow(int line, Student student) {
+    }
+}
@@ -22,6 +22,8 @@ import java.util.Optional;
 public class StudentService {
 
     private final StudentRepository studentRepository;
+    private final StatsService statsService;
+    private final MultiGetService multiGetService;
 
     public Student createStudent(Student student) {
         log.info("Creating student with identification: {}", student.getIdentificationNumber());
@@ -32,21 +34,27 @@ public class StudentService {
         if (studentRepository.existsByEmail(student.getEmail())) {
             throw new IllegalArgumentException("Ya existe un estudiante con email: " + student.getEmail());
         }
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        statsService.studentsAdded(1, Boolean.TRUE.equals(saved.getIsActive()) ? 1 : 0);
+        return saved;
     }
 
     public Student updateStudent(Student student) {
         log.info("Updating student with id: {}", student.getId());
 
-        if (!studentRepository.existsById(student.getId())) {
-            throw new IllegalArgumentException("Estudiante no encontrado con ID: " + student.getId());
-        }
-        return studentRepository.save(student);
+        Boolean wasActive = studentRepository.findIsActiveById(student.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Estudiante no encontrado con ID: " + student.getId()));
+        Student saved = studentRepository.save(student);
+        statsService.studentActiveChanged(Boolean.TRUE.equals(wasActive), Boolean.TRUE.equals(saved.getIsActive()));
+        return saved;
     }
 
     public void deleteStudent(Long id) {
         log.info("Deleting student with id: {}", id);
-        studentRepository.deleteById(id);
+        studentRepository.findIsActiveById(id).ifPresent(wasActive -> {
+            studentRepository.deleteById(id);
+            statsService.studentRemoved(Boolean.TRUE.equals(wasActive));
+        });
     }
 
     public void deactivateStudent(Long id) {
@@ -54,8 +62,10 @@ public class StudentService {
 
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Estudiante no encontrado con ID: " + id));
+        boolean wasActive = Boolean.TRUE.equals(student.getIsActive());
         student.setIsActive(false);
         studentRepository.save(student);
+        statsService.studentActiveChanged(wasActive, false);
     }
 
     @Transactional(readOnly = true)
@@ -63,6 +73,14 @@ public class StudentService {
         return studentRepository.findById(id);
     }
 
+    /**
+     * Obtiene varios estudiantes por ID en el orden pedido; los inexistentes se omiten
+     */
+    @Transactional(readOnly = true)
+    public List<Student> getStudentsByIds(List<Long> ids) {
+        return multiGetService.load(Student.class, ids, Student::getId, studentRepository::findAllById);
+    }
+
     @Transactional(readOnly = true)
     public Optional<Student> getStudentByIdentification(String idNumber) {
         return studentRepository.findByIdentificationNumber(idNumber);
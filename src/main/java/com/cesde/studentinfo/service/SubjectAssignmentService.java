@@ -5,12 +5,12 @@ import com.cesde.studentinfo.dto.SubjectAssignmentResponseDTO;
 import com.cesde.studentinfo.dto.SubjectAssignmentUpdateDTO;
 import com.cesde.studentinfo.model.*;
 import com.cesde.studentinfo.repository.*;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -30,6 +30,9 @@ public class SubjectAssignmentService {
     private final ProfessorRepository professorRepository;
     private final AcademicPeriodRepository academicPeriodRepository;
     private final CourseGroupRepository courseGroupRepository;
+    private final TimetableService timetableService;
+    private final AttendanceRollupService attendanceRollupService;
+    private final MultiGetService multiGetService;
 
     /**
      * Create a new subject assignment
@@ -136,6 +139,8 @@ public class SubjectAssignmentService {
     /**
      * Get assignment by ID
      */
+    @Transactional(readOnly = true)
+    @Coalesced(ttlMillis = 500)
     public SubjectAssignmentResponseDTO getAssignmentById(Long id) {
         log.info("Fetching subject assignment with ID: {}", id);
         SubjectAssignment assignment = subjectAssignmentRepository.findById(id)
@@ -144,6 +149,17 @@ public class SubjectAssignmentService {
         return SubjectAssignmentResponseDTO.fromEntity(assignment);
     }
 
+    /**
+     * Get several assignments by ID in request order; unknown IDs are skipped
+     */
+    @Transactional(readOnly = true)
+    public List<SubjectAssignmentResponseDTO> getAssignmentsByIds(List<Long> ids) {
+        return multiGetService.load(SubjectAssignment.class, ids, SubjectAssignment::getId,
+                        subjectAssignmentRepository::findAllByIdIn).stream()
+                .map(SubjectAssignmentResponseDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Get assignments by subject ID
      */
@@ -231,16 +247,29 @@ public class SubjectAssignmentService {
             assignment.setSchedule(dto.getSchedule());
         }
         if (dto.getClassroom() != null) {
+            // Las sesiones ya programadas no pueden chocar con otras en el aula nueva
+            timetableService.checkClassroomChange(id, dto.getClassroom());
             assignment.setClassroom(dto.getClassroom());
         }
         if (dto.getMaxStudents() != null) {
             assignment.setMaxStudents(dto.getMaxStudents());
         }
+        boolean wasActive = Boolean.TRUE.equals(assignment.getIsActive());
         if (dto.getIsActive() != null) {
             assignment.setIsActive(dto.getIsActive());
         }
 
         SubjectAssignment updated = subjectAssignmentRepository.save(assignment);
+
+        // El índice de horarios se actualiza cuando la transacción confirma
+        boolean active = Boolean.TRUE.equals(updated.getIsActive());
+        if (wasActive && !active) {
+            timetableService.unregisterAssignment(id);
+        } else if (!wasActive && active) {
+            timetableService.rebuildAfterCommit();
+        } else if (dto.getClassroom() != null) {
+            timetableService.applyClassroomChange(id, dto.getClassroom());
+        }
         log.info("Subject assignment updated: {}", id);
 
         return SubjectAssignmentResponseDTO.fromEntity(updated);
@@ -258,6 +287,7 @@ public class SubjectAssignmentService {
 
         assignment.setIsActive(false);
         subjectAssignmentRepository.save(assignment);
+        timetableService.unregisterAssignment(id);
         log.info("Subject assignment soft deleted: {}", id);
     }
 
@@ -272,7 +302,9 @@ public class SubjectAssignmentService {
                     "Subject Assignment not found with ID: " + id);
         }
 
+        attendanceRollupService.assignmentDeleting(id);
         subjectAssignmentRepository.deleteById(id);
+        timetableService.unregisterAssignment(id);
         log.info("Subject assignment permanently deleted: {}", id);
     }
 }
@@ -35,6 +35,8 @@ public class SubjectEnrollmentService {
     private final LevelEnrollmentRepository levelEnrollmentRepository;
     private final SubjectAssignmentRepository subjectAssignmentRepository;
     private final SubjectRepository subjectRepository;
+    private final AtRiskService atRiskService;
+    private final AttendanceRollupService attendanceRollupService;
 
     @Transactional(readOnly = true)
     public List<SubjectEnrollment> getAllSubjectEnrollments() {
@@ -174,6 +176,7 @@ public class SubjectEnrollmentService {
         }
 
         SubjectEnrollment updated = subjectEnrollmentRepository.save(existing);
+        atRiskService.enrollmentChanged(id);
         log.info("Subject enrollment updated successfully");
         return updated;
     }
@@ -187,6 +190,7 @@ public class SubjectEnrollmentService {
         enrollment.setStatus(status);
 
         SubjectEnrollment updated = subjectEnrollmentRepository.save(enrollment);
+        atRiskService.enrollmentChanged(id);
         log.info("Subject enrollment status updated successfully");
         return updated;
     }
@@ -198,7 +202,9 @@ public class SubjectEnrollmentService {
             throw new ResourceNotFoundException("SubjectEnrollment", id);
         }
 
+        attendanceRollupService.subjectEnrollmentDeleting(id);
         subjectEnrollmentRepository.deleteById(id);
+        atRiskService.enrollmentChanged(id);
         log.info("Subject enrollment deleted successfully");
     }
 }
@@ -27,6 +27,7 @@ public class SubjectService {
 
     private final SubjectRepository subjectRepository;
     private final LevelRepository levelRepository;
+    private final MultiGetService multiGetService;
 
     @Transactional(readOnly = true)
     public List<Subject> getAllSubjects() {
@@ -46,6 +47,14 @@ public class SubjectService {
         return subjectRepository.findById(id);
     }
 
+    /**
+     * Obtiene varias materias (con su nivel) por ID en el orden pedido; los inexistentes se omiten
+     */
+    @Transactional(readOnly = true)
+    public List<Subject> getSubjectsByIds(List<Long> ids) {
+        return multiGetService.load(Subject.class, ids, Subject::getId, subjectRepository::findAllByIdIn);
+    }
+
     @Transactional(readOnly = true)
     public Optional<Subject> getSubjectByCode(String code) {
         log.info("Fetching subject by code: {}", code);
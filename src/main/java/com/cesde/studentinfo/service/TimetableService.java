@@ -0,0 +1,438 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.dto.TimetableSlotDTO;
+import com.cesde.studentinfo.exception.BusinessException;
+import com.cesde.studentinfo.model.AcademicPeriod;
+import com.cesde.studentinfo.model.ClassSession;
+import com.cesde.studentinfo.repository.AcademicPeriodRepository;
+import com.cesde.studentinfo.repository.ClassSessionRepository;
+import com.cesde.studentinfo.repository.SubjectAssignmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Índice en memoria de horarios del período activo
+ *
+ * Mantiene un árbol de intervalos por profesor y otro por aula con las sesiones no canceladas
+ * de los períodos activos y sirve los horarios sin consultar la BD. Los cambios hechos desde los
+ * services se aplican tras el commit; una reconstrucción periódica corrige cambios hechos por
+ * fuera de la API.
+ *
+ * En la validación de choques el índice es solo un filtro previo en O(log n) que rechaza sin ir a
+ * la BD: como se actualiza tras el commit, la comprobación definitiva bloquea (FOR UPDATE) las
+ * asignaciones del profesor y del aula y busca solapes en la BD dentro de la transacción en curso.
+ * Las aulas se comparan normalizadas (sin espacios al borde y en mayúsculas) en ambos lados.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimetableService {
+
+    private final AcademicPeriodRepository academicPeriodRepository;
+    private final ClassSessionRepository classSessionRepository;
+    private final SubjectAssignmentRepository subjectAssignmentRepository;
+
+    private volatile Index index;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Se reintenta en la primera consulta o en la siguiente reconstrucción programada
+            log.error("Could not build timetable index at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reconstruye el índice completo desde la BD
+     */
+    @Scheduled(fixedDelayString = "${timetable.refresh-interval-ms:900000}",
+               initialDelayString = "${timetable.refresh-interval-ms:900000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Set<Long> periodIds = academicPeriodRepository.findAllActive().stream()
+                .map(AcademicPeriod::getId)
+                .collect(Collectors.toSet());
+
+        Index rebuilt = new Index(periodIds);
+        if (!periodIds.isEmpty()) {
+            for (Object[] row : subjectAssignmentRepository.findTimetableInfoByPeriodIds(periodIds)) {
+                AssignmentInfo info = AssignmentInfo.fromRow(row);
+                rebuilt.assignments.put(info.id(), info);
+            }
+
+            Map<Long, List<IntervalTree.Interval<TimetableSlotDTO>>> professorSlots = new HashMap<>();
+            Map<String, List<IntervalTree.Interval<TimetableSlotDTO>>> classroomSlots = new HashMap<>();
+            for (Object[] row : classSessionRepository.findTimetableRowsByPeriodIds(
+                    periodIds, ClassSession.SessionStatus.CANCELADA)) {
+                AssignmentInfo info = rebuilt.assignments.get((Long) row[1]);
+                if (info == null) {
+                    continue;
+                }
+                TimetableSlotDTO slot = toSlot((Long) row[0], info, (LocalDate) row[2], (LocalTime) row[3],
+                        (Integer) row[4], (ClassSession.SessionStatus) row[5]);
+                IntervalTree.Interval<TimetableSlotDTO> interval = toInterval(slot);
+                rebuilt.bySession.put(slot.getSessionId(), slot);
+                professorSlots.computeIfAbsent(info.professorId(), k -> new ArrayList<>()).add(interval);
+                if (info.classroomKey() != null) {
+                    classroomSlots.computeIfAbsent(info.classroomKey(), k -> new ArrayList<>()).add(interval);
+                }
+            }
+            professorSlots.forEach((id, slots) -> rebuilt.byProfessor.put(id, IntervalTree.of(slots)));
+            classroomSlots.forEach((room, slots) -> rebuilt.byClassroom.put(room, IntervalTree.of(slots)));
+        }
+
+        index = rebuilt;
+        log.info("Timetable index rebuilt: {} sessions, {} professors, {} classrooms in {} ms",
+                rebuilt.bySession.size(), rebuilt.byProfessor.size(), rebuilt.byClassroom.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Horario de un profesor en el período activo, opcionalmente filtrado por rango de fechas
+     */
+    public List<TimetableSlotDTO> getProfessorTimetable(Long professorId, LocalDate from, LocalDate to) {
+        return query(index().byProfessor.get(professorId), from, to);
+    }
+
+    /**
+     * Horario de un aula en el período activo, opcionalmente filtrado por rango de fechas
+     */
+    public List<TimetableSlotDTO> getClassroomTimetable(String classroom, LocalDate from, LocalDate to) {
+        String key = classroomKey(classroom);
+        return key == null ? List.of() : query(index().byClassroom.get(key), from, to);
+    }
+
+    /**
+     * Valida que la sesión no choque con otra del mismo profesor o en la misma aula
+     *
+     * @param sessionId sesión que se reprograma (se excluye de la comparación) o null si es nueva
+     */
+    public void checkConflicts(Long subjectAssignmentId, Long sessionId, LocalDate date, LocalTime time,
+                               Integer durationMinutes, ClassSession.SessionStatus status) {
+        if (status == ClassSession.SessionStatus.CANCELADA || date == null || time == null) {
+            return;
+        }
+        Index current = index();
+        AssignmentInfo info = assignmentInfo(current, subjectAssignmentId);
+        if (info == null) {
+            return;
+        }
+        long start = toMinutes(date, time);
+        long end = start + (durationMinutes != null ? durationMinutes : 0);
+
+        findConflict(current.byProfessor.get(info.professorId()), start, end, sessionId).ifPresent(c -> {
+            throw new BusinessException("Professor already has a class session at that time: "
+                    + describe(c));
+        });
+        if (info.classroomKey() != null) {
+            findConflict(current.byClassroom.get(info.classroomKey()), start, end, sessionId).ifPresent(c -> {
+                throw new BusinessException("Classroom " + info.classroom() + " is already booked at that time: "
+                        + describe(c));
+            });
+        }
+
+        // El índice solo se actualiza tras el commit: la comprobación definitiva se hace en BD con las
+        // asignaciones del profesor y del aula bloqueadas hasta el commit de la transacción en curso
+        subjectAssignmentRepository.lockForScheduling(info.professorId(), info.classroomKey());
+        LocalTime endTime = time.plusMinutes(end - start);
+        if (endTime.isBefore(time)) {
+            // La sesión pasa de medianoche: se compara contra el resto del día
+            endTime = LocalTime.MAX;
+        }
+        if (!classSessionRepository.findOverlappingSessionIds(date, time, endTime, info.professorId(),
+                info.classroomKey(), sessionId).isEmpty()) {
+            throw new BusinessException("Professor or classroom already has a class session at that time");
+        }
+    }
+
+    /**
+     * Valida que las sesiones de una asignación no choquen con otras al moverla de aula
+     */
+    public void checkClassroomChange(Long subjectAssignmentId, String newClassroom) {
+        String key = classroomKey(newClassroom);
+        Index current = index();
+        AssignmentInfo info = assignmentInfo(current, subjectAssignmentId);
+        if (key == null || info == null || key.equals(info.classroomKey())) {
+            return;
+        }
+        IntervalTree<TimetableSlotDTO> room = current.byClassroom.get(key);
+        IntervalTree<TimetableSlotDTO> professor = current.byProfessor.get(info.professorId());
+        if (room != null && professor != null) {
+            for (TimetableSlotDTO slot : professor.values()) {
+                if (!slot.getSubjectAssignmentId().equals(subjectAssignmentId)) {
+                    continue;
+                }
+                IntervalTree.Interval<TimetableSlotDTO> interval = toInterval(slot);
+                findConflict(room, interval.start(), interval.end(), null).ifPresent(c -> {
+                    throw new BusinessException("Classroom " + newClassroom + " is already booked: " + describe(c));
+                });
+            }
+        }
+
+        // Comprobación definitiva en BD con las asignaciones del aula nueva bloqueadas
+        subjectAssignmentRepository.lockForScheduling(info.professorId(), key);
+        if (!classSessionRepository.findClassroomOverlapsForAssignment(subjectAssignmentId, key).isEmpty()) {
+            throw new BusinessException("Classroom " + newClassroom + " is already booked at the time of an existing session");
+        }
+    }
+
+    /**
+     * Registra (o reemplaza) una sesión en el índice cuando la transacción confirma
+     */
+    public void register(ClassSession session) {
+        Long sessionId = session.getId();
+        Long assignmentId = session.getSubjectAssignment().getId();
+        LocalDate date = session.getSessionDate();
+        LocalTime time = session.getSessionTime();
+        Integer duration = session.getDurationMinutes();
+        ClassSession.SessionStatus status = session.getStatus();
+
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                Index current = index();
+                remove(current, sessionId);
+                AssignmentInfo info = assignmentInfo(current, assignmentId);
+                if (info == null || status == ClassSession.SessionStatus.CANCELADA) {
+                    return;
+                }
+                add(current, toSlot(sessionId, info, date, time, duration, status));
+            }
+        });
+    }
+
+    /**
+     * Elimina una sesión del índice cuando la transacción confirma
+     */
+    public void unregister(Long sessionId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                remove(index(), sessionId);
+            }
+        });
+    }
+
+    /**
+     * Mueve las sesiones de una asignación a otra aula cuando la transacción confirma
+     */
+    public void applyClassroomChange(Long subjectAssignmentId, String newClassroom) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                Index current = index();
+                AssignmentInfo info = current.assignments.get(subjectAssignmentId);
+                if (info == null) {
+                    return;
+                }
+                AssignmentInfo moved = info.withClassroom(newClassroom);
+                current.assignments.put(subjectAssignmentId, moved);
+                List<TimetableSlotDTO> slots = current.bySession.values().stream()
+                        .filter(s -> s.getSubjectAssignmentId().equals(subjectAssignmentId))
+                        .toList();
+                for (TimetableSlotDTO slot : slots) {
+                    remove(current, slot.getSessionId());
+                    add(current, toSlot(slot.getSessionId(), moved, slot.getSessionDate(), slot.getStartTime(),
+                            slot.getDurationMinutes(), slot.getStatus()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Quita del índice una asignación desactivada o eliminada y sus sesiones cuando la transacción confirma
+     */
+    public void unregisterAssignment(Long subjectAssignmentId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                Index current = index();
+                current.assignments.remove(subjectAssignmentId);
+                List<Long> sessionIds = current.bySession.values().stream()
+                        .filter(s -> s.getSubjectAssignmentId().equals(subjectAssignmentId))
+                        .map(TimetableSlotDTO::getSessionId)
+                        .toList();
+                sessionIds.forEach(id -> remove(current, id));
+            }
+        });
+    }
+
+    /**
+     * Reconstruye el índice cuando la transacción confirma (p. ej. al reactivar una asignación)
+     */
+    public void rebuildAfterCommit() {
+        TransactionCallbacks.afterCommit(this::rebuild);
+    }
+
+    private Index index() {
+        Index current = index;
+        if (current == null) {
+            synchronized (this) {
+                if (index == null) {
+                    rebuild();
+                }
+                current = index;
+            }
+        }
+        return current;
+    }
+
+    private AssignmentInfo assignmentInfo(Index current, Long subjectAssignmentId) {
+        if (subjectAssignmentId == null) {
+            return null;
+        }
+        AssignmentInfo info = current.assignments.get(subjectAssignmentId);
+        if (info != null) {
+            return info;
+        }
+        // Asignación creada después de la última reconstrucción
+        List<Object[]> rows = subjectAssignmentRepository.findTimetableInfoById(subjectAssignmentId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        info = AssignmentInfo.fromRow(rows.get(0));
+        if (!current.periodIds.contains(info.academicPeriodId())) {
+            return null;
+        }
+        current.assignments.putIfAbsent(subjectAssignmentId, info);
+        return info;
+    }
+
+    private void add(Index current, TimetableSlotDTO slot) {
+        IntervalTree.Interval<TimetableSlotDTO> interval = toInterval(slot);
+        current.bySession.put(slot.getSessionId(), slot);
+        current.byProfessor.compute(slot.getProfessorId(),
+                (id, tree) -> orEmpty(tree).with(interval.start(), interval.end(), slot));
+        String room = classroomKey(slot.getClassroom());
+        if (room != null) {
+            current.byClassroom.compute(room,
+                    (key, tree) -> orEmpty(tree).with(interval.start(), interval.end(), slot));
+        }
+    }
+
+    private void remove(Index current, Long sessionId) {
+        TimetableSlotDTO slot = current.bySession.remove(sessionId);
+        if (slot == null) {
+            return;
+        }
+        current.byProfessor.computeIfPresent(slot.getProfessorId(),
+                (id, tree) -> emptyToNull(tree.without(s -> s.getSessionId().equals(sessionId))));
+        String room = classroomKey(slot.getClassroom());
+        if (room != null) {
+            current.byClassroom.computeIfPresent(room,
+                    (key, tree) -> emptyToNull(tree.without(s -> s.getSessionId().equals(sessionId))));
+        }
+    }
+
+    private static Optional<TimetableSlotDTO> findConflict(IntervalTree<TimetableSlotDTO> tree,
+                                                                      long start, long end, Long excludedSessionId) {
+        if (tree == null) {
+            return Optional.empty();
+        }
+        return tree.overlapping(start, end).stream()
+                .filter(s -> !Objects.equals(s.getSessionId(), excludedSessionId))
+                .findFirst();
+    }
+
+    private static List<TimetableSlotDTO> query(IntervalTree<TimetableSlotDTO> tree, LocalDate from, LocalDate to) {
+        if (tree == null) {
+            return List.of();
+        }
+        if (from == null && to == null) {
+            return tree.values();
+        }
+        long start = from != null ? toMinutes(from, LocalTime.MIDNIGHT) : Long.MIN_VALUE;
+        long end = to != null ? toMinutes(to.plusDays(1), LocalTime.MIDNIGHT) : Long.MAX_VALUE;
+        return tree.overlapping(start, end);
+    }
+
+    private static TimetableSlotDTO toSlot(Long sessionId, AssignmentInfo info, LocalDate date, LocalTime time,
+                                           Integer durationMinutes, ClassSession.SessionStatus status) {
+        int duration = durationMinutes != null ? durationMinutes : 0;
+        return TimetableSlotDTO.builder()
+                .sessionId(sessionId)
+                .subjectAssignmentId(info.id())
+                .subjectCode(info.subjectCode())
+                .subjectName(info.subjectName())
+                .professorId(info.professorId())
+                .professorName(info.professorName())
+                .classroom(info.classroom())
+                .sessionDate(date)
+                .startTime(time)
+                .endTime(time.plusMinutes(duration))
+                .durationMinutes(duration)
+                .status(status)
+                .build();
+    }
+
+    private static IntervalTree.Interval<TimetableSlotDTO> toInterval(TimetableSlotDTO slot) {
+        long start = toMinutes(slot.getSessionDate(), slot.getStartTime());
+        return new IntervalTree.Interval<>(start, start + slot.getDurationMinutes(), slot);
+    }
+
+    private static long toMinutes(LocalDate date, LocalTime time) {
+        return date.toEpochDay() * 1440 + time.toSecondOfDay() / 60;
+    }
+
+    private static String classroomKey(String classroom) {
+        return classroom == null || classroom.isBlank() ? null : classroom.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String describe(TimetableSlotDTO slot) {
+        return slot.getSubjectName() + " on " + slot.getSessionDate() + " " + slot.getStartTime() + "-"
+                + slot.getEndTime() + " (session " + slot.getSessionId() + ")";
+    }
+
+    private static IntervalTree<TimetableSlotDTO> orEmpty(IntervalTree<TimetableSlotDTO> tree) {
+        return tree != null ? tree : IntervalTree.empty();
+    }
+
+    private static IntervalTree<TimetableSlotDTO> emptyToNull(IntervalTree<TimetableSlotDTO> tree) {
+        return tree.isEmpty() ? null : tree;
+    }
+
+    private record AssignmentInfo(Long id, String subjectCode, String subjectName, Long professorId,
+                                  String professorName, String classroom, Long academicPeriodId) {
+
+        static AssignmentInfo fromRow(Object[] row) {
+            return new AssignmentInfo((Long) row[0], (String) row[1], (String) row[2], (Long) row[3],
+                    row[4] + " " + row[5], (String) row[6], (Long) row[7]);
+        }
+
+        String classroomKey() {
+            return TimetableService.classroomKey(classroom);
+        }
+
+        AssignmentInfo withClassroom(String newClassroom) {
+            return new AssignmentInfo(id, subjectCode, subjectName, professorId, professorName, newClassroom,
+                    academicPeriodId);
+        }
+    }
+
+    private static final class Index {
+        private final Set<Long> periodIds;
+        private final ConcurrentHashMap<Long, AssignmentInfo> assignments = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, TimetableSlotDTO> bySession = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, IntervalTree<TimetableSlotDTO>> byProfessor = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, IntervalTree<TimetableSlotDTO>> byClassroom = new ConcurrentHashMap<>();
+
+        Index(Set<Long> periodIds) {
+            this.periodIds = periodIds;
+        }
+    }
+}
@@ -22,6 +22,7 @@ public class UserRoleService {
     private final UserRoleRepository userRoleRepository;
     private final UserService userService;
     private final RoleService roleService;
+    private final StatsService statsService;
 
     public UserRole assignRoleToUser(Long userId, Long roleId, Long assignedByUserId) {
         log.info("Assigning role {} to user {}", roleId, userId);
@@ -49,7 +50,9 @@ public class UserRoleService {
             userRole.setAssignedBy(assignedBy);
         }
 
-        return userRoleRepository.save(userRole);
+        UserRole saved = userRoleRepository.save(userRole);
+        statsService.roleUsersChanged(roleId, 1);
+        return saved;
     }
 
     public void removeRoleFromUser(Long userId, Long roleId) {
@@ -60,6 +63,7 @@ public class UserRoleService {
                 .orElseThrow(() -> new IllegalArgumentException("Asignación de rol no encontrada"));
 
         userRoleRepository.delete(userRole);
+        statsService.roleUsersChanged(roleId, -1);
     }
 
     @Transactional(readOnly = true)
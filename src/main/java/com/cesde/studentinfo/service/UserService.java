@@ -11,7 +11,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,7 +29,9 @@ public class UserService {
     private final RoleService roleService;
     private final StudentRepository studentRepository;
     private final ProfessorRepository professorRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHashingService passwordHashingService;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final StatsService statsService;
 
     public User createUser(User user, Set<Long> roleIds) {
         log.info("Creating user: {}", user.getUsername());
@@ -43,7 +44,7 @@ public class UserService {
         }
 
         // Hash password
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
 
         // Assign roles
         if (roleIds != null && !roleIds.isEmpty()) {
@@ -54,7 +55,9 @@ public class UserService {
             }
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        saved.getRoles().forEach(role -> statsService.roleUsersChanged(role.getId(), 1));
+        return saved;
     }
 
     public User updateUser(User user, Set<Long> roleIds) {
@@ -72,11 +75,13 @@ public class UserService {
 
         // Update password only if provided
         if (user.getPassword() != null && !user.getPassword().isEmpty()) {
-            existingUser.setPassword(passwordEncoder.encode(user.getPassword()));
+            existingUser.setPassword(passwordHashingService.encode(user.getPassword()));
         }
 
         // Update roles
         if (roleIds != null) {
+            existingUser.getRoles().forEach(role -> statsService.roleUsersChanged(role.getId(), -1));
+            roleIds.forEach(roleId -> statsService.roleUsersChanged(roleId, 1));
             existingUser.getRoles().clear();
             for (Long roleId : roleIds) {
                 Role role = roleService.getRoleById(roleId)
@@ -90,7 +95,10 @@ public class UserService {
 
     public void deleteUser(Long id) {
         log.info("Deleting user with id: {}", id);
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(user -> {
+            user.getRoles().forEach(role -> statsService.roleUsersChanged(role.getId(), -1));
+            userRepository.delete(user);
+        });
     }
 
     public void deactivateUser(Long id) {
@@ -105,10 +113,10 @@ public class UserService {
     public void updateLastLogin(Long id) {
         log.info("Updating last login for user with id: {}", id);
 
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado con ID: " + id));
-        user.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(user);
+        if (!userRepository.existsById(id)) {
+            throw new IllegalArgumentException("Usuario no encontrado con ID: " + id);
+        }
+        lastLoginRecorder.record(id, LocalDateTime.now());
     }
 
     public User assignRoleToUser(Long userId, Long roleId) {
@@ -119,6 +127,9 @@ public class UserService {
         Role role = roleService.getRoleById(roleId)
                 .orElseThrow(() -> new IllegalArgumentException("Rol no encontrado con ID: " + roleId));
 
+        if (user.getRoles().stream().noneMatch(r -> r.getId().equals(roleId))) {
+            statsService.roleUsersChanged(roleId, 1);
+        }
         user.addRole(role);
         return userRepository.save(user);
     }
@@ -131,6 +142,9 @@ public class UserService {
         Role role = roleService.getRoleById(roleId)
                 .orElseThrow(() -> new IllegalArgumentException("Rol no encontrado con ID: " + roleId));
 
+        if (user.getRoles().stream().anyMatch(r -> r.getId().equals(roleId))) {
+            statsService.roleUsersChanged(roleId, -1);
+        }
         user.removeRole(role);
         return userRepository.save(user);
     }
@@ -177,7 +191,7 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public boolean validatePassword(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return passwordHashingService.matches(rawPassword, encodedPassword);
     }
 
     @Transactional(readOnly = true)
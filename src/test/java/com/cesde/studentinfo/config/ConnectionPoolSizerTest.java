@@ -0,0 +1,79 @@
+package com.cesde.studentinfo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionPoolSizerTest {
+
+    @Test
+    void sizesFromCoresAndAsyncReadsWhenNothingIsConfigured() {
+        HikariDataSource dataSource = new HikariDataSource();
+
+        size(dataSource, new MockEnvironment()
+                .withProperty("read.async.pool-size", "200")
+                .withProperty("db.pool.headroom", "4"));
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(Math.max(cores * 2 + 1, 204));
+    }
+
+    @Test
+    void keepsAnExplicitHikariMaximumPoolSize() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(7);
+
+        size(dataSource, new MockEnvironment());
+
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(7);
+    }
+
+    @Test
+    void explicitPoolMaxSizeWins() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(7);
+
+        size(dataSource, new MockEnvironment().withProperty("db.pool.max-size", "12"));
+
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(12);
+    }
+
+    @Test
+    void fixedPoolRaisesMinimumIdleToTheMaximum() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMinimumIdle(2);
+
+        size(dataSource, new MockEnvironment()
+                .withProperty("db.pool.max-size", "12")
+                .withProperty("db.pool.fixed", "true"));
+
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(12);
+    }
+
+    @Test
+    void minimumIdleIsCappedAtTheMaximumWhenNotFixed() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMinimumIdle(20);
+
+        size(dataSource, new MockEnvironment().withProperty("db.pool.max-size", "12"));
+
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(12);
+    }
+
+    @Test
+    void leavesOtherBeansUntouched() {
+        Object bean = new Object();
+        ConnectionPoolSizer sizer = new ConnectionPoolSizer();
+        sizer.setEnvironment(new MockEnvironment());
+
+        assertThat(sizer.postProcessAfterInitialization(bean, "other")).isSameAs(bean);
+    }
+
+    private static void size(HikariDataSource dataSource, MockEnvironment environment) {
+        ConnectionPoolSizer sizer = new ConnectionPoolSizer();
+        sizer.setEnvironment(environment);
+        assertThat(sizer.postProcessAfterInitialization(dataSource, "dataSource")).isSameAs(dataSource);
+    }
+}
@@ -0,0 +1,136 @@
+package com.cesde.studentinfo.config;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private static final String LOGIN = "/auth/login";
+
+    private final AtomicInteger passed = new AtomicInteger();
+
+    @Test
+    void rejectsRequestsBeyondTheBurstWithRetryAfter() throws Exception {
+        RateLimitFilter filter = filter().limit(LOGIN, RateLimitFilter.KeyType.IP, 3, Duration.ofMinutes(1));
+
+        for (int i = 3; i > 0; i--) {
+            MockHttpServletResponse response = call(filter, "10.0.0.1", null, okChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getHeader("RateLimit-Limit")).isEqualTo("3");
+            assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo(String.valueOf(i - 1));
+        }
+
+        MockHttpServletResponse rejected = call(filter, "10.0.0.1", null, okChain());
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("RateLimit-Remaining")).isEqualTo("0");
+        // Un token se recupera cada 20 s
+        assertThat(Long.parseLong(rejected.getHeader("Retry-After"))).isBetween(1L, 20L);
+        assertThat(passed).hasValue(3);
+    }
+
+    @Test
+    void countsEachClientIpSeparately() throws Exception {
+        RateLimitFilter filter = filter().limit(LOGIN, RateLimitFilter.KeyType.IP, 1, Duration.ofMinutes(1));
+
+        assertThat(call(filter, "10.0.0.1", null, okChain()).getStatus()).isEqualTo(200);
+        assertThat(call(filter, "10.0.0.1", null, okChain()).getStatus()).isEqualTo(429);
+        assertThat(call(filter, "10.0.0.2", null, okChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void refillsAfterTheEmissionInterval() throws Exception {
+        RateLimitFilter filter = filter().limit(LOGIN, RateLimitFilter.KeyType.IP, 2, Duration.ofMillis(100));
+
+        assertThat(call(filter, "10.0.0.1", null, okChain()).getStatus()).isEqualTo(200);
+        assertThat(call(filter, "10.0.0.1", null, okChain()).getStatus()).isEqualTo(200);
+        assertThat(call(filter, "10.0.0.1", null, okChain()).getStatus()).isEqualTo(429);
+
+        Thread.sleep(120);
+        assertThat(call(filter, "10.0.0.1", null, okChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void usernameLimitOnlyCountsFailedAttempts() throws Exception {
+        RateLimitFilter filter = filter().limit(LOGIN, RateLimitFilter.KeyType.USERNAME, 2, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(call(filter, "10.0.0.1", "ana", okChain()).getStatus()).isEqualTo(200);
+        }
+        assertThat(call(filter, "10.0.0.1", "ana", unauthorizedChain()).getStatus()).isEqualTo(401);
+        assertThat(call(filter, "10.0.0.1", "ANA ", unauthorizedChain()).getStatus()).isEqualTo(401);
+        assertThat(call(filter, "10.0.0.1", "ana", okChain()).getStatus()).isEqualTo(429);
+
+        // Otra IP no bloquea ni queda bloqueada por los intentos sobre el mismo usuario
+        assertThat(call(filter, "10.0.0.2", "ana", okChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void rejectionByOneLimitDoesNotSpendTheOthers() throws Exception {
+        RateLimitFilter filter = filter()
+                .limit(LOGIN, RateLimitFilter.KeyType.IP, 2, Duration.ofMinutes(1))
+                .limit(LOGIN, RateLimitFilter.KeyType.USERNAME, 1, Duration.ofMinutes(1));
+
+        assertThat(call(filter, "10.0.0.1", "ana", unauthorizedChain()).getStatus()).isEqualTo(401);
+        for (int i = 0; i < 5; i++) {
+            assertThat(call(filter, "10.0.0.1", "ana", okChain()).getStatus()).isEqualTo(429);
+        }
+
+        // Las peticiones rechazadas por el límite de username no gastaron el segundo token de la IP
+        assertThat(call(filter, "10.0.0.1", "bob", okChain()).getStatus()).isEqualTo(200);
+        assertThat(passed).hasValue(2);
+    }
+
+    @Test
+    void ignoresPathsWithoutLimits() throws Exception {
+        RateLimitFilter filter = filter().limit(LOGIN, RateLimitFilter.KeyType.IP, 1, Duration.ofMinutes(1));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students");
+        request.setRemoteAddr("10.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, okChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getHeader("RateLimit-Limit")).isNull();
+        }
+    }
+
+    private static RateLimitFilter filter() {
+        return new RateLimitFilter(JsonMapper.builder().findAndAddModules().build(), 1000);
+    }
+
+    private static MockHttpServletResponse call(RateLimitFilter filter, String ip, String username,
+                                                FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", LOGIN);
+        request.setRemoteAddr(ip);
+        if (username != null) {
+            request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            request.setContent(("{\"usernameOrEmail\":\"" + username + "\",\"password\":\"x\"}")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private FilterChain okChain() {
+        return (request, response) -> passed.incrementAndGet();
+    }
+
+    private FilterChain unauthorizedChain() {
+        return (request, response) -> {
+            passed.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(401);
+        };
+    }
+}
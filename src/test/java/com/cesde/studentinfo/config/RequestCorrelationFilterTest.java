@@ -0,0 +1,55 @@
+package com.cesde.studentinfo.config;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCorrelationFilterTest {
+
+    private final RequestCorrelationFilter filter = new RequestCorrelationFilter();
+
+    @Test
+    void propagatesAValidIncomingRequestId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students");
+        request.addHeader(RequestCorrelationFilter.HEADER, "gw-1234.abc");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seenInChain = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> seenInChain.set(MDC.get(RequestCorrelationFilter.MDC_REQUEST_ID)));
+
+        assertThat(seenInChain).hasValue("gw-1234.abc");
+        assertThat(response.getHeader(RequestCorrelationFilter.HEADER)).isEqualTo("gw-1234.abc");
+    }
+
+    @Test
+    void replacesUnsafeRequestIds() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students");
+        request.addHeader(RequestCorrelationFilter.HEADER, "bad\nid\" injected");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> { });
+
+        assertThat(response.getHeader(RequestCorrelationFilter.HEADER))
+                .isNotEqualTo("bad\nid\" injected")
+                .matches("[0-9a-f-]{36}");
+    }
+
+    @Test
+    void clearsTheMdcAfterTheRequestEvenOnFailure() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students");
+
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            MDC.put(RequestCorrelationFilter.MDC_USER, "ana");
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(MDC.get(RequestCorrelationFilter.MDC_REQUEST_ID)).isNull();
+        assertThat(MDC.get(RequestCorrelationFilter.MDC_USER)).isNull();
+    }
+}
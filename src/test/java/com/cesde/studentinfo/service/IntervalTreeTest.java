@@ -0,0 +1,94 @@
+package com.cesde.studentinfo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalTreeTest {
+
+    @Test
+    void emptyTreeHasNoOverlaps() {
+        IntervalTree<String> tree = IntervalTree.empty();
+
+        assertThat(tree.isEmpty()).isTrue();
+        assertThat(tree.overlapping(0, 100)).isEmpty();
+    }
+
+    @Test
+    void intervalsAreHalfOpen() {
+        IntervalTree<String> tree = IntervalTree.<String>empty().with(10, 20, "a");
+
+        assertThat(tree.overlapping(0, 10)).isEmpty();
+        assertThat(tree.overlapping(20, 30)).isEmpty();
+        assertThat(tree.overlapping(19, 21)).containsExactly("a");
+        assertThat(tree.overlapping(0, 11)).containsExactly("a");
+    }
+
+    @Test
+    void findsContainedContainingAndPartialOverlapsInStartOrder() {
+        IntervalTree<String> tree = IntervalTree.of(List.of(
+                new IntervalTree.Interval<>(50, 60, "late"),
+                new IntervalTree.Interval<>(0, 100, "all-day"),
+                new IntervalTree.Interval<>(20, 30, "inside"),
+                new IntervalTree.Interval<>(35, 45, "partial"),
+                new IntervalTree.Interval<>(100, 110, "after")));
+
+        assertThat(tree.overlapping(25, 40)).containsExactly("all-day", "inside", "partial");
+        assertThat(tree.overlapping(100, 101)).containsExactly("after");
+        assertThat(tree.values()).containsExactly("all-day", "inside", "partial", "late", "after");
+    }
+
+    @Test
+    void longIntervalOnTheLeftIsNotPrunedAway() {
+        // El intervalo largo queda en el subárbol izquierdo; solo maxEnds evita descartarlo
+        List<IntervalTree.Interval<Integer>> intervals = new ArrayList<>();
+        intervals.add(new IntervalTree.Interval<>(0, 1_000, -1));
+        for (int i = 1; i <= 20; i++) {
+            intervals.add(new IntervalTree.Interval<>(i * 10L, i * 10L + 5, i));
+        }
+        IntervalTree<Integer> tree = IntervalTree.of(intervals);
+
+        assertThat(tree.overlapping(500, 501)).containsExactly(-1);
+        assertThat(tree.overlapping(200, 206)).containsExactly(-1, 20);
+    }
+
+    @Test
+    void modificationsReturnNewTreesAndLeaveTheOriginalIntact() {
+        IntervalTree<String> original = IntervalTree.<String>empty().with(0, 10, "a").with(5, 15, "b");
+
+        IntervalTree<String> added = original.with(12, 20, "c");
+        IntervalTree<String> removed = added.without("a"::equals);
+
+        assertThat(original.values()).containsExactly("a", "b");
+        assertThat(added.overlapping(11, 13)).containsExactly("b", "c");
+        assertThat(removed.overlapping(0, 20)).containsExactly("b", "c");
+        assertThat(removed.without("z"::equals)).isSameAs(removed);
+    }
+
+    @Test
+    void matchesABruteForceScan() {
+        Random random = new Random(42);
+        List<IntervalTree.Interval<Integer>> intervals = new ArrayList<>();
+        IntervalTree<Integer> tree = IntervalTree.empty();
+        for (int i = 0; i < 300; i++) {
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(300);
+            intervals.add(new IntervalTree.Interval<>(start, end, i));
+            tree = tree.with(start, end, i);
+        }
+
+        for (int q = 0; q < 500; q++) {
+            long start = random.nextInt(10_500);
+            long end = start + 1 + random.nextInt(500);
+            List<Integer> expected = intervals.stream()
+                    .filter(iv -> iv.start() < end && iv.end() > start)
+                    .map(IntervalTree.Interval::value)
+                    .toList();
+            assertThat(tree.overlapping(start, end)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.exception.ConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticRetryTest {
+
+    @Test
+    void returnsTheFirstSuccessfulAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = OptimisticRetry.execute("Grade", 1L, 3, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Grade", 1L);
+            }
+            return "saved";
+        });
+
+        assertThat(result).isEqualTo("saved");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void reportsAConflictOnceAttemptsAreExhausted() {
+        AtomicInteger attempts = new AtomicInteger();
+        ObjectOptimisticLockingFailureException last = new ObjectOptimisticLockingFailureException("Grade", 7L);
+
+        assertThatThrownBy(() -> OptimisticRetry.execute("Grade", 7L, 2, () -> {
+            attempts.incrementAndGet();
+            throw last;
+        }))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Grade 7")
+                .hasCause(last);
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> OptimisticRetry.execute("Attendance", 3L, 5, () -> {
+            attempts.incrementAndGet();
+            throw new DataIntegrityViolationException("duplicate");
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void singleAttemptFailsWithoutRetrying() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> OptimisticRetry.execute("Attendance", 3L, 1, () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Attendance", 3L);
+        })).isInstanceOf(ConflictException.class);
+        assertThat(attempts).hasValue(1);
+    }
+}
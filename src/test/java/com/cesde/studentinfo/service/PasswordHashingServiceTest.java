@@ -0,0 +1,101 @@
+package com.cesde.studentinfo.service;
+
+import com.cesde.studentinfo.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void encodesAndMatchesWithTheConfiguredCost() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), 4, 1, 4, 5000);
+
+        String hash = service.encode("secret");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(service.matches("secret", hash)).isTrue();
+        assertThat(service.matches("other", hash)).isFalse();
+    }
+
+    @Test
+    void flagsHashesWithADifferentCostForRehash() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), 4, 1, 4, 5000);
+
+        assertThat(service.needsRehash(new BCryptPasswordEncoder(5).encode("secret"))).isTrue();
+        assertThat(service.needsRehash(new BCryptPasswordEncoder(4).encode("secret"))).isFalse();
+        assertThat(service.needsRehash("plain-text")).isFalse();
+        assertThat(service.needsRehash(null)).isFalse();
+    }
+
+    @Test
+    void rejectsImmediatelyWhenThePoolAndQueueAreFull() throws Exception {
+        service = new PasswordHashingService(blockingEncoder(), 4, 1, 1, 5000);
+
+        // Uno ocupa el único hilo y otro la única posición de la cola
+        callers.submit(() -> service.matches("a", "hash"));
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+        callers.submit(() -> service.matches("b", "hash"));
+        waitUntil(() -> (int) service.getStats().get("queued") == 1);
+
+        assertThatThrownBy(() -> service.matches("c", "hash"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .satisfies(e -> assertThat(((ServiceUnavailableException) e).getRetryAfterSeconds()).isEqualTo(1));
+        assertThat(service.getStats()).containsEntry("rejected", 1L);
+    }
+
+    @Test
+    void timesOutInsteadOfWaitingForeverOnAStuckHash() {
+        service = new PasswordHashingService(blockingEncoder(), 4, 1, 1, 50);
+
+        assertThatThrownBy(() -> service.matches("a", "hash"))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(service.getStats()).containsEntry("timedOut", 1L);
+    }
+
+    private BCryptPasswordEncoder blockingEncoder() {
+        return new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+        };
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("condition not met in time").isNegative();
+            Thread.sleep(5);
+        }
+    }
+}
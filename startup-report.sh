@@ -0,0 +1,65 @@
+#!/bin/bash
+# Compara el arranque de las variantes de build (jar, AppCDS, AppCDS + AOT, nativo)
+# Mide el tiempo hasta "Started Main" y el RSS del proceso en ese momento.
+#
+# Requisitos: base de datos accesible (variables de .env) y builds previos:
+#   mvn -Pcds,aot clean package -DskipTests        -> jar, jar delgado y target/app.jsa
+#   mvn -Pnative native:compile -DskipTests        -> target/student-information-system (opcional)
+
+RUNS=${RUNS:-3}
+TARGET=target
+JAR=$TARGET/student-information-system-1.0.0.jar
+CDS_JAR=student-information-system-1.0.0-cds.jar
+NATIVE=$TARGET/student-information-system
+
+if [ -f .env ]; then
+    set -a
+    source .env
+    set +a
+fi
+
+if [ ! -f "$JAR" ]; then
+    echo "❌ No se encontró $JAR. Ejecutar primero: mvn -Pcds,aot clean package -DskipTests"
+    exit 1
+fi
+
+# Ejecuta el comando en segundo plano hasta que registra "Started", luego mide y lo detiene
+measure() {
+    local name=$1
+    shift
+    local total_ms=0 total_rss=0
+    for ((i = 1; i <= RUNS; i++)); do
+        local log=$(mktemp)
+        local start=$(date +%s%N)
+        "$@" > "$log" 2>&1 &
+        local pid=$!
+        while ! grep -q "Started Main" "$log"; do
+            if ! kill -0 $pid 2>/dev/null; then
+                echo "❌ $name terminó sin arrancar (ver $log)"
+                return
+            fi
+            sleep 0.05
+        done
+        local end=$(date +%s%N)
+        local rss=$(awk '/VmRSS/ {print $2}' /proc/$pid/status)
+        kill $pid
+        wait $pid 2>/dev/null
+        rm -f "$log"
+        total_ms=$((total_ms + (end - start) / 1000000))
+        total_rss=$((total_rss + rss))
+    done
+    printf "| %-16s | %10d | %10d |\n" "$name" $((total_ms / RUNS)) $((total_rss / RUNS / 1024))
+}
+
+echo "Promedio de $RUNS arranques"
+echo ""
+echo "| Variante         | Arranque ms | RSS MB     |"
+echo "|------------------|------------|------------|"
+measure "jar" java -jar "$JAR"
+if [ -f "$TARGET/app.jsa" ]; then
+    measure "appcds" bash -c "cd $TARGET && exec java -XX:SharedArchiveFile=app.jsa -jar $CDS_JAR"
+    measure "appcds + aot" bash -c "cd $TARGET && exec java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar $CDS_JAR"
+fi
+if [ -x "$NATIVE" ]; then
+    measure "native" "$NATIVE"
+fi